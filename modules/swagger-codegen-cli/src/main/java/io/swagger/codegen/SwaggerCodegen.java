@@ -2,6 +2,8 @@ package io.swagger.codegen;
 
 import io.airlift.airline.Cli;
 import io.airlift.airline.Help;
+import io.swagger.codegen.cmd.CachePrune;
+import io.swagger.codegen.cmd.CacheStats;
 import io.swagger.codegen.cmd.ConfigHelp;
 import io.swagger.codegen.cmd.Generate;
 import io.swagger.codegen.cmd.Langs;
@@ -31,6 +33,10 @@ public class SwaggerCodegen {
                         .withDefaultCommand(Langs.class)
                         .withCommands(Generate.class, Meta.class, Langs.class, Help.class,
                                 ConfigHelp.class, Validate.class, Version.class);
+        builder.withGroup("cache")
+                .withDescription("Inspect and prune the generation cache used by generate --cache-dir")
+                .withDefaultCommand(CacheStats.class)
+                .withCommands(CacheStats.class, CachePrune.class);
 
         builder.build().parse(args).run();
     }
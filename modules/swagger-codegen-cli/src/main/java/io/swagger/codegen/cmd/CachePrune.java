@@ -0,0 +1,32 @@
+package io.swagger.codegen.cmd;
+
+import io.airlift.airline.Command;
+import io.airlift.airline.Option;
+import io.swagger.codegen.cache.GenerationCache;
+
+import java.io.File;
+import java.io.IOException;
+
+@Command(name = "prune", description = "Evict the least recently used runs from a generation cache")
+public class CachePrune implements Runnable {
+
+    @Option(name = {"--cache-dir"}, title = "cache directory", required = true,
+            description = "the generation cache directory (required)")
+    private String cacheDir;
+
+    @Option(name = {"--max-size"}, title = "maximum size",
+            description = "size in megabytes to prune the cache to, 0 to empty it (1024 by default)")
+    private Long maxSize = GenerationCache.DEFAULT_MAX_SIZE / (1024 * 1024);
+
+    @Override
+    public void run() {
+        GenerationCache cache = new GenerationCache(new File(cacheDir));
+        try {
+            int evicted = cache.prune(maxSize * 1024 * 1024);
+            GenerationCache.Stats stats = cache.stats();
+            System.out.printf("Evicted %d runs, %d runs left (%d bytes)%n", evicted, stats.getEntries(), stats.getSize());
+        } catch (IOException e) {
+            throw new RuntimeException("Could not prune the generation cache in '" + cacheDir + "'", e);
+        }
+    }
+}
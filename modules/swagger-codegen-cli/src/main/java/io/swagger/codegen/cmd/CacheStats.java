@@ -0,0 +1,29 @@
+package io.swagger.codegen.cmd;
+
+import io.airlift.airline.Command;
+import io.airlift.airline.Option;
+import io.swagger.codegen.cache.GenerationCache;
+
+import java.io.File;
+import java.util.Date;
+
+@Command(name = "stats", description = "Show the size of a generation cache")
+public class CacheStats implements Runnable {
+
+    @Option(name = {"--cache-dir"}, title = "cache directory", required = true,
+            description = "the generation cache directory (required)")
+    private String cacheDir;
+
+    @Override
+    public void run() {
+        GenerationCache cache = new GenerationCache(new File(cacheDir));
+        GenerationCache.Stats stats = cache.stats();
+        System.out.printf("Cache directory: %s%n", cache.getDirectory().getAbsolutePath());
+        System.out.printf("Cached runs: %d%n", stats.getEntries());
+        System.out.printf("Stored files: %d (%d bytes)%n", stats.getBlobs(), stats.getSize());
+        if (stats.getEntries() > 0) {
+            System.out.printf("Last used: %s%n", new Date(stats.getLastUsed()));
+            System.out.printf("Least recently used: %s%n", new Date(stats.getLeastRecentlyUsed()));
+        }
+    }
+}
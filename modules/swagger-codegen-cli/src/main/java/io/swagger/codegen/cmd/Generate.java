@@ -5,13 +5,18 @@ import io.airlift.airline.Option;
 import io.swagger.codegen.ClientOptInput;
 import io.swagger.codegen.CodegenConstants;
 import io.swagger.codegen.DefaultGenerator;
+import io.swagger.codegen.cache.GenerationCache;
+import io.swagger.codegen.watch.GenerationWatcher;
 import io.swagger.codegen.config.CodegenConfigurator;
+import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import static io.swagger.codegen.config.CodegenConfiguratorUtils.*;
 import static org.apache.commons.lang3.StringUtils.isNotEmpty;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -178,6 +183,29 @@ public class Generate implements Runnable {
     @Option(name = {"--ignore-import-mapping"}, title = "ignore import mapping", description = "allow generate model classes using names previously listed on import mappings.")
     private String ignoreImportMappings;
 
+    @Option(name = {"--shard"}, title = "shard",
+            description = "render only shard <index>/<count> of the models and apis, for example 2/4. "
+                    + "Run all shards into the same output directory, then generate with --merge-shards to add the supporting files.")
+    private String shard;
+
+    @Option(name = {"--watch"}, title = "watch",
+            description = "keep running and generate again whenever the input spec, a file it refers to or a template in the template directory changes. "
+                    + "Only the models and apis affected by a change are rendered.")
+    private Boolean watch;
+
+    @Option(name = {"--cache-dir"}, title = "cache directory",
+            description = "reuse the output of earlier runs with the same spec, options, templates and codegen version, "
+                    + "stored in this directory. See the cache command to inspect and prune it.")
+    private String cacheDir;
+
+    @Option(name = {"--cache-max-size"}, title = "cache size",
+            description = "size in megabytes the generation cache is pruned to after storing a run (1024 by default)")
+    private Long cacheMaxSize;
+
+    @Option(name = {"--merge-shards"}, title = "merge shards",
+            description = "generate the supporting files for the output of all shards of a --shard run.")
+    private Boolean mergeShards;
+
     @Override
     public void run() {
 
@@ -287,6 +315,14 @@ public class Generate implements Runnable {
             additionalProperties.add(String.format("%s=%s", CodegenConstants.IGNORE_IMPORT_MAPPING_OPTION, Boolean.parseBoolean(ignoreImportMappings)));
         }
 
+        if (isNotEmpty(shard)) {
+            configurator.addSystemProperty(CodegenConstants.SHARD, shard);
+        }
+
+        if (mergeShards != null) {
+            configurator.addSystemProperty(CodegenConstants.MERGE_SHARDS, mergeShards.toString());
+        }
+
         applySystemPropertiesKvpList(systemProperties, configurator);
         applyInstantiationTypesKvpList(instantiationTypes, configurator);
         applyImportMappingsKvpList(importMappings, configurator);
@@ -294,8 +330,31 @@ public class Generate implements Runnable {
         applyAdditionalPropertiesKvpList(additionalProperties, configurator);
         applyLanguageSpecificPrimitivesCsvList(languageSpecificPrimitives, configurator);
         applyReservedWordsMappingsKvpList(reservedWordsMappings, configurator);
+
+        if (watch != null && watch) {
+            watch(configurator);
+            return;
+        }
+
         final ClientOptInput clientOptInput = configurator.toClientOptInput();
 
+        if (isNotEmpty(cacheDir)) {
+            long maxSize = cacheMaxSize != null ? cacheMaxSize * 1024 * 1024 : GenerationCache.DEFAULT_MAX_SIZE;
+            new GenerationCache(new File(cacheDir), maxSize).generate(clientOptInput, new DefaultGenerator());
+            return;
+        }
+
         new DefaultGenerator().opts(clientOptInput).generate();
     }
+
+    private void watch(CodegenConfigurator configurator) {
+        GenerationWatcher watcher = new GenerationWatcher(configurator);
+        try {
+            watcher.run();
+        } catch (IOException e) {
+            throw new RuntimeException("Could not watch '" + configurator.getInputSpec() + "' for changes", e);
+        } finally {
+            IOUtils.closeQuietly(watcher);
+        }
+    }
 }
@@ -1,6 +1,7 @@
 package io.swagger.codegen.cmd;
 
 import io.swagger.codegen.ClientOptInput;
+import io.swagger.codegen.CodegenConstants;
 import io.swagger.codegen.DefaultGenerator;
 import io.swagger.codegen.SwaggerCodegen;
 import io.swagger.codegen.config.CodegenConfigurator;
@@ -487,6 +488,31 @@ public class GenerateTest {
         };
     }
 
+    @Test
+    public void testShard() throws Exception {
+        final String value = "2/4";
+        setupAndRunGenericTest("--shard", value);
+
+        new FullVerifications() {
+            {
+                configurator.addSystemProperty(CodegenConstants.SHARD, value);
+                times = 1;
+            }
+        };
+    }
+
+    @Test
+    public void testMergeShards() throws Exception {
+        setupAndRunGenericTest("--merge-shards");
+
+        new FullVerifications() {
+            {
+                configurator.addSystemProperty(CodegenConstants.MERGE_SHARDS, "true");
+                times = 1;
+            }
+        };
+    }
+
     private void setupAndRunTest(String specFlag, final String spec, String langFlag,
             final String lang, String outputDirFlag, final String outputDir,
             boolean configuratorFromFile, final String configFile, String... additionalParameters) {
@@ -283,6 +283,19 @@ public class CodeGenMojo extends AbstractMojo {
     @Parameter(name = "withXml", required = false)
     private Boolean withXml = false;
 
+    /**
+     * Render only one shard of the models and apis, as index/count, for example 2/4. The supporting
+     * files are generated by a final execution with mergeShards.
+     */
+    @Parameter(name = "shard", property = "codegen.shard", required = false)
+    private String shard;
+
+    /**
+     * Generate the supporting files for the output of all shards.
+     */
+    @Parameter(name = "mergeShards", property = "codegen.mergeShards", required = false)
+    private Boolean mergeShards = false;
+
     /**
      * Skip the execution.
      */
@@ -438,6 +451,13 @@ public class CodeGenMojo extends AbstractMojo {
         System.setProperty(CodegenConstants.API_DOCS, generateApiDocumentation.toString());
         System.setProperty(CodegenConstants.WITH_XML, withXml.toString());
 
+        if (isNotEmpty(shard)) {
+            System.setProperty(CodegenConstants.SHARD, shard);
+        } else {
+            System.clearProperty(CodegenConstants.SHARD);
+        }
+        System.setProperty(CodegenConstants.MERGE_SHARDS, mergeShards.toString());
+
         if (configOptions != null) {
             // Retained for backwards-compataibility with configOptions -> instantiation-types
             if (instantiationTypes == null && configOptions.containsKey("instantiation-types")) {
@@ -20,6 +20,8 @@ import org.slf4j.LoggerFactory;
 public abstract class AbstractGenerator {
     private static final Logger LOGGER = LoggerFactory.getLogger(AbstractGenerator.class);
 
+    protected TemplateRepository templateRepository;
+
     @SuppressWarnings("static-method")
     public File writeToFile(String filename, String contents) throws IOException {
         LOGGER.info("writing file " + filename);
@@ -53,7 +55,13 @@ public abstract class AbstractGenerator {
 
     public Reader getTemplateReader(String name) {
         try {
-            InputStream is = this.getClass().getClassLoader().getResourceAsStream(getCPResourcePath(name));
+            String path = getCPResourcePath(name);
+            InputStream is;
+            if (templateRepository != null && templateRepository.covers(path)) {
+                is = templateRepository.getInputStream(path);
+            } else {
+                is = this.getClass().getClassLoader().getResourceAsStream(path);
+            }
             if (is == null) {
                 is = new FileInputStream(new File(name)); // May throw but never return a null value
             }
@@ -122,7 +130,11 @@ public abstract class AbstractGenerator {
     }
 
     public boolean embeddedTemplateExists(String name) {
-        return this.getClass().getClassLoader().getResource(getCPResourcePath(name)) != null;
+        String path = getCPResourcePath(name);
+        if (templateRepository != null && templateRepository.covers(path)) {
+            return templateRepository.exists(path);
+        }
+        return this.getClass().getClassLoader().getResource(path) != null;
     }
 
     @SuppressWarnings("static-method")
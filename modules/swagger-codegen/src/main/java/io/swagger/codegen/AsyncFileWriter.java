@@ -0,0 +1,195 @@
+package io.swagger.codegen;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes rendered files in the background, so rendering doesn't wait for the disk.
+ *
+ * Writes are queued on a bounded number of I/O threads, or done right away if there are none. A
+ * file always goes to the same thread, so writes to one file happen in submission order.
+ * {@link #flush()} waits for everything queued so far and rethrows the failure of the earliest
+ * submitted write, if any. Parent directories are only created once per folder.
+ */
+public class AsyncFileWriter {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AsyncFileWriter.class);
+
+    public static final int DEFAULT_THREADS = 4;
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private final List<ExecutorService> lanes = new ArrayList<ExecutorService>();
+    private final Semaphore capacity;
+    private final int permits;
+    private final AtomicLong sequence = new AtomicLong();
+    private final Set<File> directories = ConcurrentHashMap.newKeySet();
+
+    // earliest failed write since the last flush, guarded by this
+    private long failedSequence = Long.MAX_VALUE;
+    private IOException failure;
+    private String failedFile;
+
+    public AsyncFileWriter() {
+        this(DEFAULT_THREADS, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param threads number of I/O threads, 0 to write files synchronously
+     * @param capacity maximum number of rendered files waiting to be written
+     */
+    public AsyncFileWriter(int threads, int capacity) {
+        if (threads < 0 || capacity < 1) {
+            throw new IllegalArgumentException("threads must not be negative and capacity must be positive");
+        }
+        this.permits = capacity;
+        this.capacity = new Semaphore(capacity);
+        final AtomicInteger count = new AtomicInteger();
+        ThreadFactory factory = new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "swagger-codegen-writer-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        };
+        for (int i = 0; i < threads; i++) {
+            lanes.add(Executors.newSingleThreadExecutor(factory));
+        }
+    }
+
+    /**
+     * Queue a file to be written, blocking while the queue is full.
+     *
+     * @param filename the file to write
+     * @param contents the contents of the file
+     * @return the file which will be written
+     * @throws IOException if the file is written synchronously and can't be written
+     */
+    public File write(final String filename, final String contents) throws IOException {
+        final File output = new File(filename);
+        if (lanes.isEmpty()) {
+            writeNow(output, contents);
+            return output;
+        }
+        // folders are created here rather than on the I/O threads, so no thread writes into a folder still being created
+        createParent(output);
+        final long position = sequence.getAndIncrement();
+        acquire(1);
+        try {
+            lanes.get((output.getAbsolutePath().hashCode() & Integer.MAX_VALUE) % lanes.size()).execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        writeNow(output, contents);
+                    } catch (IOException e) {
+                        failed(position, filename, e);
+                    } catch (RuntimeException e) {
+                        failed(position, filename, new IOException(e));
+                    } finally {
+                        capacity.release();
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            capacity.release();
+            throw e;
+        }
+        return output;
+    }
+
+    /**
+     * Write a file on the calling thread, creating its folder if this writer hasn't done so yet.
+     *
+     * @param output the file to write
+     * @param contents the contents of the file
+     * @throws IOException if the file can't be written
+     */
+    public void writeNow(File output, String contents) throws IOException {
+        LOGGER.info("writing file " + output);
+        createParent(output);
+        Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(output), "UTF-8"));
+        try {
+            out.write(contents);
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Wait until all queued files are written.
+     *
+     * @throws IOException the failure of the earliest queued write which failed since the last flush
+     */
+    public void flush() throws IOException {
+        // holding every permit means nothing is queued or being written anymore
+        acquire(permits);
+        capacity.release(permits);
+
+        synchronized (this) {
+            IOException e = failure;
+            String filename = failedFile;
+            failure = null;
+            failedFile = null;
+            failedSequence = Long.MAX_VALUE;
+            if (e != null) {
+                throw new IOException("Could not write file '" + filename + "'", e);
+            }
+        }
+    }
+
+    /**
+     * Stop the I/O threads once the queued files are written. Failures are only reported by {@link #flush()}.
+     */
+    public void close() {
+        for (ExecutorService lane : lanes) {
+            lane.shutdown();
+        }
+    }
+
+    private void createParent(File output) {
+        File parent = output.getAbsoluteFile().getParentFile();
+        if (parent != null && !directories.contains(parent)) {
+            parent.mkdirs();
+            directories.add(parent);
+        }
+    }
+
+    private synchronized void failed(long position, String filename, IOException e) {
+        if (position < failedSequence) {
+            failedSequence = position;
+            failure = e;
+            failedFile = filename;
+        }
+    }
+
+    private void acquire(int count) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                capacity.acquire(count);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
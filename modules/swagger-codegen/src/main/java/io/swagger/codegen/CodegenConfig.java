@@ -12,6 +12,18 @@ import io.swagger.models.Swagger;
 import io.swagger.models.auth.SecuritySchemeDefinition;
 import io.swagger.models.properties.Property;
 
+/**
+ * Configuration and callbacks of a generator.
+ *
+ * Thread-safety contract: the configuration (type/import/instantiation mappings, packages,
+ * folders, additional properties, ...) is set up by {@link #processOpts()} and frozen
+ * afterwards, in the {@link CodegenConfigSnapshot} of the run. State that is discovered while
+ * a spec is processed, like the type aliases and the <code>x-codegen-import-mapping</code>
+ * mappings, is only kept in the {@link CodegenContext} bound through {@link #setContext(CodegenContext)},
+ * which is replaced at the start of every run, and is read from there. Implementations should
+ * keep the state of their own <code>postProcess*</code> hooks in the attributes of the context
+ * too, rather than in their fields, so nothing leaks from a run into the next one.
+ */
 public interface CodegenConfig {
     CodegenType getTag();
 
@@ -234,4 +246,13 @@ public interface CodegenConfig {
 
     boolean defaultIgnoreImportMappingOption();
 
+    /**
+     * Per-run state of the current generation.
+     *
+     * @return the context of the current run, never null
+     */
+    CodegenContext getContext();
+
+    void setContext(CodegenContext context);
+
 }
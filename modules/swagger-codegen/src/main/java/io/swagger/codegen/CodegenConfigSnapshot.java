@@ -0,0 +1,129 @@
+package io.swagger.codegen;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable view of the configuration of a {@link CodegenConfig}, captured once
+ * {@link CodegenConfig#processOpts()} has run.
+ *
+ * Everything in here is treated as frozen for the remainder of a generation run and
+ * may therefore be read from any thread without synchronization. State that changes
+ * while a run progresses belongs to the {@link CodegenContext} instead.
+ */
+public final class CodegenConfigSnapshot {
+    private final String name;
+    private final String library;
+    private final String modelPackage;
+    private final String apiPackage;
+    private final String outputFolder;
+    private final String templateDir;
+    private final String embeddedTemplateDir;
+    private final Map<String, String> typeMapping;
+    private final Map<String, String> importMapping;
+    private final Map<String, String> instantiationTypes;
+    private final Set<String> languageSpecificPrimitives;
+    private final Set<String> reservedWords;
+    private final Set<String> defaultIncludes;
+    private final Map<String, Object> additionalProperties;
+
+    private CodegenConfigSnapshot(CodegenConfig config) {
+        this.name = config.getName();
+        this.library = config.getLibrary();
+        this.modelPackage = config.modelPackage();
+        this.apiPackage = config.apiPackage();
+        this.outputFolder = config.outputFolder();
+        this.templateDir = config.templateDir();
+        this.embeddedTemplateDir = config.embeddedTemplateDir();
+        this.typeMapping = copyOf(config.typeMapping());
+        this.importMapping = copyOf(config.importMapping());
+        this.instantiationTypes = copyOf(config.instantiationTypes());
+        this.languageSpecificPrimitives = copyOf(config.languageSpecificPrimitives());
+        this.reservedWords = copyOf(config.reservedWords());
+        this.defaultIncludes = copyOf(config.defaultIncludes());
+        this.additionalProperties = copyOf(config.additionalProperties());
+    }
+
+    /**
+     * Capture the current configuration of the given codegen config.
+     *
+     * @param config the codegen config, after {@link CodegenConfig#processOpts()}
+     * @return an immutable snapshot of its configuration
+     */
+    public static CodegenConfigSnapshot of(CodegenConfig config) {
+        return new CodegenConfigSnapshot(config);
+    }
+
+    private static <K, V> Map<K, V> copyOf(Map<K, V> map) {
+        if (map == null) {
+            return Collections.emptyMap();
+        }
+        return Collections.unmodifiableMap(new HashMap<K, V>(map));
+    }
+
+    private static <T> Set<T> copyOf(Set<T> set) {
+        if (set == null) {
+            return Collections.emptySet();
+        }
+        return Collections.unmodifiableSet(new HashSet<T>(set));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getLibrary() {
+        return library;
+    }
+
+    public String getModelPackage() {
+        return modelPackage;
+    }
+
+    public String getApiPackage() {
+        return apiPackage;
+    }
+
+    public String getOutputFolder() {
+        return outputFolder;
+    }
+
+    public String getTemplateDir() {
+        return templateDir;
+    }
+
+    public String getEmbeddedTemplateDir() {
+        return embeddedTemplateDir;
+    }
+
+    public Map<String, String> getTypeMapping() {
+        return typeMapping;
+    }
+
+    public Map<String, String> getImportMapping() {
+        return importMapping;
+    }
+
+    public Map<String, String> getInstantiationTypes() {
+        return instantiationTypes;
+    }
+
+    public Set<String> getLanguageSpecificPrimitives() {
+        return languageSpecificPrimitives;
+    }
+
+    public Set<String> getReservedWords() {
+        return reservedWords;
+    }
+
+    public Set<String> getDefaultIncludes() {
+        return defaultIncludes;
+    }
+
+    public Map<String, Object> getAdditionalProperties() {
+        return additionalProperties;
+    }
+}
@@ -14,6 +14,10 @@ public class CodegenConstants {
     public static final String API_TESTS = "apiTests";
     public static final String API_DOCS = "apiDocs";
     public static final String WITH_XML = "withXml";
+    public static final String STREAMING = "streaming";
+    public static final String ASYNC_WRITES = "asyncWrites";
+    public static final String SHARD = "shard";
+    public static final String MERGE_SHARDS = "mergeShards";
     /* /end System Properties */
 
     public static final String API_PACKAGE = "apiPackage";
@@ -0,0 +1,202 @@
+package io.swagger.codegen;
+
+import io.swagger.codegen.examples.ExampleGenerator;
+import io.swagger.models.Model;
+import io.swagger.models.ModelImpl;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Mutable state of a single generation run.
+ *
+ * A fresh context is bound to the {@link CodegenConfig} by {@link DefaultGenerator} at
+ * the start of every run, so nothing discovered while processing one spec (type aliases,
+ * import mappings coming from vendor extensions, ...) leaks into the next run. All
+ * members are safe to use from several threads of the same run.
+ */
+public class CodegenContext {
+    private final CodegenConfigSnapshot configuration;
+    private final ConcurrentMap<String, String> importMapping = new ConcurrentHashMap<String, String>();
+    private final ConcurrentMap<String, Object> attributes = new ConcurrentHashMap<String, Object>();
+    private final ConcurrentMap<String, String> strings = new ConcurrentHashMap<String, String>();
+    private volatile Map<String, String> typeAliases;
+    private ExampleGenerator exampleGenerator;
+
+    public CodegenContext() {
+        this(null);
+    }
+
+    public CodegenContext(CodegenConfigSnapshot configuration) {
+        this.configuration = configuration;
+    }
+
+    /**
+     * @return the frozen configuration of the run, or null if the context was created
+     * outside of {@link DefaultGenerator}
+     */
+    public CodegenConfigSnapshot getConfiguration() {
+        return configuration;
+    }
+
+    /**
+     * Register an import mapping that only applies to the current run, e.g. one declared
+     * with the <code>x-codegen-import-mapping</code> vendor extension.
+     *
+     * @param name the model name
+     * @param mapping the import to use for the model
+     */
+    public void addImportMapping(String name, String mapping) {
+        importMapping.put(name, mapping);
+    }
+
+    /**
+     * @return the import mappings registered for the current run only
+     */
+    public Map<String, String> getImportMapping() {
+        return Collections.unmodifiableMap(importMapping);
+    }
+
+    /**
+     * Resolve an import mapping, preferring mappings registered for the current run over
+     * the ones configured on the codegen config.
+     *
+     * @param config the codegen config of the run
+     * @param name the model or type name
+     * @return the mapped import, or null if there is none
+     */
+    public String resolveImportMapping(CodegenConfig config, String name) {
+        return resolveImportMapping(config.importMapping(), name);
+    }
+
+    /**
+     * Resolve an import mapping, preferring mappings registered for the current run over the
+     * frozen configuration of the run, or over the given mappings when there is none.
+     *
+     * @param configured the import mappings of the codegen config
+     * @param name the model or type name
+     * @return the mapped import, or null if there is none
+     */
+    public String resolveImportMapping(Map<String, String> configured, String name) {
+        String mapping = importMapping.get(name);
+        if (mapping == null) {
+            mapping = (configuration != null ? configuration.getImportMapping() : configured).get(name);
+        }
+        return mapping;
+    }
+
+    /**
+     * Determine the type aliases of the run. They are computed once from the definitions
+     * passed on the first call and reused afterwards.
+     *
+     * @param allDefinitions The complete set of model definitions.
+     * @return A mapping from model name to type alias
+     */
+    public Map<String, String> getTypeAliases(Map<String, Model> allDefinitions) {
+        Map<String, String> aliases = typeAliases;
+        if (aliases == null) {
+            synchronized (this) {
+                aliases = typeAliases;
+                if (aliases == null) {
+                    aliases = Collections.unmodifiableMap(findAliases(allDefinitions));
+                    typeAliases = aliases;
+                }
+            }
+        }
+        return aliases;
+    }
+
+    /**
+     * @return the type aliases of the run, or an empty map if they haven't been determined yet
+     */
+    public Map<String, String> getTypeAliases() {
+        Map<String, String> aliases = typeAliases;
+        return aliases != null ? aliases : Collections.<String, String>emptyMap();
+    }
+
+    /**
+     * The example generator of the run. It is shared by all operations as long as they resolve
+     * against the same definitions, which lets it reuse rendered examples.
+     *
+     * @param definitions the model definitions of the spec
+     * @return the example generator for the definitions
+     */
+    public synchronized ExampleGenerator getExampleGenerator(Map<String, Model> definitions) {
+        if (exampleGenerator == null || exampleGenerator.getDefinitions() != definitions) {
+            exampleGenerator = new ExampleGenerator(definitions);
+        }
+        return exampleGenerator;
+    }
+
+    /**
+     * The canonical instance of a string for the current run. Type and name strings are repeated
+     * across thousands of properties of big specs, pooling them keeps one copy of each alive.
+     *
+     * @param value the string, may be null
+     * @return an equal string, the same instance for all equal strings of the run
+     */
+    public String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        String pooled = strings.putIfAbsent(value, value);
+        return pooled != null ? pooled : value;
+    }
+
+    /**
+     * Determine all of the types in the model definitions that are aliases of
+     * simple types.
+     */
+    private static Map<String, String> findAliases(Map<String, Model> allDefinitions) {
+        Map<String, String> aliases = new HashMap<>();
+        if (allDefinitions != null) {
+            for (Map.Entry<String, Model> entry : allDefinitions.entrySet()) {
+                String swaggerName = entry.getKey();
+                Model m = entry.getValue();
+                if (m instanceof ModelImpl) {
+                    ModelImpl impl = (ModelImpl) m;
+                    if (impl.getType() != null &&
+                            !impl.getType().equals("object") &&
+                            impl.getEnum() == null) {
+                        aliases.put(swaggerName, impl.getType());
+                    }
+                }
+            }
+        }
+        return aliases;
+    }
+
+    /**
+     * Per-run storage for generators that need to remember something between
+     * <code>fromModel</code>, <code>fromOperation</code> and the <code>postProcess*</code> hooks.
+     *
+     * @param key the attribute name
+     * @return the attribute value, or null
+     */
+    public Object getAttribute(String key) {
+        return attributes.get(key);
+    }
+
+    public void setAttribute(String key, Object value) {
+        if (value == null) {
+            attributes.remove(key);
+        } else {
+            attributes.put(key, value);
+        }
+    }
+
+    /**
+     * Atomically store an attribute unless one is already present.
+     *
+     * @param key the attribute name
+     * @param value the value to store
+     * @return the value now associated with the key
+     */
+    public Object putAttributeIfAbsent(String key, Object value) {
+        Object existing = attributes.putIfAbsent(key, value);
+        return existing != null ? existing : value;
+    }
+}
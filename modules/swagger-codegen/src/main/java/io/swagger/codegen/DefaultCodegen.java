@@ -112,11 +112,11 @@ public class DefaultCodegen {
     // They are translated to words like "Dollar" and prefixed with '
     // Then translated back during JSON encoding and decoding
     protected Map<String, String> specialCharReplacements = new HashMap<String, String>();
-    // When a model is an alias for a simple type
-    protected Map<String, String> typeAliases = null;
-
     protected String ignoreFilePathOverride;
 
+    // Per-run state, replaced by DefaultGenerator at the start of every run
+    protected CodegenContext context = new CodegenContext();
+
     public List<CliOption> cliOptions() {
         return cliOptions;
     }
@@ -1365,10 +1365,8 @@ public class DefaultCodegen {
      * @return Codegen Model object
      */
     public CodegenModel fromModel(String name, Model model, Map<String, Model> allDefinitions) {
-        if (typeAliases == null) {
-            // Only do this once during first call
-            typeAliases = getAllAliases(allDefinitions);
-        }
+        // computed once per run by the context
+        Map<String, String> typeAliases = getContext().getTypeAliases(allDefinitions);
         CodegenModel m = CodegenModelFactory.newInstance(CodegenModelType.MODEL);
         if (reservedWords.contains(name)) {
             m.name = escapeReservedWord(name);
@@ -1561,9 +1559,27 @@ public class DefaultCodegen {
         }
 
         postProcessModelProperties(m);
+        internStrings(m);
         return m;
     }
 
+    /**
+     * Replace the type and name strings of a model with their pooled instances.
+     *
+     * @param m Codegen model object
+     */
+    protected void internStrings(CodegenModel m) {
+        CodegenContext context = getContext();
+        m.name = context.intern(m.name);
+        m.classname = context.intern(m.classname);
+        m.classVarName = context.intern(m.classVarName);
+        m.classFilename = context.intern(m.classFilename);
+        m.dataType = context.intern(m.dataType);
+        m.parent = context.intern(m.parent);
+        m.parentSchema = context.intern(m.parentSchema);
+        m.arrayModelType = context.intern(m.arrayModelType);
+    }
+
     private void rebuildComponents(ComposedModel composedModel) {
         List<Model> allComponents = composedModel.getAllOf();
         if (allComponents.size() >= 1) {
@@ -1967,9 +1983,35 @@ public class DefaultCodegen {
         } else {
             setNonArrayMapProperty(property, type);
         }
+        internStrings(property);
         return property;
     }
 
+    /**
+     * Replace the type and name strings of a property with their pooled instances.
+     *
+     * @param property Codegen property object
+     */
+    protected void internStrings(CodegenProperty property) {
+        CodegenContext context = getContext();
+        property.baseName = context.intern(property.baseName);
+        property.name = context.intern(property.name);
+        property.nameInCamelCase = context.intern(property.nameInCamelCase);
+        property.getter = context.intern(property.getter);
+        property.setter = context.intern(property.setter);
+        property.datatype = context.intern(property.datatype);
+        property.datatypeWithEnum = context.intern(property.datatypeWithEnum);
+        property.dataFormat = context.intern(property.dataFormat);
+        property.baseType = context.intern(property.baseType);
+        property.complexType = context.intern(property.complexType);
+        property.containerType = context.intern(property.containerType);
+        property.defaultValue = context.intern(property.defaultValue);
+        property.defaultValueWithParam = context.intern(property.defaultValueWithParam);
+        property.example = context.intern(property.example);
+        property.enumName = context.intern(property.enumName);
+        property.jsonSchema = context.intern(property.jsonSchema);
+    }
+
     /**
      * Update property for array(list) container
      * @param property Codegen property
@@ -3366,31 +3408,6 @@ public class DefaultCodegen {
         }
     }
 
-    /**
-     * Determine all of the types in the model definitions that are aliases of
-     * simple types.
-     * @param allDefinitions The complete set of model definitions.
-     * @return A mapping from model name to type alias
-     */
-    private static Map<String, String> getAllAliases(Map<String, Model> allDefinitions) {
-        Map<String, String> aliases = new HashMap<>();
-        if (allDefinitions != null) {
-            for (Map.Entry<String, Model> entry : allDefinitions.entrySet()) {
-                String swaggerName = entry.getKey();
-                Model m = entry.getValue();
-                if (m instanceof ModelImpl) {
-                    ModelImpl impl = (ModelImpl) m;
-                    if (impl.getType() != null &&
-                            !impl.getType().equals("object") &&
-                            impl.getEnum() == null) {
-                        aliases.put(swaggerName, impl.getType());
-                    }
-                }
-            }
-        }
-        return aliases;
-    }
-
     /**
      * Remove characters not suitable for variable or method name from the input and camelize it
      *
@@ -3982,12 +3999,14 @@ public class DefaultCodegen {
     }
 
     protected List<Map<String, String>> getExamples(Map<String, Model> definitions, Map<String, Object> examples, List<String> mediaTypes, Object object) {
+        // one generator per run, so examples of models used by several operations are rendered once
+        ExampleGenerator exampleGenerator = getContext().getExampleGenerator(definitions);
         if (object instanceof Property) {
             Property responseProperty = (Property) object;
-            return new ExampleGenerator(definitions).generate(examples, mediaTypes, responseProperty);
+            return exampleGenerator.generate(examples, mediaTypes, responseProperty);
         }
         // this must be a model name instead
-        return new ExampleGenerator(definitions).generate(examples, mediaTypes, object.toString());
+        return exampleGenerator.generate(examples, mediaTypes, object.toString());
     }
 
     public void writePropertyBack(String propertyKey, boolean value) {
@@ -4074,6 +4093,30 @@ public class DefaultCodegen {
         return false;
     }
 
+    public CodegenContext getContext() {
+        return context;
+    }
+
+    /**
+     * @return the models of the current run which are aliases of simple types, by name
+     */
+    protected Map<String, String> getTypeAliases() {
+        return getContext().getTypeAliases();
+    }
+
+    /**
+     * @param name the model or type name
+     * @return the import mapping of the name for the current run, including the ones of the
+     * <code>x-codegen-import-mapping</code> vendor extensions, or null if there is none
+     */
+    protected String resolveImportMapping(String name) {
+        return getContext().resolveImportMapping(importMapping, name);
+    }
+
+    public void setContext(CodegenContext context) {
+        this.context = context;
+    }
+
     protected boolean isModelObject(ModelImpl model) {
         if ("object".equalsIgnoreCase(model.getType())) {
             return true;
@@ -5,12 +5,13 @@ import com.samskivert.mustache.Template;
 import io.swagger.codegen.ignore.CodegenIgnoreProcessor;
 import io.swagger.codegen.languages.AbstractJavaCodegen;
 import io.swagger.codegen.utils.ImplementationVersion;
+import io.swagger.codegen.utils.StaticFileCopier;
 import io.swagger.models.*;
 import io.swagger.models.auth.OAuth2Definition;
 import io.swagger.models.auth.SecuritySchemeDefinition;
 import io.swagger.models.parameters.Parameter;
 import io.swagger.util.Json;
-import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.joda.time.DateTime;
@@ -18,9 +19,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
+import java.net.URI;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 public class DefaultGenerator extends AbstractGenerator implements Generator {
+    private static final Pattern DEFINITION_REF = Pattern.compile("\"#/definitions/([^\"]+)\"");
     protected final Logger LOGGER = LoggerFactory.getLogger(DefaultGenerator.class);
     protected CodegenConfig config;
     protected ClientOptInput opts;
@@ -34,6 +40,16 @@ public class DefaultGenerator extends AbstractGenerator implements Generator {
     protected Boolean isGenerateModelTests = null;
     protected Boolean isGenerateModelDocumentation = null;
     protected Boolean isGenerateSwaggerMetadata = true;
+    protected Boolean isStreaming = false;
+    protected Boolean isAsyncWrites = false;
+    protected AsyncFileWriter fileWriter;
+    protected StaticFileCopier staticFileCopier;
+    protected int shardIndex = 0;
+    protected int shardCount = 1;
+    protected Boolean isMergeShards = false;
+    protected Set<String> modelsToRender;
+    protected Set<String> apisToRender;
+    protected Map<String, Template> compiledTemplates = new ConcurrentHashMap<String, Template>();
     protected String basePath;
     protected String basePathWithoutHost;
     protected String contextPath;
@@ -84,6 +100,13 @@ public class DefaultGenerator extends AbstractGenerator implements Generator {
         this.generatorPropertyDefaults.put(key, value);
     }
 
+    /**
+     * @return the generator properties set instead of system properties
+     */
+    public Map<String, String> getGeneratorPropertyDefaults() {
+        return Collections.unmodifiableMap(generatorPropertyDefaults);
+    }
+
     protected Boolean getGeneratorPropertyDefaultSwitch(final String key, final Boolean defaultValue) {
         String result = null;
         if (this.generatorPropertyDefaults.containsKey(key)) {
@@ -168,6 +191,19 @@ public class DefaultGenerator extends AbstractGenerator implements Generator {
         isGenerateModelDocumentation = System.getProperty(CodegenConstants.MODEL_DOCS) != null ? Boolean.valueOf(System.getProperty(CodegenConstants.MODEL_DOCS)) : getGeneratorPropertyDefaultSwitch(CodegenConstants.MODEL_DOCS, true);
         isGenerateApiTests = System.getProperty(CodegenConstants.API_TESTS) != null ? Boolean.valueOf(System.getProperty(CodegenConstants.API_TESTS)) : getGeneratorPropertyDefaultSwitch(CodegenConstants.API_TESTS, true);
         isGenerateApiDocumentation = System.getProperty(CodegenConstants.API_DOCS) != null ? Boolean.valueOf(System.getProperty(CodegenConstants.API_DOCS)) : getGeneratorPropertyDefaultSwitch(CodegenConstants.API_DOCS, true);
+        // streaming trades the complete model and operation data in supporting files for bounded memory on huge specs
+        isStreaming = System.getProperty(CodegenConstants.STREAMING) != null ? Boolean.valueOf(System.getProperty(CodegenConstants.STREAMING)) : getGeneratorPropertyDefaultSwitch(CodegenConstants.STREAMING, false);
+        isAsyncWrites = System.getProperty(CodegenConstants.ASYNC_WRITES) != null ? Boolean.valueOf(System.getProperty(CodegenConstants.ASYNC_WRITES)) : getGeneratorPropertyDefaultSwitch(CodegenConstants.ASYNC_WRITES, false);
+        // a shard renders its part of the models and apis, the merge renders the supporting files of all shards
+        configureShard(System.getProperty(CodegenConstants.SHARD) != null ? System.getProperty(CodegenConstants.SHARD) : generatorPropertyDefaults.get(CodegenConstants.SHARD));
+        isMergeShards = System.getProperty(CodegenConstants.MERGE_SHARDS) != null ? Boolean.valueOf(System.getProperty(CodegenConstants.MERGE_SHARDS)) : getGeneratorPropertyDefaultSwitch(CodegenConstants.MERGE_SHARDS, false);
+        if (isMergeShards && shardCount > 1) {
+            throw new IllegalArgumentException("Shards are merged in a separate run, '" + CodegenConstants.SHARD + "' and '" + CodegenConstants.MERGE_SHARDS + "' can't be combined");
+        }
+        if (shardCount > 1 && isGenerateSupportingFiles) {
+            LOGGER.info("Supporting files are generated when merging the shards, not by shard " + (shardIndex + 1) + "/" + shardCount);
+            isGenerateSupportingFiles = false;
+        }
 
 
         // Additional properties added for tests to exclude references in project related files
@@ -187,6 +223,10 @@ public class DefaultGenerator extends AbstractGenerator implements Generator {
             Json.prettyPrint(swagger);
         }
         config.processOpts();
+        if (config.embeddedTemplateDir() != null) {
+            templateRepository = TemplateRepository.forDirectory(getClass().getClassLoader(),
+                    getCPResourcePath(config.embeddedTemplateDir()), config.getLibrary());
+        }
         config.preprocessSwagger(swagger);
         config.additionalProperties().put("generatorVersion", ImplementationVersion.read());
         config.additionalProperties().put("generatedDate", DateTime.now().toString());
@@ -203,6 +243,67 @@ public class DefaultGenerator extends AbstractGenerator implements Generator {
 
     }
 
+    private void configureShard(String shard) {
+        shardIndex = 0;
+        shardCount = 1;
+        if (StringUtils.isEmpty(shard)) {
+            return;
+        }
+        String[] parts = shard.split("/");
+        try {
+            if (parts.length == 2) {
+                shardIndex = Integer.parseInt(parts[0].trim()) - 1;
+                shardCount = Integer.parseInt(parts[1].trim());
+            }
+        } catch (NumberFormatException e) {
+            shardCount = 0;
+        }
+        if (parts.length != 2 || shardCount < 1 || shardIndex < 0 || shardIndex >= shardCount) {
+            throw new IllegalArgumentException("Invalid shard '" + shard + "', expected <index>/<count> with 1 <= index <= count, such as 1/4");
+        }
+    }
+
+    /**
+     * Whether the files of a model or api are rendered by this shard. Names are assigned to
+     * shards by hash, so all shards of a run agree on the split without knowing of each other.
+     *
+     * @param name name of the model definition or api tag
+     * @return true if this run renders the files
+     */
+    protected boolean isInShard(String name) {
+        return shardCount <= 1 || (name.hashCode() & Integer.MAX_VALUE) % shardCount == shardIndex;
+    }
+
+    /**
+     * Only render the files of some models and apis. All models and apis are still processed,
+     * so supporting files see the whole spec.
+     *
+     * @param models names of the model definitions to render, or null for all
+     * @param apis api tags to render, or null for all
+     */
+    public void setFilesToRender(Set<String> models, Set<String> apis) {
+        this.modelsToRender = models;
+        this.apisToRender = apis;
+    }
+
+    /**
+     * Share compiled templates with other runs, e.g. successive runs of a watch. The map has to
+     * be cleared when templates change.
+     *
+     * @param compiledTemplates compiled templates by template file
+     */
+    public void setCompiledTemplates(Map<String, Template> compiledTemplates) {
+        this.compiledTemplates = compiledTemplates;
+    }
+
+    private boolean isModelRendered(String name) {
+        return !isMergeShards && isInShard(name) && (modelsToRender == null || modelsToRender.contains(name));
+    }
+
+    private boolean isApiRendered(String tag) {
+        return !isMergeShards && (apisToRender == null || apisToRender.contains(tag));
+    }
+
     protected void configureSwaggerInfo() {
         Info info = swagger.getInfo();
         if (info == null) {
@@ -266,6 +367,27 @@ public class DefaultGenerator extends AbstractGenerator implements Generator {
         }
     }
 
+    /**
+     * Bind a fresh per-run context to the config. The configuration is frozen from here on,
+     * everything discovered while processing the spec goes into the context.
+     */
+    protected void configureContext() {
+        CodegenContext context = new CodegenContext(CodegenConfigSnapshot.of(config));
+        // the aliases are known before any model or operation is processed
+        context.getTypeAliases(swagger.getDefinitions());
+        // register vendor extension import mappings upfront so that they don't depend on model order
+        if (swagger.getDefinitions() != null) {
+            for (Map.Entry<String, Model> entry : swagger.getDefinitions().entrySet()) {
+                Map<String, Object> extensions = entry.getValue().getVendorExtensions();
+                if (extensions != null && extensions.containsKey("x-codegen-import-mapping")
+                        && !extensions.containsKey("x-codegen-ignore")) {
+                    context.addImportMapping(entry.getKey(), extensions.get("x-codegen-import-mapping").toString());
+                }
+            }
+        }
+        config.setContext(context);
+    }
+
     protected void generateModelTests(List<File> files, Map<String, Object> models, String modelName) throws IOException {
         // to generate model test files
         for (String templateName : config.modelTestTemplateFiles().keySet()) {
@@ -325,9 +447,219 @@ public class DefaultGenerator extends AbstractGenerator implements Generator {
             }
             modelKeys = updatedKeys;
         }
+        if (shardCount > 1) {
+            modelKeys = getShardModels(definitions, modelKeys);
+        }
+
+        if (isStreaming) {
+            generateModelsStreaming(files, allModels, definitions, modelKeys);
+            return;
+        }
 
         // store all processed models
-        Map<String, Object> allProcessedModels = new TreeMap<String, Object>(new Comparator<String>() {
+        Map<String, Object> allProcessedModels = new TreeMap<String, Object>(getModelComparator(definitions));
+
+        // process models only
+        for (String name : modelKeys) {
+            processModel(allProcessedModels, name, definitions);
+        }
+
+        // post process all processed models
+        allProcessedModels = config.postProcessAllModels(allProcessedModels);
+
+        // generate files based on processed models
+        for (String modelName : allProcessedModels.keySet()) {
+            Map<String, Object> models = (Map<String, Object>) allProcessedModels.get(modelName);
+            Map<String, Object> modelTemplate = generateModelFiles(files, models, modelName);
+            if (modelTemplate != null) {
+                allModels.add(modelTemplate);
+            }
+        }
+        if (System.getProperty("debugModels") != null) {
+            LOGGER.info("############ Model info ############");
+            Json.prettyPrint(allModels);
+        }
+
+    }
+
+    /**
+     * The models a shard processes: its own, the ones the operations of its apis refer to, and the models related
+     * to those through a parent or an interface, which are post processed together. The shards don't render the
+     * supporting files, so the other models aren't needed.
+     */
+    private Set<String> getShardModels(Map<String, Model> definitions, Set<String> modelKeys) {
+        Set<String> needed = new HashSet<String>();
+        for (String name : modelKeys) {
+            if (isInShard(name)) {
+                needed.add(name);
+            }
+        }
+        if (isGenerateApis && swagger.getPaths() != null) {
+            for (Map.Entry<String, List<PendingOperation>> group : groupPaths(swagger.getPaths()).entrySet()) {
+                if (!isInShard(group.getKey())) {
+                    continue;
+                }
+                for (PendingOperation pending : group.getValue()) {
+                    try {
+                        Matcher matcher = DEFINITION_REF.matcher(Json.mapper().writeValueAsString(pending.operation));
+                        while (matcher.find()) {
+                            needed.add(matcher.group(1));
+                        }
+                    } catch (IOException e) {
+                        throw new RuntimeException("Could not read the models of operation " + pending.operation.getOperationId(), e);
+                    }
+                }
+            }
+        }
+
+        Set<String> shardModels = new HashSet<String>();
+        for (Collection<String> family : getModelFamilies(definitions, modelKeys, getModelComparator(definitions))) {
+            if (!Collections.disjoint(family, needed)) {
+                shardModels.addAll(family);
+            }
+        }
+        return shardModels;
+    }
+
+    /**
+     * Render models one inheritance family at a time. Only the family being rendered is kept in
+     * memory, {@link #summarizeModel(Map)} is all that's left of a model for the supporting files.
+     * The summaries of a family are linked to each other like the models they stand for, so every
+     * model is post processed once, like in the default mode.
+     */
+    protected void generateModelsStreaming(List<File> files, List<Object> allModels, Map<String, Model> definitions, Set<String> modelKeys) {
+        Comparator<String> comparator = getModelComparator(definitions);
+        Map<String, Object> summaries = new TreeMap<String, Object>(comparator);
+
+        for (Collection<String> family : getModelFamilies(definitions, modelKeys, comparator)) {
+            Map<String, Object> processedModels = new TreeMap<String, Object>(comparator);
+            for (String name : family) {
+                processModel(processedModels, name, definitions);
+            }
+
+            // inheritance never crosses families, so post processing a family at a time links the same models
+            processedModels = config.postProcessAllModels(processedModels);
+
+            Map<CodegenModel, CodegenModel> compacts = new IdentityHashMap<CodegenModel, CodegenModel>();
+            for (String modelName : processedModels.keySet()) {
+                Map<String, Object> models = (Map<String, Object>) processedModels.get(modelName);
+                Map<String, Object> modelTemplate = generateModelFiles(files, models, modelName);
+                if (modelTemplate != null) {
+                    Map<String, Object> modelSummary = summarizeModel(modelTemplate);
+                    if (modelTemplate.get("model") instanceof CodegenModel && modelSummary.get("model") instanceof CodegenModel) {
+                        compacts.put((CodegenModel) modelTemplate.get("model"), (CodegenModel) modelSummary.get("model"));
+                    }
+                    Map<String, Object> summary = new HashMap<String, Object>();
+                    summary.put("models", new ArrayList<Object>(Collections.singletonList(modelSummary)));
+                    summaries.put(modelName, summary);
+                }
+            }
+            linkSummaries(compacts);
+        }
+
+        for (Object summary : summaries.values()) {
+            allModels.add(((List<Object>) ((Map<String, Object>) summary).get("models")).get(0));
+        }
+
+        if (System.getProperty("debugModels") != null) {
+            LOGGER.info("############ Model info ############");
+            Json.prettyPrint(allModels);
+        }
+    }
+
+    /**
+     * Link the summaries of a family like postProcessAllModels linked the models they stand for.
+     *
+     * @param compacts the summary of every model of the family, by model
+     */
+    private static void linkSummaries(Map<CodegenModel, CodegenModel> compacts) {
+        for (Map.Entry<CodegenModel, CodegenModel> entry : compacts.entrySet()) {
+            CodegenModel model = entry.getKey();
+            CodegenModel compact = entry.getValue();
+            if (model.parentModel != null) {
+                compact.parentModel = compacts.get(model.parentModel);
+            }
+            compact.interfaceModels = linkedSummaries(model.interfaceModels, compacts);
+            compact.children = linkedSummaries(model.children, compacts);
+        }
+    }
+
+    private static List<CodegenModel> linkedSummaries(List<CodegenModel> models, Map<CodegenModel, CodegenModel> compacts) {
+        if (models == null) {
+            return null;
+        }
+        List<CodegenModel> linked = new ArrayList<CodegenModel>(models.size());
+        for (CodegenModel model : models) {
+            CodegenModel compact = compacts.get(model);
+            if (compact != null) {
+                linked.add(compact);
+            }
+        }
+        return linked;
+    }
+
+    /**
+     * Group models which are related through a parent or an interface, in generation order.
+     */
+    private List<Collection<String>> getModelFamilies(Map<String, Model> definitions, Set<String> modelKeys, Comparator<String> comparator) {
+        Map<String, String> roots = new HashMap<String, String>();
+        for (String name : modelKeys) {
+            Model model = definitions.get(name);
+            if (!(model instanceof ComposedModel)) {
+                continue;
+            }
+            ComposedModel composed = (ComposedModel) model;
+            List<String> related = new ArrayList<String>();
+            if (composed.getParent() != null) {
+                related.add(composed.getParent().getReference());
+            }
+            if (composed.getInterfaces() != null) {
+                for (RefModel ref : composed.getInterfaces()) {
+                    related.add(ref.getSimpleRef());
+                }
+            }
+            for (String other : related) {
+                if (other != null && modelKeys.contains(other)) {
+                    String root = findRoot(roots, name);
+                    String otherRoot = findRoot(roots, other);
+                    if (!root.equals(otherRoot)) {
+                        roots.put(root, otherRoot);
+                    }
+                }
+            }
+        }
+
+        List<String> ordered = new ArrayList<String>(modelKeys);
+        Collections.sort(ordered, comparator);
+        Map<String, Collection<String>> families = new LinkedHashMap<String, Collection<String>>();
+        for (String name : ordered) {
+            String root = findRoot(roots, name);
+            Collection<String> family = families.get(root);
+            if (family == null) {
+                family = new ArrayList<String>();
+                families.put(root, family);
+            }
+            family.add(name);
+        }
+        return new ArrayList<Collection<String>>(families.values());
+    }
+
+    private static String findRoot(Map<String, String> roots, String name) {
+        String root = name;
+        while (roots.containsKey(root)) {
+            root = roots.get(root);
+        }
+        if (!root.equals(name)) {
+            roots.put(name, root);
+        }
+        return root;
+    }
+
+    /**
+     * Orders models by inheritance depth first, so parents are processed before their children.
+     */
+    protected Comparator<String> getModelComparator(final Map<String, Model> definitions) {
+        return new Comparator<String>() {
             @Override
             public int compare(String o1, String o2) {
                 Model model1 = definitions.get(o1);
@@ -375,108 +707,162 @@ public class DefaultGenerator extends AbstractGenerator implements Generator {
 
                 return null;
             }
-        });
+        };
+    }
 
-        // process models only
-        for (String name : modelKeys) {
-            try {
-                //don't generate models that have an import mapping
-                if (!config.getIgnoreImportMapping() && config.importMapping().containsKey(name)) {
-                    LOGGER.info("Model " + name + " not imported due to import mapping");
-                    continue;
-                }
-                Model model = definitions.get(name);
-                Map<String, Model> modelMap = new HashMap<String, Model>();
-                modelMap.put(name, model);
-                Map<String, Object> models = processModels(config, modelMap, definitions);
-                if (models != null) {
-                    models.put("classname", config.toModelName(name));
-                    models.putAll(config.additionalProperties());
-                    allProcessedModels.put(name, models);
-                }
-            } catch (Exception e) {
-                String message = "Could not process model '" + name + "'" + ". Please make sure that your schema is correct!";
-                LOGGER.error(message, e);
-                throw new RuntimeException(message, e);
+    private void processModel(Map<String, Object> processedModels, String name, Map<String, Model> definitions) {
+        try {
+            //don't generate models that have an import mapping
+            if (!config.getIgnoreImportMapping() && config.getContext().resolveImportMapping(config, name) != null) {
+                LOGGER.info("Model " + name + " not imported due to import mapping");
+                return;
             }
+            Model model = definitions.get(name);
+            Map<String, Model> modelMap = new HashMap<String, Model>();
+            modelMap.put(name, model);
+            Map<String, Object> models = processModels(config, modelMap, definitions);
+            if (models != null) {
+                models.put("classname", config.toModelName(name));
+                models.putAll(config.additionalProperties());
+                processedModels.put(name, models);
+            }
+        } catch (Exception e) {
+            String message = "Could not process model '" + name + "'" + ". Please make sure that your schema is correct!";
+            LOGGER.error(message, e);
+            throw new RuntimeException(message, e);
         }
+    }
 
-        // post process all processed models
-        allProcessedModels = config.postProcessAllModels(allProcessedModels);
-
+    /**
+     * Render the files of a processed model.
+     *
+     * @return the template data of the model for the supporting files, or null if the model was skipped
+     */
+    private Map<String, Object> generateModelFiles(List<File> files, Map<String, Object> models, String modelName) {
         final boolean skipAlias = config.getSkipAliasGeneration() != null && config.getSkipAliasGeneration();
-
-        // generate files based on processed models
-        for (String modelName : allProcessedModels.keySet()) {
-            Map<String, Object> models = (Map<String, Object>) allProcessedModels.get(modelName);
-            models.put("modelPackage", config.modelPackage());
-            try {
-                //don't generate models that have an import mapping
-                if (!config.getIgnoreImportMapping() && config.importMapping().containsKey(modelName)) {
-                    continue;
-                }
-                Map<String, Object> modelTemplate = (Map<String, Object>) ((List<Object>) models.get("models")).get(0);
-                if (skipAlias) {
-                    // Special handling of aliases only applies to Java
-                    if (modelTemplate != null && modelTemplate.containsKey("model")) {
-                        CodegenModel m = (CodegenModel) modelTemplate.get("model");
-                        if (m.isAlias) {
-                            continue;  // Don't create user-defined classes for aliases
-                        }
-                    }
-                }
-                allModels.add(modelTemplate);
-                for (String templateName : config.modelTemplateFiles().keySet()) {
-                    String filename = config.modelFilename(templateName, modelName);
-                    if (!config.shouldOverwrite(filename)) {
-                        LOGGER.info("Skipped overwriting " + filename);
-                        continue;
-                    }
-                    File written = processTemplateToFile(models, templateName, filename);
-                    if (written != null) {
-                        files.add(written);
+        models.put("modelPackage", config.modelPackage());
+        try {
+            //don't generate models that have an import mapping
+            if (!config.getIgnoreImportMapping() && config.getContext().resolveImportMapping(config, modelName) != null) {
+                return null;
+            }
+            Map<String, Object> modelTemplate = (Map<String, Object>) ((List<Object>) models.get("models")).get(0);
+            if (skipAlias) {
+                // Special handling of aliases only applies to Java
+                if (modelTemplate != null && modelTemplate.containsKey("model")) {
+                    CodegenModel m = (CodegenModel) modelTemplate.get("model");
+                    if (m.isAlias) {
+                        return null;  // Don't create user-defined classes for aliases
                     }
                 }
-                if(isGenerateModelTests) {
-                    generateModelTests(files, models, modelName);
+            }
+            if (!isModelRendered(modelName)) {
+                // rendered by a shard or an earlier run, only the data for the supporting files is needed here
+                return modelTemplate;
+            }
+            for (String templateName : config.modelTemplateFiles().keySet()) {
+                String filename = config.modelFilename(templateName, modelName);
+                if (!config.shouldOverwrite(filename)) {
+                    LOGGER.info("Skipped overwriting " + filename);
+                    continue;
                 }
-                if(isGenerateModelDocumentation) {
-                    // to generate model documentation files
-                    generateModelDocumentation(files, models, modelName);
+                File written = processTemplateToFile(models, templateName, filename);
+                if (written != null) {
+                    files.add(written);
                 }
-            } catch (Exception e) {
-                throw new RuntimeException("Could not generate model '" + modelName + "'", e);
             }
+            if(isGenerateModelTests) {
+                generateModelTests(files, models, modelName);
+            }
+            if(isGenerateModelDocumentation) {
+                // to generate model documentation files
+                generateModelDocumentation(files, models, modelName);
+            }
+            return modelTemplate;
+        } catch (Exception e) {
+            throw new RuntimeException("Could not generate model '" + modelName + "'", e);
         }
-        if (System.getProperty("debugModels") != null) {
-            LOGGER.info("############ Model info ############");
-            Json.prettyPrint(allModels);
-        }
+    }
+
+    /**
+     * The part of a model kept for the supporting files in streaming mode: names, flags and
+     * metadata, but none of the properties and no links to other models.
+     *
+     * @param modelTemplate the template data of a rendered model
+     * @return the compact template data
+     */
+    protected Map<String, Object> summarizeModel(Map<String, Object> modelTemplate) {
+        Map<String, Object> summary = new HashMap<String, Object>(modelTemplate);
+        CodegenModel model = (CodegenModel) modelTemplate.get("model");
+        if (model == null) {
+            return summary;
+        }
+        CodegenModel compact = compactModel(model);
+        summary.put("model", compact);
+        return summary;
+    }
 
+    private static CodegenModel compactModel(CodegenModel model) {
+        CodegenModel compact = new CodegenModel();
+        compact.name = model.name;
+        compact.classname = model.classname;
+        compact.title = model.title;
+        compact.description = model.description;
+        compact.unescapedDescription = model.unescapedDescription;
+        compact.classVarName = model.classVarName;
+        compact.classFilename = model.classFilename;
+        compact.dataType = model.dataType;
+        compact.xmlPrefix = model.xmlPrefix;
+        compact.xmlNamespace = model.xmlNamespace;
+        compact.xmlName = model.xmlName;
+        compact.parent = model.parent;
+        compact.parentSchema = model.parentSchema;
+        compact.interfaces = model.interfaces;
+        compact.discriminator = model.discriminator;
+        compact.discriminatorClassVarName = model.discriminatorClassVarName;
+        compact.arrayModelType = model.arrayModelType;
+        compact.isAlias = model.isAlias;
+        compact.isEnum = model.isEnum;
+        compact.hasEnums = model.hasEnums;
+        compact.isArrayModel = model.isArrayModel;
+        compact.hasVars = model.hasVars;
+        compact.emptyVars = model.emptyVars;
+        compact.hasRequired = model.hasRequired;
+        compact.hasOptional = model.hasOptional;
+        compact.hasChildren = model.hasChildren;
+        compact.hasOnlyReadOnly = model.hasOnlyReadOnly;
+        compact.externalDocs = model.externalDocs;
+        compact.vendorExtensions = model.vendorExtensions;
+        compact.imports = model.imports;
+        compact.allVars = new ArrayList<CodegenProperty>();
+        return compact;
     }
 
     protected void generateApis(List<File> files, List<Object> allOperations, List<Object> allModels) {
         if (!isGenerateApis) {
             return;
         }
-        Map<String, List<CodegenOperation>> paths = processPaths(swagger.getPaths());
+        // in streaming mode, the operations of a tag are only processed when the tag is rendered, and a shard
+        // doesn't process the operations of the other shards at all
+        boolean pending = isStreaming || shardCount > 1;
+        Map<String, List<PendingOperation>> groups = pending ? groupPaths(swagger.getPaths()) : null;
+        Map<String, List<CodegenOperation>> paths = pending ? null : processPaths(swagger.getPaths());
+        Set<String> tags = new TreeSet<String>(pending ? groups.keySet() : paths.keySet());
         Set<String> apisToGenerate = null;
         String apiNames = System.getProperty("apis");
         if (apiNames != null && !apiNames.isEmpty()) {
             apisToGenerate = new HashSet<String>(Arrays.asList(apiNames.split(",")));
         }
         if (apisToGenerate != null && !apisToGenerate.isEmpty()) {
-            Map<String, List<CodegenOperation>> updatedPaths = new TreeMap<String, List<CodegenOperation>>();
-            for (String m : paths.keySet()) {
-                if (apisToGenerate.contains(m)) {
-                    updatedPaths.put(m, paths.get(m));
-                }
-            }
-            paths = updatedPaths;
+            tags.retainAll(apisToGenerate);
         }
-        for (String tag : paths.keySet()) {
+        for (String tag : tags) {
+            if (!isInShard(tag)) {
+                continue;
+            }
             try {
-                List<CodegenOperation> ops = paths.get(tag);
+                // a pending group is released once its operations are processed
+                List<CodegenOperation> ops = pending ? processGroup(groups.remove(tag)) : paths.get(tag);
                 Collections.sort(ops, new Comparator<CodegenOperation>() {
                     @Override
                     public int compare(CodegenOperation one, CodegenOperation another) {
@@ -526,13 +912,17 @@ public class DefaultGenerator extends AbstractGenerator implements Generator {
                 processMimeTypes(swagger.getConsumes(), operation, "consumes");
                 processMimeTypes(swagger.getProduces(), operation, "produces");
 
-                allOperations.add(new HashMap<String, Object>(operation));
+                allOperations.add(isStreaming ? summarizeOperations(operation) : new HashMap<String, Object>(operation));
                 for (int i = 0; i < allOperations.size(); i++) {
                     Map<String, Object> oo = (Map<String, Object>) allOperations.get(i);
                     if (i < (allOperations.size() - 1)) {
                         oo.put("hasMore", "true");
                     }
                 }
+                if (!isApiRendered(tag)) {
+                    // rendered by a shard or an earlier run, only the data for the supporting files is needed here
+                    continue;
+                }
 
                 for (String templateName : config.apiTemplateFiles().keySet()) {
                     String filename = config.apiFilename(templateName, tag);
@@ -606,7 +996,6 @@ public class DefaultGenerator extends AbstractGenerator implements Generator {
                         }
                     }
                 }
-
             } catch (Exception e) {
                 throw new RuntimeException("Could not generate api file for '" + tag + "'", e);
             }
@@ -618,6 +1007,52 @@ public class DefaultGenerator extends AbstractGenerator implements Generator {
 
     }
 
+    /**
+     * The part of the operations of an api kept for the supporting files in streaming mode:
+     * names, paths and documentation of the operations, but no parameters, responses or examples.
+     *
+     * @param operations the template data of a rendered api
+     * @return the compact template data
+     */
+    protected Map<String, Object> summarizeOperations(Map<String, Object> operations) {
+        Map<String, Object> summary = new HashMap<String, Object>(operations);
+        Object objs = operations.get("operations");
+        if (!(objs instanceof Map)) {
+            return summary;
+        }
+        Map<String, Object> compactObjs = new HashMap<String, Object>((Map<String, Object>) objs);
+        List<CodegenOperation> ops = (List<CodegenOperation>) compactObjs.get("operation");
+        if (ops != null) {
+            List<CodegenOperation> compactOps = new ArrayList<CodegenOperation>(ops.size());
+            for (CodegenOperation op : ops) {
+                CodegenOperation compact = new CodegenOperation();
+                compact.path = op.path;
+                compact.operationId = op.operationId;
+                compact.operationIdOriginal = op.operationIdOriginal;
+                compact.operationIdLowerCase = op.operationIdLowerCase;
+                compact.operationIdCamelCase = op.operationIdCamelCase;
+                compact.operationIdSnakeCase = op.operationIdSnakeCase;
+                compact.nickname = op.nickname;
+                compact.httpMethod = op.httpMethod;
+                compact.returnType = op.returnType;
+                compact.returnBaseType = op.returnBaseType;
+                compact.summary = op.summary;
+                compact.notes = op.notes;
+                compact.unescapedNotes = op.unescapedNotes;
+                compact.baseName = op.baseName;
+                compact.tags = op.tags;
+                compact.vendorExtensions = op.vendorExtensions;
+                compact.hasAuthMethods = op.hasAuthMethods;
+                compact.isDeprecated = op.isDeprecated;
+                compact.hasMore = op.hasMore;
+                compactOps.add(compact);
+            }
+            compactObjs.put("operation", compactOps);
+        }
+        summary.put("operations", compactObjs);
+        return summary;
+    }
+
     protected void generateSupportingFiles(List<File> files, Map<String, Object> bundle) {
         if (!isGenerateSupportingFiles) {
             return;
@@ -631,6 +1066,7 @@ public class DefaultGenerator extends AbstractGenerator implements Generator {
             supportingFilesToGenerate = new HashSet<String>(Arrays.asList(supportingFiles.split(",")));
         }
 
+        staticFileCopier = new StaticFileCopier(this.getClass().getClassLoader());
         for (SupportingFile support : config.supportingFiles()) {
             try {
                 String outputFolder = config.outputFolder();
@@ -662,42 +1098,19 @@ public class DefaultGenerator extends AbstractGenerator implements Generator {
 
                 if (ignoreProcessor.allowsFile(new File(outputFilename))) {
                     if (templateFile.endsWith("mustache")) {
-                        String template = readTemplate(templateFile);
-                        Mustache.Compiler compiler = Mustache.compiler();
-                        compiler = config.processCompiler(compiler);
-                        Template tmpl = compiler
-                                .withLoader(new Mustache.TemplateLoader() {
-                                    @Override
-                                    public Reader getTemplate(String name) {
-                                        return getTemplateReader(getFullTemplateFile(config, name + ".mustache"));
-                                    }
-                                })
-                                .defaultValue("")
-                                .compile(template);
+                        Template tmpl = compileTemplate(templateFile);
 
                         writeToFile(outputFilename, tmpl.execute(bundle));
                         files.add(new File(outputFilename));
                     } else {
-                        InputStream in = null;
-
-                        try {
-                            in = new FileInputStream(templateFile);
-                        } catch (Exception e) {
-                            // continue
-                        }
-                        if (in == null) {
-                            in = this.getClass().getClassLoader().getResourceAsStream(getCPResourcePath(templateFile));
-                        }
                         File outputFile = new File(outputFilename);
-                        OutputStream out = new FileOutputStream(outputFile, false);
-                        if (in != null) {
-                            LOGGER.info("writing file " + outputFile);
-                            IOUtils.copy(in, out);
-                            out.close();
-                        } else {
+                        try {
+                            staticFileCopier.copy(templateFile, getCPResourcePath(templateFile), outputFile);
+                            files.add(outputFile);
+                        } catch (FileNotFoundException e) {
+                            // nothing was written, so the file isn't reported as generated
                             LOGGER.error("can't open " + templateFile + " for input");
                         }
-                        files.add(outputFile);
                     }
                 } else {
                     LOGGER.info("Skipped generation of " + outputFilename + " due to rule in .swagger-codegen-ignore");
@@ -707,6 +1120,10 @@ public class DefaultGenerator extends AbstractGenerator implements Generator {
             }
         }
 
+        if (staticFileCopier.getFilesCopied() > 0 || staticFileCopier.getFilesSkipped() > 0) {
+            LOGGER.info("Supporting files: " + staticFileCopier);
+        }
+
         // Consider .swagger-codegen-ignore a supporting file
         // Output .swagger-codegen-ignore if it doesn't exist and wasn't explicitly created by a generator
         final String swaggerCodegenIgnore = ".swagger-codegen-ignore";
@@ -807,30 +1224,179 @@ public class DefaultGenerator extends AbstractGenerator implements Generator {
         }
         configureGeneratorProperties();
         configureSwaggerInfo();
+        configureContext();
+
+        fileWriter = isAsyncWrites ? new AsyncFileWriter() : new AsyncFileWriter(0, 1);
+        try {
+            List<File> files = new ArrayList<File>();
+            if (isMergeShards) {
+                files.addAll(readShardManifests());
+            }
+            // models
+            List<Object> allModels = new ArrayList<Object>();
+            generateModels(files, allModels);
+            // apis
+            List<Object> allOperations = new ArrayList<Object>();
+            generateApis(files, allOperations, allModels);
+            flushWrites();
+
+            // supporting files
+            Map<String, Object> bundle = buildSupportFileBundle(allOperations, allModels);
+            generateSupportingFiles(files, bundle);
+            flushWrites();
+
+            if (shardCount > 1) {
+                writeShardManifest(files);
+            } else if (isMergeShards) {
+                deleteShardManifests();
+            }
+
+            config.processSwagger(swagger);
+            return files;
+        } finally {
+            fileWriter.close();
+            // the writes after the run, e.g. by a generator reused outside of generate(), are synchronous again
+            fileWriter = null;
+        }
+    }
+
+    protected File getShardFolder() {
+        return new File(config.outputFolder() + File.separator + ".swagger-codegen" + File.separator + "shards");
+    }
+
+    /**
+     * Record the files rendered by this shard, for the merge to pick up.
+     */
+    protected void writeShardManifest(List<File> files) {
+        URI base = new File(config.outputFolder()).getAbsoluteFile().toURI().normalize();
+        Set<String> paths = new TreeSet<String>();
+        for (File file : files) {
+            paths.add(base.relativize(file.getAbsoluteFile().toURI().normalize()).getPath());
+        }
+        StringBuilder manifest = new StringBuilder();
+        for (String path : paths) {
+            manifest.append(path).append('\n');
+        }
+        File manifestFile = new File(getShardFolder(), "shard-" + (shardIndex + 1) + "-of-" + shardCount);
+        try {
+            fileWriter.writeNow(manifestFile, manifest.toString());
+        } catch (IOException e) {
+            throw new RuntimeException("Could not write shard manifest '" + manifestFile + "'", e);
+        }
+    }
+
+    /**
+     * Collect the files rendered by the shards of a run, failing if any shard is missing.
+     */
+    protected List<File> readShardManifests() {
+        File folder = getShardFolder();
+        File[] manifests = folder.listFiles();
+        if (manifests == null || manifests.length == 0) {
+            throw new RuntimeException("No shards to merge in '" + folder + "'");
+        }
+        Pattern pattern = Pattern.compile("shard-(\\d+)-of-(\\d+)");
+        Map<Integer, File> shards = new TreeMap<Integer, File>();
+        int count = -1;
+        for (File manifest : manifests) {
+            Matcher matcher = pattern.matcher(manifest.getName());
+            if (!matcher.matches()) {
+                continue;
+            }
+            int shardsInRun = Integer.parseInt(matcher.group(2));
+            if (count != -1 && count != shardsInRun) {
+                throw new RuntimeException("Shards of different runs in '" + folder + "': " + count + " and " + shardsInRun + " shards");
+            }
+            count = shardsInRun;
+            shards.put(Integer.parseInt(matcher.group(1)), manifest);
+        }
+        for (int i = 1; i <= count; i++) {
+            if (!shards.containsKey(i)) {
+                throw new RuntimeException("Missing shard " + i + "/" + count + " in '" + folder + "'");
+            }
+        }
 
         List<File> files = new ArrayList<File>();
-        // models
-        List<Object> allModels = new ArrayList<Object>();
-        generateModels(files, allModels);
-        // apis
-        List<Object> allOperations = new ArrayList<Object>();
-        generateApis(files, allOperations, allModels);
-
-        // supporting files
-        Map<String, Object> bundle = buildSupportFileBundle(allOperations, allModels);
-        generateSupportingFiles(files, bundle);
-        config.processSwagger(swagger);
+        for (File manifest : shards.values()) {
+            try {
+                for (String path : FileUtils.readLines(manifest, "UTF-8")) {
+                    if (!path.isEmpty()) {
+                        files.add(new File(config.outputFolder(), path.replace('/', File.separatorChar)));
+                    }
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("Could not read shard manifest '" + manifest + "'", e);
+            }
+        }
+        LOGGER.info("Merging " + files.size() + " files of " + shards.size() + " shards");
         return files;
     }
 
+    /**
+     * Remove the manifests once merged, leaving the same files as a run without shards.
+     */
+    protected void deleteShardManifests() {
+        File folder = getShardFolder();
+        try {
+            FileUtils.deleteDirectory(folder);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not delete shard manifests in '" + folder + "'", e);
+        }
+        String[] metadata = folder.getParentFile().list();
+        if (metadata != null && metadata.length == 0) {
+            folder.getParentFile().delete();
+        }
+    }
+
+    @Override
+    public File writeToFile(String filename, String contents) throws IOException {
+        if (fileWriter == null) {
+            return super.writeToFile(filename, contents);
+        }
+        return fileWriter.write(filename, contents);
+    }
+
+    /**
+     * Wait until everything rendered so far is on disk.
+     */
+    protected void flushWrites() {
+        if (fileWriter == null) {
+            return;
+        }
+        try {
+            fileWriter.flush();
+        } catch (IOException e) {
+            throw new RuntimeException(e.getMessage(), e);
+        }
+    }
+
     protected File processTemplateToFile(Map<String, Object> templateData, String templateName, String outputFilename) throws IOException {
         String adjustedOutputFilename = outputFilename.replaceAll("//", "/").replace('/', File.separatorChar);
         if (ignoreProcessor.allowsFile(new File(adjustedOutputFilename))) {
             String templateFile = getFullTemplateFile(config, templateName);
+            Template tmpl = compileTemplate(templateFile);
+
+            writeToFile(adjustedOutputFilename, tmpl.execute(templateData));
+            return new File(adjustedOutputFilename);
+        }
+
+        LOGGER.info("Skipped generation of " + adjustedOutputFilename + " due to rule in .swagger-codegen-ignore");
+        return null;
+    }
+
+    /**
+     * Compile a template, or reuse it if it was compiled before. Partials are loaded when first
+     * used and stay part of the compiled template.
+     *
+     * @param templateFile the full template file name
+     * @return the compiled template
+     */
+    protected Template compileTemplate(String templateFile) {
+        Template tmpl = compiledTemplates.get(templateFile);
+        if (tmpl == null) {
             String template = readTemplate(templateFile);
             Mustache.Compiler compiler = Mustache.compiler();
             compiler = config.processCompiler(compiler);
-            Template tmpl = compiler
+            tmpl = compiler
                     .withLoader(new Mustache.TemplateLoader() {
                         @Override
                         public Reader getTemplate(String name) {
@@ -839,13 +1405,9 @@ public class DefaultGenerator extends AbstractGenerator implements Generator {
                     })
                     .defaultValue("")
                     .compile(template);
-
-            writeToFile(adjustedOutputFilename, tmpl.execute(templateData));
-            return new File(adjustedOutputFilename);
+            compiledTemplates.put(templateFile, tmpl);
         }
-
-        LOGGER.info("Skipped generation of " + adjustedOutputFilename + " due to rule in .swagger-codegen-ignore");
-        return null;
+        return tmpl;
     }
 
     protected static void processMimeTypes(List<String> mimeTypeList, Map<String, Object> operation, String source) {
@@ -893,6 +1455,14 @@ public class DefaultGenerator extends AbstractGenerator implements Generator {
         if (System.getProperty("debugOperations") != null) {
             LOGGER.info("processOperation: resourcePath= " + resourcePath + "\t;" + httpMethod + " " + operation + "\n");
         }
+        List<Tag> tags = getTags(operation);
+        addPathParameters(operation, path);
+        for (Tag tag : tags) {
+            processOperation(resourcePath, httpMethod, operation, tags, tag, operations);
+        }
+    }
+
+    private List<Tag> getTags(Operation operation) {
         List<Tag> tags = new ArrayList<Tag>();
 
         List<String> tagNames = operation.getTags();
@@ -923,7 +1493,10 @@ public class DefaultGenerator extends AbstractGenerator implements Generator {
         if (tags.isEmpty()) {
             tags.add(new Tag().name("default"));
         }
+        return tags;
+    }
 
+    private static void addPathParameters(Operation operation, Path path) {
         /*
          build up a set of parameter "ids" defined at the operation level
          per the swagger 2.0 spec "A unique parameter is defined by a combination of a name and location"
@@ -945,64 +1518,145 @@ public class DefaultGenerator extends AbstractGenerator implements Generator {
                 }
             }
         }
+    }
 
-        for (Tag tag : tags) {
-            try {
-                CodegenOperation codegenOperation = config.fromOperation(resourcePath, httpMethod, operation, swagger.getDefinitions(), swagger);
-                codegenOperation.tags = new ArrayList<Tag>(tags);
-                config.addOperationToGroup(config.sanitizeTag(tag.getName()), resourcePath, operation, codegenOperation, operations);
-
-                List<Map<String, List<String>>> securities = operation.getSecurity();
-                if (securities == null && swagger.getSecurity() != null) {
-                    securities = new ArrayList<Map<String, List<String>>>();
-                    for (SecurityRequirement sr : swagger.getSecurity()) {
-                        securities.add(sr.getRequirements());
-                    }
-                }
-                if (securities == null || swagger.getSecurityDefinitions() == null) {
-                    continue;
+    private void processOperation(String resourcePath, String httpMethod, Operation operation, List<Tag> tags, Tag tag, Map<String, List<CodegenOperation>> operations) {
+        try {
+            CodegenOperation codegenOperation = config.fromOperation(resourcePath, httpMethod, operation, swagger.getDefinitions(), swagger);
+            codegenOperation.tags = new ArrayList<Tag>(tags);
+            config.addOperationToGroup(config.sanitizeTag(tag.getName()), resourcePath, operation, codegenOperation, operations);
+
+            List<Map<String, List<String>>> securities = operation.getSecurity();
+            if (securities == null && swagger.getSecurity() != null) {
+                securities = new ArrayList<Map<String, List<String>>>();
+                for (SecurityRequirement sr : swagger.getSecurity()) {
+                    securities.add(sr.getRequirements());
                 }
-                Map<String, SecuritySchemeDefinition> authMethods = new HashMap<String, SecuritySchemeDefinition>();
-                for (Map<String, List<String>> security : securities) {
-                    for (String securityName : security.keySet()) {
-                        SecuritySchemeDefinition securityDefinition = swagger.getSecurityDefinitions().get(securityName);
-                        if (securityDefinition == null) {
-                            continue;
-                        }
-                        if (securityDefinition instanceof OAuth2Definition) {
-                            OAuth2Definition oauth2Definition = (OAuth2Definition) securityDefinition;
-                            OAuth2Definition oauth2Operation = new OAuth2Definition();
-                            oauth2Operation.setType(oauth2Definition.getType());
-                            oauth2Operation.setAuthorizationUrl(oauth2Definition.getAuthorizationUrl());
-                            oauth2Operation.setFlow(oauth2Definition.getFlow());
-                            oauth2Operation.setTokenUrl(oauth2Definition.getTokenUrl());
-                            oauth2Operation.setScopes(new HashMap<String, String>());
-                            for (String scope : security.get(securityName)) {
-                                if (oauth2Definition.getScopes().containsKey(scope)) {
-                                    oauth2Operation.addScope(scope, oauth2Definition.getScopes().get(scope));
-                                }
+            }
+            if (securities == null || swagger.getSecurityDefinitions() == null) {
+                return;
+            }
+            Map<String, SecuritySchemeDefinition> authMethods = new HashMap<String, SecuritySchemeDefinition>();
+            for (Map<String, List<String>> security : securities) {
+                for (String securityName : security.keySet()) {
+                    SecuritySchemeDefinition securityDefinition = swagger.getSecurityDefinitions().get(securityName);
+                    if (securityDefinition == null) {
+                        continue;
+                    }
+                    if (securityDefinition instanceof OAuth2Definition) {
+                        OAuth2Definition oauth2Definition = (OAuth2Definition) securityDefinition;
+                        OAuth2Definition oauth2Operation = new OAuth2Definition();
+                        oauth2Operation.setType(oauth2Definition.getType());
+                        oauth2Operation.setAuthorizationUrl(oauth2Definition.getAuthorizationUrl());
+                        oauth2Operation.setFlow(oauth2Definition.getFlow());
+                        oauth2Operation.setTokenUrl(oauth2Definition.getTokenUrl());
+                        oauth2Operation.setScopes(new HashMap<String, String>());
+                        for (String scope : security.get(securityName)) {
+                            if (oauth2Definition.getScopes().containsKey(scope)) {
+                                oauth2Operation.addScope(scope, oauth2Definition.getScopes().get(scope));
                             }
-                            authMethods.put(securityName, oauth2Operation);
-                        } else {
-                            authMethods.put(securityName, securityDefinition);
                         }
+                        authMethods.put(securityName, oauth2Operation);
+                    } else {
+                        authMethods.put(securityName, securityDefinition);
                     }
                 }
-                if (!authMethods.isEmpty()) {
-                    codegenOperation.authMethods = config.fromSecurity(authMethods);
-                    codegenOperation.hasAuthMethods = true;
+            }
+            if (!authMethods.isEmpty()) {
+                codegenOperation.authMethods = config.fromSecurity(authMethods);
+                codegenOperation.hasAuthMethods = true;
+            }
+        } catch (Exception ex) {
+            String msg = "Could not process operation:\n" //
+                    + "  Tag: " + tag + "\n"//
+                    + "  Operation: " + operation.getOperationId() + "\n" //
+                    + "  Resource: " + httpMethod + " " + resourcePath + "\n"//
+                    + "  Definitions: " + swagger.getDefinitions() + "\n"  //
+                    + "  Exception: " + ex.getMessage();
+            throw new RuntimeException(msg, ex);
+        }
+    }
+
+    /**
+     * Group the operations of the paths like {@link #processPaths(Map)}, without processing them, so the
+     * operations of a group can be processed when it is rendered.
+     *
+     * @param paths the paths of the spec
+     * @return the operations to process, by group
+     */
+    private Map<String, List<PendingOperation>> groupPaths(Map<String, Path> paths) {
+        Map<String, List<PendingOperation>> groups = new TreeMap<String, List<PendingOperation>>();
+        for (String resourcePath : paths.keySet()) {
+            Path path = paths.get(resourcePath);
+            groupOperation(resourcePath, "get", path.getGet(), groups, path);
+            groupOperation(resourcePath, "head", path.getHead(), groups, path);
+            groupOperation(resourcePath, "put", path.getPut(), groups, path);
+            groupOperation(resourcePath, "post", path.getPost(), groups, path);
+            groupOperation(resourcePath, "delete", path.getDelete(), groups, path);
+            groupOperation(resourcePath, "patch", path.getPatch(), groups, path);
+            groupOperation(resourcePath, "options", path.getOptions(), groups, path);
+        }
+        return groups;
+    }
+
+    private void groupOperation(String resourcePath, String httpMethod, Operation operation, Map<String, List<PendingOperation>> groups, Path path) {
+        if (operation == null) {
+            return;
+        }
+        List<Tag> tags = getTags(operation);
+        addPathParameters(operation, path);
+        for (Tag tag : tags) {
+            // the group only depends on the path and the tag, the config tells it for a placeholder of the operation
+            CodegenOperation placeholder = new CodegenOperation();
+            placeholder.path = resourcePath;
+            placeholder.httpMethod = httpMethod.toUpperCase();
+            placeholder.operationId = httpMethod + " " + resourcePath;
+            Map<String, List<CodegenOperation>> placeholderGroups = new HashMap<String, List<CodegenOperation>>();
+            config.addOperationToGroup(config.sanitizeTag(tag.getName()), resourcePath, operation, placeholder, placeholderGroups);
+            for (String group : placeholderGroups.keySet()) {
+                List<PendingOperation> pending = groups.get(group);
+                if (pending == null) {
+                    pending = new ArrayList<PendingOperation>();
+                    groups.put(group, pending);
                 }
-            } catch (Exception ex) {
-                String msg = "Could not process operation:\n" //
-                        + "  Tag: " + tag + "\n"//
-                        + "  Operation: " + operation.getOperationId() + "\n" //
-                        + "  Resource: " + httpMethod + " " + resourcePath + "\n"//
-                        + "  Definitions: " + swagger.getDefinitions() + "\n"  //
-                        + "  Exception: " + ex.getMessage();
-                throw new RuntimeException(msg, ex);
+                pending.add(new PendingOperation(resourcePath, httpMethod, operation, tags, tag));
             }
         }
+    }
 
+    /**
+     * @param group the operations of a group, from {@link #groupPaths(Map)}
+     * @return the processed operations
+     */
+    private List<CodegenOperation> processGroup(List<PendingOperation> group) {
+        Map<String, List<CodegenOperation>> operations = new TreeMap<String, List<CodegenOperation>>();
+        for (PendingOperation pending : group) {
+            processOperation(pending.resourcePath, pending.httpMethod, pending.operation, pending.tags, pending.tag, operations);
+        }
+        List<CodegenOperation> ops = new ArrayList<CodegenOperation>();
+        for (List<CodegenOperation> groupOps : operations.values()) {
+            ops.addAll(groupOps);
+        }
+        return ops;
+    }
+
+    /**
+     * An operation of a path, for one of its tags, waiting to be processed.
+     */
+    private static final class PendingOperation {
+        final String resourcePath;
+        final String httpMethod;
+        final Operation operation;
+        final List<Tag> tags;
+        final Tag tag;
+
+        PendingOperation(String resourcePath, String httpMethod, Operation operation, List<Tag> tags, Tag tag) {
+            this.resourcePath = resourcePath;
+            this.httpMethod = httpMethod;
+            this.operation = operation;
+            this.tags = tags;
+            this.tag = tag;
+        }
     }
 
     protected static String generateParameterId(Parameter parameter) {
@@ -1078,7 +1732,7 @@ public class DefaultGenerator extends AbstractGenerator implements Generator {
         List<Map<String, String>> imports = new ArrayList<Map<String, String>>();
         for (String nextImport : allImports) {
             Map<String, String> im = new LinkedHashMap<String, String>();
-            String mapping = config.importMapping().get(nextImport);
+            String mapping = config.getContext().resolveImportMapping(config, nextImport);
             if (mapping == null) {
                 mapping = config.toModelImport(nextImport);
             }
@@ -1124,7 +1778,7 @@ public class DefaultGenerator extends AbstractGenerator implements Generator {
             }
             else if(mm.getVendorExtensions() !=  null && mm.getVendorExtensions().containsKey("x-codegen-import-mapping")) {
                 String codegenImport = mm.getVendorExtensions().get("x-codegen-import-mapping").toString();
-                config.importMapping().put(key, codegenImport);
+                config.getContext().addImportMapping(key, codegenImport);
                 allImports.add(codegenImport);
             }
             CodegenModel cm = config.fromModel(key, mm, allDefinitions);
@@ -1138,7 +1792,7 @@ public class DefaultGenerator extends AbstractGenerator implements Generator {
         objs.put("models", models);
         Set<String> importSet = new TreeSet<String>();
         for (String nextImport : allImports) {
-            String mapping = config.importMapping().get(nextImport);
+            String mapping = config.getContext().resolveImportMapping(config, nextImport);
             if (mapping == null) {
                 mapping = config.toModelImport(nextImport);
             }
@@ -9,10 +9,15 @@ import io.swagger.util.Json;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.regex.Pattern;
 
 /**
  * @deprecated use instead the option flatten in SwaggerParser
@@ -28,11 +33,17 @@ public class InlineModelResolver {
     private boolean skipMatches;
     static Logger LOGGER = LoggerFactory.getLogger(InlineModelResolver.class);
 
+    private static final Pattern INVALID_NAME_CHARS = Pattern.compile("[^a-z_\\.A-Z0-9 ]");
+
     Map<String, Model> addedModels = new HashMap<String, Model>();
-    Map<String, String> generatedSignature = new HashMap<String, String>();
+    // structural fingerprint of the generated models -> names of the models with that fingerprint
+    Map<String, List<String>> generatedSignature = new HashMap<String, List<String>>();
+    // base name -> lowest suffix that may still be free, see uniqueName
+    Map<String, Integer> nameCounters = new HashMap<String, Integer>();
 
     public void flatten(Swagger swagger) {
         this.swagger = swagger;
+        this.nameCounters.clear();
 
         if (swagger.getDefinitions() == null) {
             swagger.setDefinitions(new HashMap<String, Model>());
@@ -62,7 +73,7 @@ public class InlineModelResolver {
                                                 flattenProperties(obj.getProperties(), pathname);
                                                 String modelName = resolveModelName(obj.getTitle(), bp.getName());
                                                 bp.setSchema(new RefModel(modelName));
-                                                addGenerated(modelName, model);
+                                                addFingerprint(modelName, fingerprint(model));
                                                 swagger.addDefinition(modelName, model);
                                             }
                                         }
@@ -76,7 +87,8 @@ public class InlineModelResolver {
                                                 flattenProperties(op.getProperties(), pathname);
                                                 String modelName = resolveModelName(op.getTitle(), bp.getName());
                                                 Model innerModel = modelFromProperty(op, modelName);
-                                                String existing = matchGenerated(innerModel);
+                                                String fingerprint = fingerprint(innerModel);
+                                                String existing = matchGenerated(innerModel, fingerprint);
                                                 if (existing != null) {
                                                     RefProperty refProperty = new RefProperty(existing);
                                                     refProperty.setRequired(op.getRequired());
@@ -85,7 +97,7 @@ public class InlineModelResolver {
                                                     RefProperty refProperty = new RefProperty(modelName);
                                                     refProperty.setRequired(op.getRequired());
                                                     am.setItems(refProperty);
-                                                    addGenerated(modelName, innerModel);
+                                                    addFingerprint(modelName, fingerprint);
                                                     swagger.addDefinition(modelName, innerModel);
                                                 }
                                             }
@@ -106,7 +118,8 @@ public class InlineModelResolver {
                                     if (op.getProperties() != null && op.getProperties().size() > 0) {
                                         String modelName = resolveModelName(op.getTitle(), "inline_response_" + key);
                                         Model model = modelFromProperty(op, modelName);
-                                        String existing = matchGenerated(model);
+                                        String fingerprint = fingerprint(model);
+                                        String existing = matchGenerated(model, fingerprint);
                                         if (existing != null) {
                                             Property refProperty = this.makeRefProperty(existing, property);
                                             refProperty.setRequired(op.getRequired());
@@ -115,7 +128,7 @@ public class InlineModelResolver {
                                             Property refProperty = this.makeRefProperty(modelName, property);
                                             refProperty.setRequired(op.getRequired());
                                             response.setResponseSchema(new PropertyModelConverter().propertyToModel(refProperty));
-                                            addGenerated(modelName, model);
+                                            addFingerprint(modelName, fingerprint);
                                             swagger.addDefinition(modelName, model);
                                         }
                                     }
@@ -130,7 +143,8 @@ public class InlineModelResolver {
                                             String modelName = resolveModelName(op.getTitle(),
                                                     "inline_response_" + key);
                                             Model innerModel = modelFromProperty(op, modelName);
-                                            String existing = matchGenerated(innerModel);
+                                            String fingerprint = fingerprint(innerModel);
+                                            String existing = matchGenerated(innerModel, fingerprint);
                                             if (existing != null) {
                                                 Property refProperty = this.makeRefProperty(existing, op);
                                                 refProperty.setRequired(op.getRequired());
@@ -141,7 +155,7 @@ public class InlineModelResolver {
                                                 refProperty.setRequired(op.getRequired());
                                                 ap.setItems(refProperty);
                                                 response.setResponseSchema(new PropertyModelConverter().propertyToModel(ap));
-                                                addGenerated(modelName, innerModel);
+                                                addFingerprint(modelName, fingerprint);
                                                 swagger.addDefinition(modelName, innerModel);
                                             }
                                         }
@@ -157,7 +171,8 @@ public class InlineModelResolver {
                                             String modelName = resolveModelName(op.getTitle(),
                                                     "inline_response_" + key);
                                             Model innerModel = modelFromProperty(op, modelName);
-                                            String existing = matchGenerated(innerModel);
+                                            String fingerprint = fingerprint(innerModel);
+                                            String existing = matchGenerated(innerModel, fingerprint);
                                             if (existing != null) {
                                                 RefProperty refProperty = new RefProperty(existing);
                                                 refProperty.setRequired(op.getRequired());
@@ -168,7 +183,7 @@ public class InlineModelResolver {
                                                 refProperty.setRequired(op.getRequired());
                                                 mp.setAdditionalProperties(refProperty);
                                                 response.setResponseSchema(new PropertyModelConverter().propertyToModel(mp));
-                                                addGenerated(modelName, innerModel);
+                                                addFingerprint(modelName, fingerprint);
                                                 swagger.addDefinition(modelName, innerModel);
                                             }
                                         }
@@ -200,10 +215,11 @@ public class InlineModelResolver {
                         if (op.getProperties() != null && op.getProperties().size() > 0) {
                             String innerModelName = resolveModelName(op.getTitle(), modelName + "_inner");
                             Model innerModel = modelFromProperty(op, innerModelName);
-                            String existing = matchGenerated(innerModel);
+                            String fingerprint = fingerprint(innerModel);
+                            String existing = matchGenerated(innerModel, fingerprint);
                             if (existing == null) {
                                 swagger.addDefinition(innerModelName, innerModel);
-                                addGenerated(innerModelName, innerModel);
+                                addFingerprint(innerModelName, fingerprint);
                                 RefProperty refProperty = new RefProperty(innerModelName);
                                 refProperty.setRequired(op.getRequired());
                                 m.setItems(refProperty);
@@ -249,41 +265,80 @@ public class InlineModelResolver {
     }
 
     public String matchGenerated(Model model) {
+        return matchGenerated(model, fingerprint(model));
+    }
+
+    private String matchGenerated(Model model, String fingerprint) {
         if (this.skipMatches) {
             return null;
         }
-        String json = Json.pretty(model);
-        if (generatedSignature.containsKey(json)) {
-            return generatedSignature.get(json);
+        List<String> candidates = generatedSignature.get(fingerprint);
+        if (candidates == null) {
+            return null;
+        }
+        // the fingerprint only narrows the search down, make sure the structures really match
+        for (String candidate : candidates) {
+            if (model.equals(swagger.getDefinitions().get(candidate))) {
+                return candidate;
+            }
         }
         return null;
     }
 
     public void addGenerated(String name, Model model) {
-        generatedSignature.put(Json.pretty(model), name);
+        addFingerprint(name, fingerprint(model));
     }
 
-    public String uniqueName(String key) {
-        int count = 0;
-        boolean done = false;
-        key = key.replaceAll("[^a-z_\\.A-Z0-9 ]", ""); // FIXME: a parameter
-                                                       // should not be
-                                                       // assigned. Also declare
-                                                       // the methods parameters
-                                                       // as 'final'.
-        while (!done) {
-            String name = key;
-            if (count > 0) {
-                name = key + "_" + count;
-            }
-            if (swagger.getDefinitions() == null) {
-                return name;
-            } else if (!swagger.getDefinitions().containsKey(name)) {
+    private void addFingerprint(String name, String fingerprint) {
+        List<String> names = generatedSignature.get(fingerprint);
+        if (names == null) {
+            names = new ArrayList<String>(1);
+            generatedSignature.put(fingerprint, names);
+        }
+        if (!names.contains(name)) {
+            names.add(name);
+        }
+    }
+
+    public String uniqueName(final String key) {
+        final String baseName = INVALID_NAME_CHARS.matcher(key).replaceAll("");
+        if (swagger.getDefinitions() == null) {
+            return baseName;
+        }
+        // definitions only grow while flattening, so suffixes below the last one found are taken
+        Integer start = nameCounters.get(baseName);
+        int count = start == null ? 0 : start;
+        while (true) {
+            String name = count > 0 ? baseName + "_" + count : baseName;
+            if (!swagger.getDefinitions().containsKey(name)) {
+                nameCounters.put(baseName, count);
                 return name;
             }
             count += 1;
         }
-        return key;
+    }
+
+    /**
+     * Compute a 128-bit structural fingerprint of the model from its JSON form.
+     *
+     * @param model the model
+     * @return hex encoded fingerprint
+     */
+    static String fingerprint(Model model) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("MD5");
+            return new BigInteger(1, digest.digest(serialize(model))).toString(16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] serialize(Model model) {
+        try {
+            return Json.mapper().writeValueAsBytes(model);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not serialize inline model", e);
+        }
     }
 
     public void flattenProperties(Map<String, Property> properties, String path) {
@@ -302,7 +357,8 @@ public class InlineModelResolver {
                 String modelName = resolveModelName(op.getTitle(), path + "_" + key);
                 Model model = modelFromProperty(op, modelName);
 
-                String existing = matchGenerated(model);
+                String fingerprint = fingerprint(model);
+                String existing = matchGenerated(model, fingerprint);
 
                 if (existing != null) {
                     RefProperty refProperty = new RefProperty(existing);
@@ -313,7 +369,7 @@ public class InlineModelResolver {
                     refProperty.setRequired(op.getRequired());
                     propsToUpdate.put(key, refProperty);
                     modelsToAdd.put(modelName, model);
-                    addGenerated(modelName, model);
+                    addFingerprint(modelName, fingerprint);
                     swagger.addDefinition(modelName, model);
                 }
             } else if (property instanceof ArrayProperty) {
@@ -326,7 +382,8 @@ public class InlineModelResolver {
                         flattenProperties(op.getProperties(), path);
                         String modelName = resolveModelName(op.getTitle(), path + "_" + key);
                         Model innerModel = modelFromProperty(op, modelName);
-                        String existing = matchGenerated(innerModel);
+                        String fingerprint = fingerprint(innerModel);
+                        String existing = matchGenerated(innerModel, fingerprint);
                         if (existing != null) {
                             RefProperty refProperty = new RefProperty(existing);
                             refProperty.setRequired(op.getRequired());
@@ -335,7 +392,7 @@ public class InlineModelResolver {
                             RefProperty refProperty = new RefProperty(modelName);
                             refProperty.setRequired(op.getRequired());
                             ap.setItems(refProperty);
-                            addGenerated(modelName, innerModel);
+                            addFingerprint(modelName, fingerprint);
                             swagger.addDefinition(modelName, innerModel);
                         }
                     }
@@ -350,7 +407,8 @@ public class InlineModelResolver {
                         flattenProperties(op.getProperties(), path);
                         String modelName = resolveModelName(op.getTitle(), path + "_" + key);
                         Model innerModel = modelFromProperty(op, modelName);
-                        String existing = matchGenerated(innerModel);
+                        String fingerprint = fingerprint(innerModel);
+                        String existing = matchGenerated(innerModel, fingerprint);
                         if (existing != null) {
                             RefProperty refProperty = new RefProperty(existing);
                             refProperty.setRequired(op.getRequired());
@@ -359,7 +417,7 @@ public class InlineModelResolver {
                             RefProperty refProperty = new RefProperty(modelName);
                             refProperty.setRequired(op.getRequired());
                             mp.setAdditionalProperties(refProperty);
-                            addGenerated(modelName, innerModel);
+                            addFingerprint(modelName, fingerprint);
                             swagger.addDefinition(modelName, innerModel);
                         }
                     }
@@ -368,7 +426,8 @@ public class InlineModelResolver {
                 ComposedProperty composedProperty = (ComposedProperty) property;
                 String modelName = resolveModelName(composedProperty.getTitle(), path + "_" + key);
                 Model model = modelFromProperty(composedProperty, modelName);
-                String existing = matchGenerated(model);
+                String fingerprint = fingerprint(model);
+                String existing = matchGenerated(model, fingerprint);
                 if (existing != null) {
                     RefProperty refProperty = new RefProperty(existing);
                     refProperty.setRequired(composedProperty.getRequired());
@@ -377,7 +436,7 @@ public class InlineModelResolver {
                     RefProperty refProperty = new RefProperty(modelName);
                     refProperty.setRequired(composedProperty.getRequired());
                     propsToUpdate.put(key, refProperty);
-                    addGenerated(modelName, model);
+                    addFingerprint(modelName, fingerprint);
                     swagger.addDefinition(modelName, model);
                 }
             }
@@ -0,0 +1,196 @@
+package io.swagger.codegen;
+
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Embedded templates of one generator, read into memory on first use.
+ *
+ * All resources under the embedded template directory, except the ones in library folders other
+ * than the selected library, are read in one pass: for a JAR the entries are walked once and
+ * only the matching ones are inflated, instead of looking up every template and partial in the
+ * JAR separately. Repositories are shared by all runs with the same class loader, directory and
+ * library.
+ *
+ * A repository is only authoritative for the resources it {@link #covers(String) covers}. If the
+ * directory couldn't be read up front, e.g. because it isn't on the file system or in a plain
+ * JAR, it covers nothing and lookups go to the class loader as before.
+ */
+public class TemplateRepository {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TemplateRepository.class);
+
+    private static final String LIBRARIES = "libraries/";
+
+    // guarded by itself
+    private static final Map<ClassLoader, Map<String, TemplateRepository>> REPOSITORIES =
+            new WeakHashMap<ClassLoader, Map<String, TemplateRepository>>();
+
+    private final String prefix;
+    private final String libraryPrefix;
+    private final Map<String, byte[]> resources = new HashMap<String, byte[]>();
+    private boolean loaded;
+
+    /**
+     * @param classLoader class loader to read the templates from
+     * @param directory embedded template directory, as a class path resource path
+     * @param library selected library, or null
+     */
+    TemplateRepository(ClassLoader classLoader, String directory, String library) {
+        this.prefix = directory.endsWith("/") ? directory : directory + "/";
+        this.libraryPrefix = library == null || library.isEmpty() ? null : prefix + LIBRARIES + library + "/";
+        load(classLoader);
+    }
+
+    /**
+     * Get the shared repository of a template directory, reading it if this is its first use.
+     *
+     * @param classLoader class loader to read the templates from
+     * @param directory embedded template directory, as a class path resource path
+     * @param library selected library, or null
+     * @return the repository
+     */
+    public static TemplateRepository forDirectory(ClassLoader classLoader, String directory, String library) {
+        String key = directory + "|" + (library == null ? "" : library);
+        synchronized (REPOSITORIES) {
+            Map<String, TemplateRepository> repositories = REPOSITORIES.get(classLoader);
+            if (repositories == null) {
+                repositories = new HashMap<String, TemplateRepository>();
+                REPOSITORIES.put(classLoader, repositories);
+            }
+            TemplateRepository repository = repositories.get(key);
+            if (repository == null) {
+                repository = new TemplateRepository(classLoader, directory, library);
+                repositories.put(key, repository);
+            }
+            return repository;
+        }
+    }
+
+    /**
+     * @param path class path resource path
+     * @return whether this repository knows if the resource exists
+     */
+    public boolean covers(String path) {
+        return loaded && covered(path);
+    }
+
+    /**
+     * @param path class path resource path
+     * @return whether the resource exists; only meaningful if the path is {@link #covers(String) covered}
+     */
+    public boolean exists(String path) {
+        return resources.containsKey(path);
+    }
+
+    /**
+     * @param path class path resource path
+     * @return the contents of the resource, or null if it doesn't exist
+     */
+    public InputStream getInputStream(String path) {
+        byte[] contents = resources.get(path);
+        return contents == null ? null : new ByteArrayInputStream(contents);
+    }
+
+    /**
+     * @return the number of resources read
+     */
+    public int size() {
+        return resources.size();
+    }
+
+    private void load(ClassLoader classLoader) {
+        long start = System.currentTimeMillis();
+        try {
+            Enumeration<URL> urls = classLoader.getResources(prefix.substring(0, prefix.length() - 1));
+            if (!urls.hasMoreElements()) {
+                return;
+            }
+            // like ClassLoader.getResource, the first directory on the class path wins
+            while (urls.hasMoreElements()) {
+                URL url = urls.nextElement();
+                if ("jar".equals(url.getProtocol())) {
+                    loadJar(url);
+                } else if ("file".equals(url.getProtocol())) {
+                    loadDirectory(url);
+                } else {
+                    LOGGER.debug("Not preloading templates from " + url);
+                    resources.clear();
+                    return;
+                }
+            }
+            loaded = true;
+            LOGGER.debug("Preloaded " + resources.size() + " templates from " + prefix + " in "
+                    + (System.currentTimeMillis() - start) + " ms");
+        } catch (IOException | URISyntaxException e) {
+            LOGGER.warn("Can't preload templates from " + prefix + ": " + e.getMessage());
+            resources.clear();
+        }
+    }
+
+    private void loadJar(URL url) throws IOException, URISyntaxException {
+        URL jarFileUrl = ((JarURLConnection) url.openConnection()).getJarFileURL();
+        if (!"file".equals(jarFileUrl.getProtocol())) {
+            throw new IOException("not a local JAR: " + jarFileUrl);
+        }
+        ZipFile zip = new ZipFile(new File(jarFileUrl.toURI()));
+        try {
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                String name = entry.getName();
+                if (!entry.isDirectory() && covered(name) && !resources.containsKey(name)) {
+                    InputStream in = zip.getInputStream(entry);
+                    try {
+                        resources.put(name, IOUtils.toByteArray(in));
+                    } finally {
+                        in.close();
+                    }
+                }
+            }
+        } finally {
+            zip.close();
+        }
+    }
+
+    private void loadDirectory(URL url) throws IOException, URISyntaxException {
+        Path root = Paths.get(url.toURI());
+        Stream<Path> files = Files.walk(root);
+        try {
+            Iterator<Path> iterator = files.iterator();
+            while (iterator.hasNext()) {
+                Path file = iterator.next();
+                String name = prefix + root.relativize(file).toString().replace(File.separatorChar, '/');
+                if (Files.isRegularFile(file) && covered(name) && !resources.containsKey(name)) {
+                    resources.put(name, Files.readAllBytes(file));
+                }
+            }
+        } finally {
+            files.close();
+        }
+    }
+
+    private boolean covered(String path) {
+        return path.startsWith(prefix)
+                && (!path.startsWith(prefix + LIBRARIES) || (libraryPrefix != null && path.startsWith(libraryPrefix)));
+    }
+}
@@ -0,0 +1,569 @@
+package io.swagger.codegen.cache;
+
+import io.swagger.codegen.ClientOptInput;
+import io.swagger.codegen.CodegenConfig;
+import io.swagger.codegen.CodegenConstants;
+import io.swagger.codegen.DefaultGenerator;
+import io.swagger.codegen.Generator;
+import io.swagger.codegen.utils.ImplementationVersion;
+import io.swagger.util.Json;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * On-disk cache of complete generation outputs.
+ *
+ * The output files of a run are stored once per content as blobs named by their SHA-256, and a
+ * manifest named by the hash of all inputs of the run lists which blob goes where. The inputs are
+ * the parsed spec, the generator and its options, custom templates, ignore files, the generation
+ * switches and the codegen version. On a hit the files are copied from the blobs, without running
+ * the generator at all.
+ *
+ * The least recently used manifests are evicted once the blobs exceed the size limit. Blobs are
+ * copied rather than hard linked, since generators rewrite files in place and would change the
+ * cached copy through a link.
+ *
+ * <pre>
+ * cache-dir/
+ *   manifests/&lt;key&gt;     "&lt;sha256&gt; &lt;size&gt; &lt;path&gt;" per line, last modified = last used
+ *   blobs/ab/&lt;sha256&gt;
+ * </pre>
+ */
+public class GenerationCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(GenerationCache.class);
+
+    public static final long DEFAULT_MAX_SIZE = 1024L * 1024 * 1024;
+
+    // switches read from system properties which change what gets generated
+    private static final List<String> SYSTEM_PROPERTIES = Arrays.asList(
+            CodegenConstants.APIS, CodegenConstants.MODELS, CodegenConstants.SUPPORTING_FILES,
+            CodegenConstants.GENERATE_APIS, CodegenConstants.GENERATE_MODELS,
+            CodegenConstants.MODEL_TESTS, CodegenConstants.MODEL_DOCS, CodegenConstants.API_TESTS,
+            CodegenConstants.API_DOCS, CodegenConstants.WITH_XML);
+
+    // blobs which nothing refers to are only removed once they're this old, so a concurrent run can finish storing
+    private static final long ORPHAN_GRACE_PERIOD = 10 * 60 * 1000L;
+
+    private final File directory;
+    private final File manifests;
+    private final File blobs;
+    private final long maxSize;
+
+    public GenerationCache(File directory) {
+        this(directory, DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * @param directory the cache directory, created when needed
+     * @param maxSize the size in bytes the blobs are pruned to after storing a run
+     */
+    public GenerationCache(File directory, long maxSize) {
+        this.directory = directory;
+        this.manifests = new File(directory, "manifests");
+        this.blobs = new File(directory, "blobs");
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Restore the output of an earlier run with the same inputs, or generate and store it.
+     *
+     * @param input the options of the run, as built by the configurator
+     * @param generator the generator to run on a miss
+     * @return the files of the output
+     */
+    public List<File> generate(ClientOptInput input, Generator generator) {
+        CodegenConfig config = input.getConfig();
+        File outputDir = new File(config.getOutputDir()).getAbsoluteFile();
+        String reason = getUncacheableReason(config);
+        if (reason != null) {
+            LOGGER.info("Not using the generation cache: " + reason);
+            return generator.opts(input).generate();
+        }
+
+        Map<String, String> propertyDefaults = Collections.emptyMap();
+        if (generator instanceof DefaultGenerator) {
+            propertyDefaults = ((DefaultGenerator) generator).getGeneratorPropertyDefaults();
+        }
+
+        String key;
+        try {
+            key = key(input, propertyDefaults);
+            List<File> restored = restore(key, outputDir);
+            if (restored != null) {
+                LOGGER.info("Restored " + restored.size() + " files from the generation cache (" + key + ")");
+                return restored;
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read the generation cache in '" + directory + "'", e);
+        }
+
+        List<File> files = generator.opts(input).generate();
+        try {
+            store(key, outputDir, files);
+            prune(maxSize);
+        } catch (IOException e) {
+            // the output is complete, a run which can't be cached just isn't
+            LOGGER.warn("Could not store the output in the generation cache: " + e.getMessage(), e);
+        }
+        return files;
+    }
+
+    /**
+     * Compute the cache key of a run from everything that goes into its output.
+     *
+     * @param input the options of the run
+     * @return the hex encoded SHA-256 of the inputs
+     * @throws IOException if a template or ignore file can't be read
+     */
+    public String key(ClientOptInput input) throws IOException {
+        return key(input, Collections.<String, String>emptyMap());
+    }
+
+    /**
+     * Compute the cache key of a run from everything that goes into its output.
+     *
+     * @param input the options of the run
+     * @param generatorPropertyDefaults the switches set on the generator instead of system properties
+     * @return the hex encoded SHA-256 of the inputs
+     * @throws IOException if a template or ignore file can't be read
+     */
+    public String key(ClientOptInput input, Map<String, String> generatorPropertyDefaults) throws IOException {
+        CodegenConfig config = input.getConfig();
+        MessageDigest digest = sha256();
+
+        update(digest, "version", ImplementationVersion.read());
+        update(digest, "codegen", describeCodeSource(GenerationCache.class));
+        update(digest, "generator", config.getClass().getName() + " " + describeCodeSource(config.getClass()));
+        update(digest, "library", config.getLibrary());
+        update(digest, "inputSpec", config.getInputSpec());
+        update(digest, "skipAliasGeneration", String.valueOf(config.getSkipAliasGeneration()));
+        update(digest, "removeOperationIdPrefix", String.valueOf(config.isRemoveOperationIdPrefix()));
+        update(digest, "additionalProperties", sorted(config.additionalProperties()));
+        update(digest, "typeMapping", sorted(config.typeMapping()));
+        update(digest, "instantiationTypes", sorted(config.instantiationTypes()));
+        update(digest, "importMapping", sorted(config.importMapping()));
+        update(digest, "reservedWordsMappings", sorted(config.reservedWordsMappings()));
+        update(digest, "languageSpecificPrimitives", new TreeSet<String>(config.languageSpecificPrimitives()).toString());
+        for (String property : SYSTEM_PROPERTIES) {
+            update(digest, "-D" + property, System.getProperty(property));
+        }
+        update(digest, "generatorPropertyDefaults", sorted(generatorPropertyDefaults));
+
+        Object templateDir = config.additionalProperties().get(CodegenConstants.TEMPLATE_DIR);
+        if (templateDir != null) {
+            File templates = new File(templateDir.toString());
+            if (templates.isDirectory()) {
+                List<File> files = new ArrayList<File>(FileUtils.listFiles(templates, null, true));
+                Collections.sort(files);
+                for (File file : files) {
+                    update(digest, "template " + relativize(templates, file), hash(file));
+                }
+            }
+        }
+        if (StringUtils.isNotEmpty(config.getIgnoreFilePathOverride())) {
+            File ignoreFile = new File(config.getIgnoreFilePathOverride());
+            update(digest, "ignoreFileOverride", ignoreFile.isFile() ? hash(ignoreFile) : null);
+        }
+        // the first run writes an ignore file without rules, which mustn't make the next run miss
+        File ignoreFile = new File(config.getOutputDir(), ".swagger-codegen-ignore");
+        update(digest, "ignoreFile", ignoreFile.isFile() ? readIgnoreRules(ignoreFile) : null);
+
+        digest.update("spec".getBytes(StandardCharsets.UTF_8));
+        digest.update(Json.mapper().writeValueAsBytes(input.getSwagger()));
+
+        return hex(digest.digest());
+    }
+
+    /**
+     * Copy the files of a cached run into the output folder.
+     *
+     * @param key the cache key of the run
+     * @param outputDir the output folder
+     * @return the restored files, or null if the run isn't cached
+     * @throws IOException if the files can't be copied
+     */
+    public List<File> restore(String key, File outputDir) throws IOException {
+        File manifest = new File(manifests, key);
+        if (!manifest.isFile()) {
+            return null;
+        }
+        List<Entry> entries;
+        try {
+            entries = readManifest(manifest);
+        } catch (IOException e) {
+            // pruned by another run in the meantime
+            return null;
+        }
+        for (Entry entry : entries) {
+            if (!getBlob(entry.hash).isFile()) {
+                LOGGER.warn("Generation cache entry " + key + " is incomplete, generating again");
+                manifest.delete();
+                return null;
+            }
+        }
+
+        List<File> files = new ArrayList<File>(entries.size());
+        for (Entry entry : entries) {
+            File target = new File(outputDir, entry.path.replace('/', File.separatorChar));
+            target.getParentFile().mkdirs();
+            Files.copy(getBlob(entry.hash).toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            files.add(target);
+        }
+        manifest.setLastModified(System.currentTimeMillis());
+        return files;
+    }
+
+    /**
+     * Store the output of a run.
+     *
+     * @param key the cache key of the run
+     * @param outputDir the output folder of the run
+     * @param files the files written by the run
+     * @throws IOException if the cache can't be written
+     */
+    public void store(String key, File outputDir, Collection<File> files) throws IOException {
+        Map<String, Entry> entries = new TreeMap<String, Entry>();
+        for (File file : files) {
+            if (!file.isFile()) {
+                continue;
+            }
+            String path = relativize(outputDir, file);
+            if (path == null) {
+                LOGGER.info("Not caching " + file + ", it's outside of " + outputDir);
+                continue;
+            }
+            entries.put(path, new Entry(storeBlob(file), file.length(), path));
+        }
+
+        StringBuilder contents = new StringBuilder();
+        for (Entry entry : entries.values()) {
+            contents.append(entry.hash).append(' ').append(entry.size).append(' ').append(entry.path).append('\n');
+        }
+        manifests.mkdirs();
+        File temp = File.createTempFile(key, ".tmp", manifests);
+        FileUtils.writeStringToFile(temp, contents.toString(), StandardCharsets.UTF_8);
+        move(temp, new File(manifests, key));
+    }
+
+    /**
+     * Evict the least recently used runs until the blobs take at most the given size.
+     *
+     * @param maxSize the size in bytes to prune to
+     * @return the number of evicted runs
+     * @throws IOException if the cache can't be read
+     */
+    public int prune(long maxSize) throws IOException {
+        long started = System.currentTimeMillis();
+        List<File> manifestFiles = listManifests();
+        Collections.sort(manifestFiles, new Comparator<File>() {
+            @Override
+            public int compare(File one, File another) {
+                return Long.compare(one.lastModified(), another.lastModified());
+            }
+        });
+
+        Map<File, List<Entry>> entries = new LinkedHashMap<File, List<Entry>>();
+        Map<String, Integer> references = new HashMap<String, Integer>();
+        Map<String, Long> sizes = new HashMap<String, Long>();
+        long size = 0;
+        for (File manifest : manifestFiles) {
+            List<Entry> manifestEntries;
+            try {
+                manifestEntries = readManifest(manifest);
+            } catch (IOException e) {
+                continue;
+            }
+            entries.put(manifest, manifestEntries);
+            for (Entry entry : manifestEntries) {
+                Integer count = references.get(entry.hash);
+                references.put(entry.hash, count == null ? 1 : count + 1);
+                if (count == null) {
+                    sizes.put(entry.hash, entry.size);
+                    size += entry.size;
+                }
+            }
+        }
+
+        int evicted = 0;
+        for (Map.Entry<File, List<Entry>> manifest : entries.entrySet()) {
+            if (size <= maxSize) {
+                break;
+            }
+            manifest.getKey().delete();
+            evicted++;
+            for (Entry entry : manifest.getValue()) {
+                int count = references.get(entry.hash) - 1;
+                references.put(entry.hash, count);
+                if (count == 0) {
+                    size -= sizes.get(entry.hash);
+                }
+            }
+        }
+
+        for (File blob : listBlobs()) {
+            Integer count = references.get(blob.getName());
+            if (count != null ? count == 0 : blob.lastModified() < started - ORPHAN_GRACE_PERIOD) {
+                blob.delete();
+            }
+        }
+        if (evicted > 0) {
+            LOGGER.info("Evicted " + evicted + " runs from the generation cache in '" + directory + "'");
+        }
+        return evicted;
+    }
+
+    /**
+     * @return the number of cached runs, blobs and bytes
+     */
+    public Stats stats() {
+        Stats stats = new Stats();
+        for (File manifest : listManifests()) {
+            stats.entries++;
+            if (stats.lastUsed < manifest.lastModified()) {
+                stats.lastUsed = manifest.lastModified();
+            }
+            if (stats.leastRecentlyUsed == 0 || manifest.lastModified() < stats.leastRecentlyUsed) {
+                stats.leastRecentlyUsed = manifest.lastModified();
+            }
+        }
+        for (File blob : listBlobs()) {
+            stats.blobs++;
+            stats.size += blob.length();
+        }
+        return stats;
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    private String getUncacheableReason(CodegenConfig config) {
+        if (config.isSkipOverwrite()) {
+            return "the output depends on the files which already exist";
+        }
+        if (StringUtils.isNotEmpty(System.getProperty(CodegenConstants.SHARD)) || Boolean.valueOf(System.getProperty(CodegenConstants.MERGE_SHARDS))) {
+            return "sharded runs only write part of the output";
+        }
+        return null;
+    }
+
+    private String storeBlob(File file) throws IOException {
+        String hash = hash(file);
+        File blob = getBlob(hash);
+        if (blob.isFile()) {
+            // keeps it from being mistaken for an orphan while this run is stored
+            blob.setLastModified(System.currentTimeMillis());
+            return hash;
+        }
+        blob.getParentFile().mkdirs();
+        File temp = File.createTempFile(hash, ".tmp", blob.getParentFile());
+        Files.copy(file.toPath(), temp.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        move(temp, blob);
+        return hash;
+    }
+
+    private File getBlob(String hash) {
+        return new File(new File(blobs, hash.substring(0, 2)), hash);
+    }
+
+    private List<File> listManifests() {
+        List<File> files = new ArrayList<File>();
+        File[] list = manifests.listFiles();
+        if (list != null) {
+            for (File file : list) {
+                if (file.isFile() && !file.getName().endsWith(".tmp")) {
+                    files.add(file);
+                }
+            }
+        }
+        return files;
+    }
+
+    private List<File> listBlobs() {
+        List<File> files = new ArrayList<File>();
+        File[] folders = blobs.listFiles();
+        if (folders != null) {
+            for (File folder : folders) {
+                File[] list = folder.listFiles();
+                if (list != null) {
+                    for (File file : list) {
+                        if (file.isFile() && !file.getName().endsWith(".tmp")) {
+                            files.add(file);
+                        }
+                    }
+                }
+            }
+        }
+        return files;
+    }
+
+    private static List<Entry> readManifest(File manifest) throws IOException {
+        List<Entry> entries = new ArrayList<Entry>();
+        for (String line : FileUtils.readLines(manifest, StandardCharsets.UTF_8)) {
+            String[] parts = line.split(" ", 3);
+            if (parts.length == 3) {
+                entries.add(new Entry(parts[0], Long.parseLong(parts[1]), parts[2]));
+            }
+        }
+        return entries;
+    }
+
+    private static String readIgnoreRules(File ignoreFile) throws IOException {
+        StringBuilder rules = new StringBuilder();
+        for (String line : FileUtils.readLines(ignoreFile, StandardCharsets.UTF_8)) {
+            // blank lines and comments match no files, see CodegenIgnoreProcessor
+            if (line.length() > 0 && !line.startsWith("#")) {
+                rules.append(line).append('\n');
+            }
+        }
+        return rules.length() > 0 ? rules.toString() : null;
+    }
+
+    private static void move(File source, File target) throws IOException {
+        try {
+            Files.move(source.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (FileAlreadyExistsException e) {
+            // stored by another run in the meantime
+            source.delete();
+        }
+    }
+
+    private static String relativize(File base, File file) {
+        URI baseUri = base.getAbsoluteFile().toURI().normalize();
+        URI relative = baseUri.relativize(file.getAbsoluteFile().toURI().normalize());
+        return relative.isAbsolute() ? null : relative.getPath();
+    }
+
+    private static String describeCodeSource(Class<?> type) {
+        CodeSource source = type.getProtectionDomain().getCodeSource();
+        if (source == null || source.getLocation() == null) {
+            return "unknown";
+        }
+        try {
+            File file = new File(source.getLocation().toURI());
+            // a jar of the same version can still be rebuilt, e.g. a snapshot
+            return file.isFile() ? file.getAbsolutePath() + " " + file.length() + " " + file.lastModified() : file.getAbsolutePath();
+        } catch (Exception e) {
+            return source.getLocation().toString();
+        }
+    }
+
+    private static String sorted(Map<String, ?> map) {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, ?> entry : new TreeMap<String, Object>(map).entrySet()) {
+            sb.append(entry.getKey()).append('=').append(entry.getValue()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static void update(MessageDigest digest, String name, String value) {
+        digest.update(name.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        if (value != null) {
+            digest.update(value.getBytes(StandardCharsets.UTF_8));
+        }
+        digest.update((byte) 0);
+    }
+
+    private static String hash(File file) throws IOException {
+        MessageDigest digest = sha256();
+        InputStream in = Files.newInputStream(file.toPath());
+        try {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        } finally {
+            in.close();
+        }
+        return hex(digest.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return sb.toString();
+    }
+
+    private static class Entry {
+        private final String hash;
+        private final long size;
+        private final String path;
+
+        Entry(String hash, long size, String path) {
+            this.hash = hash;
+            this.size = size;
+            this.path = path;
+        }
+    }
+
+    /**
+     * Size of a generation cache.
+     */
+    public static class Stats {
+        private int entries;
+        private int blobs;
+        private long size;
+        private long lastUsed;
+        private long leastRecentlyUsed;
+
+        public int getEntries() {
+            return entries;
+        }
+
+        public int getBlobs() {
+            return blobs;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getLastUsed() {
+            return lastUsed;
+        }
+
+        public long getLeastRecentlyUsed() {
+            return leastRecentlyUsed;
+        }
+    }
+}
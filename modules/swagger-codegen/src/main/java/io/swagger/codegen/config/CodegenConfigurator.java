@@ -386,6 +386,17 @@ public class CodegenConfigurator implements Serializable {
     }
 
     public ClientOptInput toClientOptInput() {
+        return toClientOptInput(null);
+    }
+
+    /**
+     * Same as {@link #toClientOptInput()}, but with a spec which was already read, e.g. to generate
+     * again after only the templates changed.
+     *
+     * @param swagger the spec to generate from, or null to read it from the input spec
+     * @return the generation input
+     */
+    public ClientOptInput toClientOptInput(Swagger swagger) {
 
         Validate.notEmpty(lang, "language must be specified");
         Validate.notEmpty(inputSpec, "input spec must be specified");
@@ -433,11 +444,9 @@ public class CodegenConfigurator implements Serializable {
         ClientOptInput input = new ClientOptInput()
                 .config(config);
 
-        final List<AuthorizationValue> authorizationValues = AuthParser.parse(auth);
-        ParseOptions parseOptions = new ParseOptions();
-        parseOptions.setResolve(true);
-        parseOptions.setFlatten(true);
-        Swagger swagger = new SwaggerParser().read(inputSpec, authorizationValues, parseOptions);
+        if (swagger == null) {
+            swagger = readSwagger();
+        }
 
         input.opts(new ClientOpts())
                 .swagger(swagger);
@@ -445,6 +454,19 @@ public class CodegenConfigurator implements Serializable {
         return input;
     }
 
+    /**
+     * Read the input spec, resolving and flattening it the way generation expects.
+     *
+     * @return the spec, or null if it can't be read
+     */
+    public Swagger readSwagger() {
+        final List<AuthorizationValue> authorizationValues = AuthParser.parse(auth);
+        ParseOptions parseOptions = new ParseOptions();
+        parseOptions.setResolve(true);
+        parseOptions.setFlatten(true);
+        return new SwaggerParser().read(inputSpec, authorizationValues, parseOptions);
+    }
+
     @JsonAnySetter
     public CodegenConfigurator addDynamicProperty(String name, Object value) {
         dynamicProperties.put(name, value);
@@ -3,13 +3,18 @@ package io.swagger.codegen.examples;
 import io.swagger.models.Model;
 import io.swagger.models.ModelImpl;
 import io.swagger.models.properties.*;
+import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import io.swagger.util.Json;
-import org.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.math.BigDecimal;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 import static io.swagger.models.properties.StringProperty.Format.URI;
 import static io.swagger.models.properties.StringProperty.Format.URL;
@@ -26,44 +31,59 @@ public class ExampleGenerator {
     private static final String OUTPUT = "output";
     private static final String NONE = "none";
 
+    // use a fixed seed to make the "random" numbers reproducible, every call starts from it
+    private static final long SEED = "ExampleGenerator".hashCode();
+    // examples are rendered into memory for the templates, don't let deeply nested models blow the heap
+    private static final int MAX_EXAMPLE_LENGTH = 1024 * 1024;
+    private static final ObjectWriter JSON_WRITER = Json.mapper().writer(new DefaultPrettyPrinter());
+
     protected Map<String, Model> examples;
-    private Random random;
+    private XmlExampleGenerator xmlExampleGenerator;
+    // rendered examples per (media type, model), an empty string marks examples that couldn't be rendered
+    private final Map<String, String> renderedExamples = new ConcurrentHashMap<>();
 
+    /**
+     * Create an example generator for the given model definitions. A single instance is meant to
+     * be shared by all operations of a generation run, see {@link io.swagger.codegen.CodegenContext}.
+     *
+     * @param examples model definitions of the spec
+     */
     public ExampleGenerator(Map<String, Model> examples) {
         this.examples = examples;
-        // use a fixed seed to make the "random" numbers reproducible.
-        this.random = new Random("ExampleGenerator".hashCode());
+        this.xmlExampleGenerator = new XmlExampleGenerator(examples);
+    }
+
+    /**
+     * @return the model definitions this generator resolves references against
+     */
+    public Map<String, Model> getDefinitions() {
+        return examples;
     }
 
-    public List<Map<String, String>> generate(Map<String, Object> examples, List<String> mediaTypes, Property property) {
+    public List<Map<String, String>> generate(Map<String, Object> examples, List<String> mediaTypes, final Property property) {
+        // every call starts from the same seed so the result doesn't depend on previous or concurrent calls
+        final Random random = new Random(SEED);
         List<Map<String, String>> output = new ArrayList<>();
-        Set<String> processedModels = new HashSet<>();
+        final Set<String> processedModels = new HashSet<>();
         if (examples == null) {
             if (mediaTypes == null) {
                 // assume application/json for this
                 mediaTypes = Collections.singletonList(MIME_TYPE_JSON); // FIXME: a parameter should not be assigned. Also declare the methods parameters as 'final'.
             }
-            for (String mediaType : mediaTypes) {
+            for (final String mediaType : mediaTypes) {
                 Map<String, String> kv = new HashMap<>();
                 kv.put(CONTENT_TYPE, mediaType);
                 if (property != null && mediaType.startsWith(MIME_TYPE_JSON)) {
-                    /*
-                        org.json is used to pretty print example, because of an issue with
-                        Jackson pretty printing for large specs, where for some reason
-                        memory usage goes up to OOM errors.
-                        TODO if bug (?) is fixed in Jackson pretty printing, remove the dep and use jackson instead
-                     */
-                    //String example = Json.pretty(resolvePropertyToExample("", mediaType, property, processedModels));
-                    String example = new JSONObject(resolvePropertyToExample("", mediaType, property, processedModels)).toString(2);
+                    String example = getRendered(mediaType, cacheKey(property),
+                            () -> toJson(resolvePropertyToExample("", mediaType, property, random, processedModels)));
 
-
-                    if (example != null) {
+                    if (example != null && !example.isEmpty()) {
                         kv.put(EXAMPLE, example);
                         output.add(kv);
                     }
                 } else if (property != null && mediaType.startsWith(MIME_TYPE_XML)) {
-                    String example = new XmlExampleGenerator(this.examples).toXml(property);
-                    if (example != null) {
+                    String example = getRendered(mediaType, cacheKey(property), () -> xmlExampleGenerator.toXml(property));
+                    if (example != null && !example.isEmpty()) {
                         kv.put(EXAMPLE, example);
                         output.add(kv);
                     }
@@ -85,39 +105,34 @@ public class ExampleGenerator {
         return output;
     }
 
-    public List<Map<String, String>> generate(Map<String, Object> examples, List<String> mediaTypes, String modelName) {
+    public List<Map<String, String>> generate(Map<String, Object> examples, List<String> mediaTypes, final String modelName) {
+        final Random random = new Random(SEED);
         List<Map<String, String>> output = new ArrayList<>();
-        Set<String> processedModels = new HashSet<>();
+        final Set<String> processedModels = new HashSet<>();
         if (examples == null) {
             if (mediaTypes == null) {
                 // assume application/json for this
                 mediaTypes = Collections.singletonList(MIME_TYPE_JSON); // FIXME: a parameter should not be assigned. Also declare the methods parameters as 'final'.
             }
-            for (String mediaType : mediaTypes) {
+            for (final String mediaType : mediaTypes) {
                 Map<String, String> kv = new HashMap<>();
                 kv.put(CONTENT_TYPE, mediaType);
                 if (modelName != null && mediaType.startsWith(MIME_TYPE_JSON)) {
                     final Model model = this.examples.get(modelName);
                     if (model != null) {
+                        String example = getRendered(mediaType, MODEL_KEY + modelName,
+                                () -> toJson(resolveModelToExample(modelName, mediaType, model, random, processedModels)));
 
-                        /*
-                            org.json is used to pretty print example, because of an issue with
-                            Jackson pretty printing for large specs, where for some reason
-                            memory usage goes up to OOM errors.
-                            TODO if bug (?) is fixed in Jackson pretty printing, remove the dep and use jackson instead
-                         */
-                        // String example = Json.pretty(resolveModelToExample(modelName, mediaType, model, processedModels));
-                        String example = new JSONObject(resolveModelToExample(modelName, mediaType, model, processedModels)).toString(2);
-
-                        if (example != null) {
+                        if (example != null && !example.isEmpty()) {
                             kv.put(EXAMPLE, example);
                             output.add(kv);
                         }
                     }
                 } else if (modelName != null && mediaType.startsWith(MIME_TYPE_XML)) {
                     final Model model = this.examples.get(modelName);
-                    String example = new XmlExampleGenerator(this.examples).toXml(model, 0, Collections.<String>emptySet());
-                    if (example != null) {
+                    String example = getRendered(mediaType, MODEL_KEY + modelName,
+                            () -> xmlExampleGenerator.toXml(model, 0, Collections.<String>emptySet()));
+                    if (example != null && !example.isEmpty()) {
                         kv.put(EXAMPLE, example);
                         output.add(kv);
                     }
@@ -139,7 +154,94 @@ public class ExampleGenerator {
         return output;
     }
 
-    private Object resolvePropertyToExample(String propertyName, String mediaType, Property property, Set<String> processedModels) {
+    private static final String MODEL_KEY = "model:";
+
+    /**
+     * Key under which the rendered example of a property is cached, or null if the example isn't
+     * solely determined by referenced models. Resolved model examples are stored on the model
+     * (see resolveModelToExample), so references render the same way every time.
+     */
+    private static String cacheKey(Property property) {
+        if (property.getExample() != null || property.getXml() != null) {
+            return null;
+        } else if (property instanceof RefProperty) {
+            return MODEL_KEY + ((RefProperty) property).getSimpleRef();
+        } else if (property instanceof ArrayProperty) {
+            ArrayProperty array = (ArrayProperty) property;
+            if (array.getItems() == null) {
+                return null;
+            }
+            String inner = cacheKey(array.getItems());
+            return inner == null ? null : "array(" + array.getMaxItems() + "):" + inner;
+        } else if (property instanceof MapProperty) {
+            MapProperty map = (MapProperty) property;
+            if (map.getAdditionalProperties() == null) {
+                return null;
+            }
+            String inner = cacheKey(map.getAdditionalProperties());
+            return inner == null ? null : "map(" + map.getName() + "):" + inner;
+        }
+        return null;
+    }
+
+    /**
+     * The example rendered once for the media type and cache key, or rendered on every call if the key is null.
+     */
+    private String getRendered(String mediaType, String key, Supplier<String> renderer) {
+        if (key == null) {
+            return renderer.get();
+        }
+        return renderedExamples.computeIfAbsent(mediaType + " " + key, k -> {
+            String example = renderer.get();
+            return example == null ? "" : example;
+        });
+    }
+
+    /**
+     * Pretty print the example with a streaming generator, giving up on examples that get too large.
+     */
+    private static String toJson(Object example) {
+        LimitedWriter out = new LimitedWriter(MAX_EXAMPLE_LENGTH);
+        try {
+            JSON_WRITER.writeValue(out, example);
+        } catch (IOException e) {
+            logger.warn("Skipping JSON example: {}", e.getMessage());
+            return null;
+        }
+        return out.toString();
+    }
+
+    private static class LimitedWriter extends Writer {
+        private final StringBuilder buffer = new StringBuilder();
+        private final int limit;
+
+        LimitedWriter(int limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            if (buffer.length() + len > limit) {
+                throw new IOException("example exceeds " + limit + " characters");
+            }
+            buffer.append(cbuf, off, len);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public String toString() {
+            return buffer.toString();
+        }
+    }
+
+    private Object resolvePropertyToExample(String propertyName, String mediaType, Property property, Random random, Set<String> processedModels) {
         logger.debug("Resolving example for property {}...", property);
         if (property.getExample() != null) {
             logger.debug("Example set in swagger spec, returning example: '{}'", property.getExample().toString());
@@ -179,7 +281,7 @@ public class ExampleGenerator {
                     arrayLength = 10;
                 }
                 Object[] objectProperties = new Object[arrayLength];
-                Object objProperty = resolvePropertyToExample(propertyName, mediaType, innerType, processedModels);
+                Object objProperty = resolvePropertyToExample(propertyName, mediaType, innerType, random, processedModels);
                 for(int i=0; i < arrayLength; i++) {
                     objectProperties[i] = objProperty;
                 }
@@ -192,33 +294,33 @@ public class ExampleGenerator {
         } else if (property instanceof DoubleProperty) {
             Double min = ((DecimalProperty) property).getMinimum() == null ? null : ((DecimalProperty) property).getMinimum().doubleValue();
             Double max = ((DecimalProperty) property).getMaximum() == null ? null : ((DecimalProperty) property).getMaximum().doubleValue();
-            return randomNumber(min, max);
+            return randomNumber(random, min, max);
         } else if (property instanceof FloatProperty) {
             Double min = ((DecimalProperty) property).getMinimum() == null ? null : ((DecimalProperty) property).getMinimum().doubleValue();
             Double max = ((DecimalProperty) property).getMaximum() == null ? null : ((DecimalProperty) property).getMaximum().doubleValue();
-            return (float) randomNumber(min, max);
+            return (float) randomNumber(random, min, max);
         }  else if (property instanceof DecimalProperty) {
             Double min = ((DecimalProperty) property).getMinimum() == null ? null : ((DecimalProperty) property).getMinimum().doubleValue();
             Double max = ((DecimalProperty) property).getMaximum() == null ? null : ((DecimalProperty) property).getMaximum().doubleValue();
-            return new BigDecimal(randomNumber(min, max));
+            return new BigDecimal(randomNumber(random, min, max));
         } else if (property instanceof FileProperty) {
             return "";  // TODO
         } else if (property instanceof LongProperty) {
             Double min = ((BaseIntegerProperty) property).getMinimum() == null ? null : ((BaseIntegerProperty) property).getMinimum().doubleValue();
             Double max = ((BaseIntegerProperty) property).getMaximum() == null ? null : ((BaseIntegerProperty) property).getMaximum().doubleValue();
-            return (long) randomNumber(min, max);
+            return (long) randomNumber(random, min, max);
         } else if (property instanceof BaseIntegerProperty) { // Includes IntegerProperty
             Double min = ((BaseIntegerProperty) property).getMinimum() == null ? null : ((BaseIntegerProperty) property).getMinimum().doubleValue();
             Double max = ((BaseIntegerProperty) property).getMaximum() == null ? null : ((BaseIntegerProperty) property).getMaximum().doubleValue();
-            return (int) randomNumber(min, max);
+            return (int) randomNumber(random, min, max);
         } else if (property instanceof MapProperty) {
             Map<String, Object> mp = new HashMap<String, Object>();
             if (property.getName() != null) {
                 mp.put(property.getName(),
-                        resolvePropertyToExample(propertyName, mediaType, ((MapProperty) property).getAdditionalProperties(), processedModels));
+                        resolvePropertyToExample(propertyName, mediaType, ((MapProperty) property).getAdditionalProperties(), random, processedModels));
             } else {
                 mp.put("key",
-                        resolvePropertyToExample(propertyName, mediaType, ((MapProperty) property).getAdditionalProperties(), processedModels));
+                        resolvePropertyToExample(propertyName, mediaType, ((MapProperty) property).getAdditionalProperties(), random, processedModels));
             }
             return mp;
         } else if (property instanceof ObjectProperty) {
@@ -228,7 +330,7 @@ public class ExampleGenerator {
             logger.debug("Ref property, simple name: {}", simpleName);
             Model model = examples.get(simpleName);
             if (model != null) {
-                return resolveModelToExample(simpleName, mediaType, model, processedModels);
+                return resolveModelToExample(simpleName, mediaType, model, random, processedModels);
             }
             logger.warn("Ref property with empty model.");
         } else if (property instanceof UUIDProperty) {
@@ -238,7 +340,7 @@ public class ExampleGenerator {
         return "";
     }
 
-    private double randomNumber(Double min, Double max) {
+    private static double randomNumber(Random random, Double min, Double max) {
         if (min != null && max != null) {
             double range = max - min;
             return random.nextDouble() * range + min;
@@ -251,7 +353,7 @@ public class ExampleGenerator {
         }
     }
 
-    private Object resolveModelToExample(String name, String mediaType, Model model, Set<String> processedModels) {
+    private Object resolveModelToExample(String name, String mediaType, Model model, Random random, Set<String> processedModels) {
         if (processedModels.contains(name)) {
             return model.getExample();
         }
@@ -269,7 +371,7 @@ public class ExampleGenerator {
                 logger.debug("Creating example from model values");
                 for (String propertyName : impl.getProperties().keySet()) {
                     Property property = impl.getProperties().get(propertyName);
-                    values.put(propertyName, resolvePropertyToExample(propertyName, mediaType, property, processedModels));
+                    values.put(propertyName, resolvePropertyToExample(propertyName, mediaType, property, random, processedModels));
                 }
                 impl.setExample(values);
             }
@@ -14,25 +14,39 @@ import io.swagger.models.properties.DecimalProperty;
 import io.swagger.models.properties.DoubleProperty;
 import io.swagger.models.properties.BaseIntegerProperty;
 import io.swagger.models.properties.AbstractNumericProperty;
+import io.swagger.models.properties.MapProperty;
 import io.swagger.models.properties.PasswordProperty;
 import io.swagger.models.properties.UUIDProperty;
 import io.swagger.models.properties.Property;
 import io.swagger.models.properties.RefProperty;
 import io.swagger.models.properties.StringProperty;
 
-import org.apache.commons.lang3.StringUtils;
-
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Renders XML examples through an {@link XMLStreamWriter}.
+ *
+ * Rendered models are cached per (model, indentation, relevant recursion path), so models that are
+ * referenced from many places are only rendered once per generator. Instances are not thread-safe,
+ * {@link ExampleGenerator} serializes access to the instance it owns.
+ */
 public class XmlExampleGenerator {
     protected final Logger LOGGER = LoggerFactory.getLogger(XmlExampleGenerator.class);
     public static String NEWLINE = "\n";
@@ -40,12 +54,22 @@ public class XmlExampleGenerator {
     public static String CLOSE_TAG = ">";
     public static String TAG_END = "</";
     private static String EMPTY = "";
+    private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+
     protected Map<String, Model> examples;
 
+    // rendered model fragments, see fragmentKey; the generator is shared by the concurrent calls of a run
+    private final Map<ModelImpl, Map<String, String>> fragments =
+            Collections.synchronizedMap(new IdentityHashMap<ModelImpl, Map<String, String>>());
+    // names of all models reachable from a model, used to tell which part of the recursion path matters
+    private final Map<ModelImpl, Set<String>> reachableModels =
+            Collections.synchronizedMap(new IdentityHashMap<ModelImpl, Set<String>>());
+    private final Map<Integer, String> indents = new ConcurrentHashMap<Integer, String>();
+
     public XmlExampleGenerator(Map<String, Model> examples) {
         this.examples = examples;
         if (examples == null) {
-            this.examples = new HashMap<String, Model>(); 
+            this.examples = new HashMap<String, Model>();
         }
     }
 
@@ -54,27 +78,59 @@ public class XmlExampleGenerator {
     }
 
     protected String toXml(Model model, int indent, Collection<String> path) {
+        ModelImpl impl = resolve(model);
+        if (impl == null) {
+            return null;
+        }
+        return modelImplToXml(impl, indent, path);
+    }
+
+    protected String modelImplToXml(ModelImpl model, int indent, Collection<String> path) {
+        final XmlWriter out = new XmlWriter();
+        writeModel(out, model, indent, path);
+        return out.finish();
+    }
+
+    protected String toXml(String name, Property property, int indent, Collection<String> path) {
+        final XmlWriter out = new XmlWriter();
+        writeProperty(out, name, property, indent, path);
+        return out.finish();
+    }
+
+    private ModelImpl resolve(Model model) {
         if (model instanceof RefModel) {
-            RefModel ref = (RefModel) model;
-            Model actualModel = examples.get(ref.getSimpleRef());
+            Model actualModel = examples.get(((RefModel) model).getSimpleRef());
             if (actualModel instanceof ModelImpl) {
-                return modelImplToXml((ModelImpl) actualModel, indent, path);
+                return (ModelImpl) actualModel;
             }
         } else if (model instanceof ModelImpl) {
-            return modelImplToXml((ModelImpl) model, indent, path);
+            return (ModelImpl) model;
         }
         return null;
     }
 
-    protected String modelImplToXml(ModelImpl model, int indent, Collection<String> path) {
+    private ModelImpl resolve(RefProperty ref) {
+        return resolve(examples.get(ref.getSimpleRef()));
+    }
+
+    private void writeModel(XmlWriter out, ModelImpl model, int indent, Collection<String> path) {
         final String modelName = model.getName();
         if (path.contains(modelName)) {
-            return EMPTY;
+            return;
+        }
+
+        final Map<String, String> rendered = fragments.computeIfAbsent(model, m -> new ConcurrentHashMap<String, String>());
+        final String key = fragmentKey(model, indent, path);
+        final String fragment = rendered.get(key);
+        if (fragment != null) {
+            out.raw(fragment);
+            return;
         }
+
+        final int start = out.mark();
         final Set<String> selfPath = new HashSet<String>(path);
         selfPath.add(modelName);
 
-        StringBuilder sb = new StringBuilder();
         // attributes
         Map<String, Property> attributes = new LinkedHashMap<String, Property>();
         Map<String, Property> elements = new LinkedHashMap<String, Property>();
@@ -97,38 +153,31 @@ public class XmlExampleGenerator {
                 }
             }
         }
-        sb.append(indent(indent)).append(TAG_START);
-        sb.append(name);
+        out.characters(indent(indent));
+        out.startElement(name);
         for (String pName : attributes.keySet()) {
             Property p = attributes.get(pName);
-            sb.append(" ").append(pName).append("=").append(quote(toXml(null, p, 0, selfPath)));
+            out.attribute(pName, attributeValue(p, selfPath));
         }
-        sb.append(CLOSE_TAG);
-        sb.append(NEWLINE);
+        out.characters(NEWLINE);
         for (String pName : elements.keySet()) {
             Property p = elements.get(pName);
-            final String asXml = toXml(pName, p, indent + 1, selfPath);
-            if (StringUtils.isEmpty(asXml)) {
+            if (isEmpty(pName, p, selfPath)) {
                 continue;
             }
-            sb.append(asXml);
-            sb.append(NEWLINE);
+            writeProperty(out, pName, p, indent + 1, selfPath);
+            out.characters(NEWLINE);
         }
-        sb.append(indent(indent)).append(TAG_END).append(name).append(CLOSE_TAG);
+        out.characters(indent(indent));
+        out.endElement();
 
-        return sb.toString();
+        rendered.put(key, out.since(start));
     }
 
-    @SuppressWarnings("static-method")
-    protected String quote(String string) {
-        return "\"" + string + "\"";
-    }
-
-    protected String toXml(String name, Property property, int indent, Collection<String> path) {
+    private void writeProperty(XmlWriter out, String name, Property property, int indent, Collection<String> path) {
         if (property == null) {
-            return "";
+            return;
         }
-        StringBuilder sb = new StringBuilder();
 
         if (property instanceof ArrayProperty) {
             ArrayProperty p = (ArrayProperty) property;
@@ -140,37 +189,151 @@ public class XmlExampleGenerator {
             if (wrapped) {
                 String prefix = EMPTY;
                 if (name != null) {
-                    sb.append(indent(indent));
-                    sb.append(openTag(name));
+                    out.characters(indent(indent));
+                    out.startElement(name);
                     prefix = NEWLINE;
                 }
-                final String asXml = toXml(name, inner, indent + 1, path);
-                if (StringUtils.isNotEmpty(asXml)) {
-                    sb.append(prefix).append(asXml);
+                if (!isEmpty(name, inner, path)) {
+                    out.characters(prefix);
+                    writeProperty(out, name, inner, indent + 1, path);
                 }
                 if (name != null) {
-                    sb.append(NEWLINE);
-                    sb.append(indent(indent));
-                    sb.append(closeTag(name));
+                    out.characters(NEWLINE);
+                    out.characters(indent(indent));
+                    out.endElement();
                 }
             } else {
-                sb.append(toXml(name, inner, indent, path));
+                writeProperty(out, name, inner, indent, path);
             }
         } else if (property instanceof RefProperty) {
-            RefProperty ref = (RefProperty) property;
-            Model actualModel = examples.get(ref.getSimpleRef());
-            sb.append(toXml(actualModel, indent, path));
+            ModelImpl actualModel = resolve((RefProperty) property);
+            if (actualModel != null) {
+                writeModel(out, actualModel, indent, path);
+            }
         } else {
             if (name != null) {
-                sb.append(indent(indent));
-                sb.append(openTag(name));
+                out.characters(indent(indent));
+                out.startElement(name);
             }
-            sb.append(getExample(property));
+            out.characters(getExample(property));
             if (name != null) {
-                sb.append(closeTag(name));
+                out.endElement();
+            }
+        }
+    }
+
+    /**
+     * The unescaped value of an attribute, the writer escapes it once.
+     */
+    private String attributeValue(Property property, Collection<String> path) {
+        if (property instanceof ArrayProperty || property instanceof RefProperty) {
+            // markup in an attribute; the XML of the fragment is escaped as its text
+            return toXml(null, property, 0, path);
+        }
+        return getExample(property);
+    }
+
+    /**
+     * @deprecated the examples are written through an {@link XMLStreamWriter}, which quotes the attributes;
+     * overriding this method has no effect
+     */
+    @Deprecated
+    @SuppressWarnings("static-method")
+    protected String quote(String string) {
+        return "\"" + string + "\"";
+    }
+
+    /**
+     * @deprecated the examples are written through an {@link XMLStreamWriter}, which opens the elements;
+     * overriding this method has no effect
+     */
+    @Deprecated
+    @SuppressWarnings("static-method")
+    protected String openTag(String name) {
+        return TAG_START + name + CLOSE_TAG;
+    }
+
+    /**
+     * @deprecated the examples are written through an {@link XMLStreamWriter}, which closes the elements;
+     * overriding this method has no effect
+     */
+    @Deprecated
+    @SuppressWarnings("static-method")
+    protected String closeTag(String name) {
+        return TAG_END + name + CLOSE_TAG;
+    }
+
+    /**
+     * Tell whether writeProperty would produce no output, without rendering anything.
+     */
+    private boolean isEmpty(String name, Property property, Collection<String> path) {
+        if (property == null) {
+            return true;
+        } else if (property instanceof ArrayProperty) {
+            Property inner = ((ArrayProperty) property).getItems();
+            boolean wrapped = property.getXml() != null && property.getXml().getWrapped() != null && property.getXml().getWrapped();
+            if (wrapped && name != null) {
+                return false;
+            }
+            return isEmpty(name, inner, path);
+        } else if (property instanceof RefProperty) {
+            ModelImpl actualModel = resolve((RefProperty) property);
+            return actualModel == null || path.contains(actualModel.getName());
+        }
+        return name == null && getExample(property).isEmpty();
+    }
+
+    /**
+     * The output of a model only depends on its indentation and on the models of the recursion
+     * path it can reach, so that's what rendered fragments are keyed by.
+     */
+    private String fragmentKey(ModelImpl model, int indent, Collection<String> path) {
+        Set<String> reachable = reachableModels(model);
+        List<String> relevant = new ArrayList<String>();
+        for (String name : path) {
+            if (reachable.contains(name)) {
+                relevant.add(String.valueOf(name));
+            }
+        }
+        Collections.sort(relevant);
+        StringBuilder key = new StringBuilder().append(indent);
+        for (String name : relevant) {
+            key.append('|').append(name);
+        }
+        return key.toString();
+    }
+
+    private Set<String> reachableModels(ModelImpl model) {
+        return reachableModels.computeIfAbsent(model, m -> {
+            Set<String> reachable = new HashSet<String>();
+            collectReachable(m, reachable, Collections.newSetFromMap(new IdentityHashMap<ModelImpl, Boolean>()));
+            return reachable;
+        });
+    }
+
+    private void collectReachable(ModelImpl model, Set<String> names, Set<ModelImpl> visited) {
+        if (!visited.add(model)) {
+            return;
+        }
+        names.add(model.getName());
+        if (model.getProperties() != null) {
+            for (Property property : model.getProperties().values()) {
+                collectReachable(property, names, visited);
+            }
+        }
+    }
+
+    private void collectReachable(Property property, Set<String> names, Set<ModelImpl> visited) {
+        if (property instanceof ArrayProperty) {
+            collectReachable(((ArrayProperty) property).getItems(), names, visited);
+        } else if (property instanceof MapProperty) {
+            collectReachable(((MapProperty) property).getAdditionalProperties(), names, visited);
+        } else if (property instanceof RefProperty) {
+            ModelImpl actualModel = resolve((RefProperty) property);
+            if (actualModel != null) {
+                collectReachable(actualModel, names, visited);
             }
         }
-        return sb.toString();
     }
 
     /**
@@ -213,22 +376,96 @@ public class XmlExampleGenerator {
         return "";
     }
 
-    @SuppressWarnings("static-method")
-    protected String openTag(String name) {
-        return "<" + name + ">";
+    protected String indent(int indent) {
+        return indents.computeIfAbsent(indent, i -> {
+            StringBuilder sb = new StringBuilder();
+            for (int j = 0; j < i; j++) {
+                sb.append("  ");
+            }
+            return sb.toString();
+        });
     }
 
-    @SuppressWarnings("static-method")
-    protected String closeTag(String name) {
-        return "</" + name + ">";
-    }
+    /**
+     * Thin wrapper around an {@link XMLStreamWriter} writing into a string buffer, which also allows
+     * to capture and replay already rendered fragments.
+     */
+    private static class XmlWriter {
+        private final StringWriter buffer = new StringWriter();
+        private final XMLStreamWriter writer;
 
-    @SuppressWarnings("static-method")
-    protected String indent(int indent) {
-        StringBuffer sb = new StringBuffer();
-        for (int i = 0; i < indent; i++) {
-            sb.append("  ");
+        XmlWriter() {
+            try {
+                writer = OUTPUT_FACTORY.createXMLStreamWriter(buffer);
+            } catch (XMLStreamException e) {
+                throw new IllegalStateException("Could not create XML writer", e);
+            }
+        }
+
+        void startElement(String name) {
+            try {
+                writer.writeStartElement(name);
+            } catch (XMLStreamException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        void attribute(String name, String value) {
+            try {
+                writer.writeAttribute(name, value == null ? "null" : value);
+            } catch (XMLStreamException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        void characters(String text) {
+            try {
+                // also closes a pending start tag
+                writer.writeCharacters(text);
+            } catch (XMLStreamException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        void endElement() {
+            try {
+                writer.writeEndElement();
+            } catch (XMLStreamException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        /**
+         * Append an already rendered, balanced fragment.
+         */
+        void raw(String fragment) {
+            characters(EMPTY);
+            flush();
+            buffer.write(fragment);
+        }
+
+        int mark() {
+            characters(EMPTY);
+            flush();
+            return buffer.getBuffer().length();
+        }
+
+        String since(int mark) {
+            flush();
+            return buffer.getBuffer().substring(mark);
+        }
+
+        String finish() {
+            flush();
+            return buffer.toString();
+        }
+
+        private void flush() {
+            try {
+                writer.flush();
+            } catch (XMLStreamException e) {
+                throw new IllegalStateException(e);
+            }
         }
-        return sb.toString();
     }
-}
\ No newline at end of file
+}
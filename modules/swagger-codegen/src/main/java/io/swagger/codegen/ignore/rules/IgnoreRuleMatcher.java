@@ -0,0 +1,271 @@
+package io.swagger.codegen.ignore.rules;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+
+/**
+ * Evaluates a complete set of exclusion and inclusion rules at once.
+ *
+ * Rules are indexed in a trie by the literal directory prefix of their pattern, so a file is only
+ * checked against the rules which can possibly match inside its directory. The glob rules which
+ * apply to a directory are combined into a single regular expression (globs with character classes
+ * or groups keep their own {@link java.nio.file.PathMatcher}), and the outcome of
+ * {@link DirectoryRule}s, which only depends on the directory of a file, is computed once per
+ * directory. Semantics are the ones of the rule-by-rule evaluation: a file excluded through one
+ * of its parent directories can only be included again by a {@link DirectoryRule}, and evaluation
+ * of exclusions stops at a rule returning {@link Rule.Operation#EXCLUDE_AND_TERMINATE}.
+ *
+ * NOTE: Paths are relative to the ignore file. The rules use '/' as separator, the separator of
+ * the platform is replaced by it.
+ */
+public class IgnoreRuleMatcher {
+    // a file name can't contain a separator, which is all directory rules care about
+    private static final String ANY_FILE = "_";
+
+    private final Node exclusions;
+    private final Node inclusions;
+    private final ConcurrentMap<String, DirectoryDecision> directories = new ConcurrentHashMap<>();
+
+    public IgnoreRuleMatcher(List<Rule> exclusionRules, List<Rule> inclusionRules) {
+        this.exclusions = index(exclusionRules, true);
+        this.inclusions = index(inclusionRules, false);
+    }
+
+    /**
+     * @param relativePath The path of a file, relative to the ignore file.
+     * @return {@code false} if the rules exclude the file, otherwise {@code true}.
+     */
+    public boolean allows(final String relativePath) {
+        return allows(relativePath, File.separatorChar);
+    }
+
+    boolean allows(final String path, final char fileSeparator) {
+        final String relativePath = fileSeparator == '/' ? path : path.replace(fileSeparator, '/');
+        int separator = relativePath.lastIndexOf('/');
+        DirectoryDecision directory = decisionFor(separator > 0 ? relativePath.substring(0, separator) : "");
+
+        if (!directory.excludedByDirectory && !directory.exclusions.matches(relativePath)) {
+            return true;
+        }
+        if (directory.includedByDirectory) {
+            return true;
+        }
+        // Include rule can't override rules that exclude a file by some parent directory.
+        return !directory.excludedByDirectory && directory.inclusions.matches(relativePath);
+    }
+
+    private DirectoryDecision decisionFor(String directory) {
+        DirectoryDecision decision = directories.get(directory);
+        if (decision == null) {
+            decision = new DirectoryDecision(directory);
+            DirectoryDecision existing = directories.putIfAbsent(directory, decision);
+            if (existing != null) {
+                decision = existing;
+            }
+        }
+        return decision;
+    }
+
+    private static Node index(List<Rule> rules, boolean exclusions) {
+        Node root = new Node();
+        for (Rule rule : rules) {
+            if (rule instanceof InvalidRule) {
+                continue;
+            }
+            if (exclusions && rule instanceof EverythingRule) {
+                // evaluation stops here without excluding anything, later rules are never consulted
+                break;
+            }
+            root.child(literalPrefix(rule)).rules.add(rule);
+        }
+        return root;
+    }
+
+    /**
+     * The part of the pattern up to the last separator before the first glob character. Any path
+     * the rule matches starts with it.
+     */
+    private static String literalPrefix(Rule rule) {
+        if (!(rule instanceof FileRule)) {
+            return "";
+        }
+        String pattern = rule.getPattern();
+        int end = 0;
+        while (end < pattern.length() && "\\*?[{".indexOf(pattern.charAt(end)) < 0) {
+            end++;
+        }
+        return pattern.substring(0, pattern.lastIndexOf('/', end - 1) + 1);
+    }
+
+    private static class Node {
+        private final Map<String, Node> children = new HashMap<>();
+        private final List<Rule> rules = new ArrayList<>();
+
+        Node child(String prefix) {
+            Node node = this;
+            int start = 0;
+            int end;
+            while ((end = prefix.indexOf('/', start)) >= 0) {
+                String segment = prefix.substring(start, end);
+                Node next = node.children.get(segment);
+                if (next == null) {
+                    next = new Node();
+                    node.children.put(segment, next);
+                }
+                node = next;
+                start = end + 1;
+            }
+            return node;
+        }
+
+        /**
+         * Collect the rules of this node and of all nodes along the given directory.
+         */
+        List<Rule> candidates(String directory) {
+            List<Rule> result = new ArrayList<>(rules);
+            if (directory.isEmpty()) {
+                return result;
+            }
+            Node node = this;
+            int start = 0;
+            while (node != null && start <= directory.length()) {
+                int end = directory.indexOf('/', start);
+                if (end < 0) {
+                    end = directory.length();
+                }
+                node = node.children.get(directory.substring(start, end));
+                if (node != null) {
+                    result.addAll(node.rules);
+                }
+                start = end + 1;
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Everything about a set of rules which can be decided once for all files of a directory.
+     */
+    private class DirectoryDecision {
+        private boolean excludedByDirectory;
+        private boolean includedByDirectory;
+        private final FileMatcher exclusions;
+        private final FileMatcher inclusions;
+
+        DirectoryDecision(String directory) {
+            String anyFile = directory.isEmpty() ? ANY_FILE : directory + "/" + ANY_FILE;
+            this.exclusions = new FileMatcher();
+            this.inclusions = new FileMatcher();
+
+            for (Rule rule : IgnoreRuleMatcher.this.exclusions.candidates(directory)) {
+                if (rule instanceof DirectoryRule) {
+                    excludedByDirectory |= Boolean.TRUE.equals(rule.matches(anyFile));
+                } else {
+                    exclusions.add(rule);
+                }
+            }
+            for (Rule rule : IgnoreRuleMatcher.this.inclusions.candidates(directory)) {
+                if (rule instanceof DirectoryRule) {
+                    includedByDirectory |= Boolean.TRUE.equals(rule.matches(anyFile));
+                } else {
+                    inclusions.add(rule);
+                }
+            }
+            exclusions.compile();
+            inclusions.compile();
+        }
+    }
+
+    /**
+     * Matches a file name against several rules, with all glob patterns combined into one expression.
+     */
+    private static class FileMatcher {
+        private final StringBuilder combined = new StringBuilder();
+        private final List<Rule> others = new ArrayList<>();
+        private Pattern pattern;
+
+        void add(Rule rule) {
+            String regex = rule instanceof FileRule ? toRegex(rule.getPattern()) : null;
+            if (regex == null) {
+                others.add(rule);
+                return;
+            }
+            if (combined.length() > 0) {
+                combined.append('|');
+            }
+            combined.append("(?:").append(regex).append(')');
+        }
+
+        void compile() {
+            if (combined.length() > 0) {
+                pattern = Pattern.compile(combined.toString());
+            }
+        }
+
+        boolean matches(String relativePath) {
+            if (pattern != null && pattern.matcher(relativePath).matches()) {
+                return true;
+            }
+            for (Rule rule : others) {
+                if (Boolean.TRUE.equals(rule.matches(relativePath))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Translate the glob of a {@link FileRule} into a regular expression, when it only uses '*', '**', '?'
+     * and escaped characters, the syntax of the ignore files. Character classes and groups are left to the
+     * {@link java.nio.file.PathMatcher} of the rule.
+     *
+     * @return the regular expression, or null if the glob has classes or groups
+     */
+    static String toRegex(String glob) {
+        StringBuilder regex = new StringBuilder();
+        StringBuilder literal = new StringBuilder();
+        for (int i = 0; i < glob.length(); i++) {
+            char c = glob.charAt(i);
+            if (c == '[' || c == '{') {
+                return null;
+            }
+            if (c == '\\') {
+                if (++i == glob.length()) {
+                    return null;
+                }
+                literal.append(glob.charAt(i));
+                continue;
+            }
+            if (c != '*' && c != '?') {
+                literal.append(c);
+                continue;
+            }
+            if (literal.length() > 0) {
+                regex.append(Pattern.quote(literal.toString()));
+                literal.setLength(0);
+            }
+            if (c == '?') {
+                // any character of a name
+                regex.append("[^/]");
+            } else if (i + 1 < glob.length() && glob.charAt(i + 1) == '*') {
+                // any characters, across directories
+                regex.append(".*");
+                i++;
+            } else {
+                // any characters of a name
+                regex.append("[^/]*");
+            }
+        }
+        if (literal.length() > 0) {
+            regex.append(Pattern.quote(literal.toString()));
+        }
+        return regex.toString();
+    }
+}
@@ -330,6 +330,7 @@ public abstract class AbstractCSharpCodegen extends DefaultCodegen implements Co
                 .put("indented_8", new IndentedLambda(8, " "))
                 .put("indented_12", new IndentedLambda(12, " "))
                 .put("indented_16", new IndentedLambda(16, " "))
+                .put("cached", new CachedLambda())
                 .build();
 
         if (objs.containsKey("lambda")) {
@@ -839,8 +840,9 @@ public abstract class AbstractCSharpCodegen extends DefaultCodegen implements Co
     public String toModelName(String name) {
         // We need to check if import-mapping has a different model for this class, so we use it
         // instead of the auto-generated one.
-        if (importMapping.containsKey(name)) {
-            return importMapping.get(name);
+        String mapping = resolveImportMapping(name);
+        if (mapping != null) {
+            return mapping;
         }
         if (!StringUtils.isEmpty(modelNamePrefix)) {
             name = modelNamePrefix + "_" + name;
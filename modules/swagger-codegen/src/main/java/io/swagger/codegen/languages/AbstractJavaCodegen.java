@@ -738,7 +738,8 @@ public abstract class AbstractJavaCodegen extends DefaultCodegen implements Code
 
     @Override
     public String getAlias(String name) {
-        if (typeAliases != null && typeAliases.containsKey(name)) {
+        Map<String, String> typeAliases = getTypeAliases();
+        if (typeAliases.containsKey(name)) {
             return typeAliases.get(name);
         }
         return name;
@@ -468,8 +468,9 @@ public abstract class AbstractKotlinCodegen extends DefaultCodegen implements Co
         }
 
         // If importMapping contains name, assume this is a legitimate model name.
-        if (importMapping.containsKey(name)) {
-            return importMapping.get(name);
+        String mapping = resolveImportMapping(name);
+        if (mapping != null) {
+            return mapping;
         }
 
         String modifiedName = name.replaceAll("\\.", "");
@@ -0,0 +1,171 @@
+package io.swagger.codegen.languages;
+
+import io.swagger.codegen.CodegenOperation;
+import io.swagger.codegen.CodegenParameter;
+import io.swagger.models.ArrayModel;
+import io.swagger.models.Model;
+import io.swagger.models.RefModel;
+import io.swagger.models.properties.ArrayProperty;
+import org.apache.commons.lang3.StringEscapeUtils;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the requests the generated JMH benchmarks of an Armeria server send to its operations: the path and
+ * the query string with a value for every required parameter, the headers, and the JSON example of the body.
+ */
+final class ArmeriaBenchmarks {
+
+    static final String X_BENCHMARK = "x-armeria-benchmark";
+    static final String X_BENCHMARK_PATH = "x-armeria-benchmark-path";
+    static final String X_BENCHMARK_HEADERS = "x-armeria-benchmark-headers";
+    static final String X_BODY_EXAMPLE = "x-armeria-json-body-example";
+
+    private ArmeriaBenchmarks() {
+    }
+
+    /**
+     * @param schema the schema of a body parameter
+     * @return what the example generator renders the example of the body from, or null if it isn't a model nor
+     * an array
+     */
+    static Object toExampleSource(Model schema) {
+        if (schema instanceof RefModel) {
+            return ((RefModel) schema).getSimpleRef();
+        } else if (schema instanceof ArrayModel && ((ArrayModel) schema).getItems() != null) {
+            return new ArrayProperty(((ArrayModel) schema).getItems());
+        }
+        return null;
+    }
+
+    /**
+     * Put the first JSON example of the body of an operation in its {@code x-armeria-json-body-example} vendor
+     * extension, as the content of a Kotlin string literal.
+     *
+     * @param operation the operation
+     * @param examples the examples of the body, by media type
+     */
+    static void addBodyExample(CodegenOperation operation, List<Map<String, String>> examples) {
+        for (Map<String, String> example : examples) {
+            String contentType = example.get("contentType");
+            if (contentType != null && contentType.contains("json") && example.get("example") != null) {
+                operation.vendorExtensions.put(X_BODY_EXAMPLE, toLiteral(example.get("example")));
+                return;
+            }
+        }
+    }
+
+    /**
+     * Mark an operation as benchmarked with its {@code x-armeria-benchmark} vendor extension, and put the path and
+     * the query string of its request in {@code x-armeria-benchmark-path}, and the {@code name} and {@code value}
+     * of its headers in {@code x-armeria-benchmark-headers}, if a request can be built and its stub answers it:
+     * every required parameter has a value, a body is a JSON one, there are no form parameters, and the response
+     * has a JSON example or no body.
+     *
+     * @param operation the operation
+     */
+    static void addTo(CodegenOperation operation) {
+        if (operation.returnType != null && !operation.vendorExtensions.containsKey("x-armeria-json-example")) {
+            return;
+        }
+        String path = operation.path;
+        List<String> query = new ArrayList<String>();
+        List<Map<String, String>> headers = new ArrayList<Map<String, String>>();
+        for (CodegenParameter parameter : operation.allParams) {
+            if (parameter.isBodyParam) {
+                if (!operation.vendorExtensions.containsKey(X_BODY_EXAMPLE) || !consumesJson(operation)) {
+                    if (parameter.required) {
+                        return;
+                    }
+                    operation.vendorExtensions.remove(X_BODY_EXAMPLE);
+                }
+                continue;
+            }
+            // the optional parameters are left to their default value
+            String value = parameter.required ? toValue(parameter) : null;
+            if (parameter.isFormParam) {
+                return;
+            } else if (value == null || parameter.isCookieParam) {
+                if (parameter.required) {
+                    return;
+                }
+            } else if (parameter.isPathParam) {
+                path = path.replace("{" + parameter.baseName + "}", encode(value));
+            } else if (parameter.isQueryParam) {
+                query.add(encode(parameter.baseName) + "=" + encode(value));
+            } else if (parameter.isHeaderParam) {
+                Map<String, String> header = new LinkedHashMap<String, String>();
+                header.put("name", toLiteral(parameter.baseName));
+                header.put("value", toLiteral(value));
+                headers.add(header);
+            }
+        }
+        for (String parameter : query) {
+            path += (path.contains("?") ? "&" : "?") + parameter;
+        }
+
+        operation.vendorExtensions.put(X_BENCHMARK, Boolean.TRUE);
+        operation.vendorExtensions.put(X_BENCHMARK_PATH, toLiteral(path));
+        operation.vendorExtensions.put(X_BENCHMARK_HEADERS, headers);
+    }
+
+    /**
+     * @return the example of a parameter, else the first of its allowed values, else a value of its type, or null
+     * if none is known
+     */
+    private static String toValue(CodegenParameter parameter) {
+        if (parameter.example != null) {
+            return parameter.example;
+        }
+        Map<String, Object> allowableValues = parameter.allowableValues;
+        if (allowableValues == null && parameter.items != null) {
+            allowableValues = parameter.items.allowableValues;
+        }
+        if (allowableValues != null && allowableValues.get("values") instanceof List
+                && !((List<?>) allowableValues.get("values")).isEmpty()) {
+            return String.valueOf(((List<?>) allowableValues.get("values")).get(0));
+        }
+
+        // the arrays have a single element
+        String dataType = parameter.isListContainer && parameter.items != null ? parameter.items.datatype : parameter.dataType;
+        if ("kotlin.String".equals(dataType)) {
+            return "value";
+        } else if ("kotlin.Int".equals(dataType) || "kotlin.Long".equals(dataType) || "java.math.BigDecimal".equals(dataType)) {
+            return "1";
+        } else if ("kotlin.Float".equals(dataType) || "kotlin.Double".equals(dataType)) {
+            return "1.0";
+        } else if ("kotlin.Boolean".equals(dataType)) {
+            return "true";
+        }
+        return null;
+    }
+
+    private static boolean consumesJson(CodegenOperation operation) {
+        if (operation.consumes == null || operation.consumes.isEmpty()) {
+            return true;
+        }
+        for (Map<String, String> mediaType : operation.consumes) {
+            if (mediaType.get("mediaType") != null && mediaType.get("mediaType").contains("json")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String encode(String value) {
+        try {
+            return URLEncoder.encode(value, "UTF-8").replace("+", "%20");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toLiteral(String value) {
+        return StringEscapeUtils.escapeJava(value).replace("$", "\\$");
+    }
+}
@@ -0,0 +1,53 @@
+package io.swagger.codegen.languages;
+
+import io.swagger.codegen.CodegenOperation;
+import io.swagger.models.Tag;
+
+import java.util.Set;
+
+/**
+ * Decides which operations of an Armeria API run on the blocking task executor instead of the event loop.
+ */
+final class ArmeriaBlocking {
+
+    static final String X_BLOCKING = "x-blocking";
+
+    private ArmeriaBlocking() {
+    }
+
+    /**
+     * Check whether an operation is blocking: its {@code x-blocking} vendor extension wins over
+     * the {@code x-blocking} vendor extension of its tags and the blocking tags, which win over the default.
+     *
+     * @param operation the operation
+     * @param blockingTags the names of the tags whose operations are blocking
+     * @param blockingByDefault whether operations are blocking when nothing else says so
+     * @return true if the operation must not run on the event loop
+     */
+    static boolean isBlocking(CodegenOperation operation, Set<String> blockingTags, boolean blockingByDefault) {
+        Boolean blocking = toBoolean(operation.vendorExtensions.get(X_BLOCKING));
+        if (blocking != null) {
+            return blocking;
+        }
+
+        if (operation.tags != null) {
+            for (Tag tag : operation.tags) {
+                Boolean tagBlocking = tag.getVendorExtensions() != null ? toBoolean(tag.getVendorExtensions().get(X_BLOCKING)) : null;
+                if (Boolean.TRUE.equals(tagBlocking) || (tagBlocking == null && blockingTags.contains(tag.getName()))) {
+                    return true;
+                }
+                if (tagBlocking != null) {
+                    blocking = tagBlocking;
+                }
+            }
+        }
+        return blocking != null ? blocking : blockingByDefault;
+    }
+
+    static Boolean toBoolean(Object value) {
+        if (value == null) {
+            return null;
+        }
+        return value instanceof Boolean ? (Boolean) value : Boolean.valueOf(value.toString());
+    }
+}
@@ -0,0 +1,98 @@
+package io.swagger.codegen.languages;
+
+import io.swagger.codegen.CodegenOperation;
+import io.swagger.codegen.CodegenParameter;
+import org.apache.commons.lang3.StringEscapeUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Collects the JSON types read and written by the operations of an Armeria API, so its generated
+ * converters can build their {@code ObjectReader}s and {@code ObjectWriter}s once, when they are loaded.
+ */
+final class ArmeriaJsonTypes {
+
+    private ArmeriaJsonTypes() {
+    }
+
+    /**
+     * Add the JSON types of the operations to the template context of their API:
+     * {@code jsonBodyTypes} (the complete types of the body parameters), {@code jsonTypes} (the returned
+     * types), {@code jsonListConverters} and {@code jsonMapConverters} (the {@code type} of the elements of
+     * the returned lists and maps, and the name of the {@code converter} writing them as their declared type).
+     * The JSON example of every returned value, if any, is put in its operation's
+     * {@code x-armeria-json-example} vendor extension as the content of a string literal (the whole array of a
+     * streamed response), and the name of the converter of a returned list or map, unless it is streamed, in
+     * {@code x-armeria-json-converter}.
+     *
+     * @param objs the template context of the API
+     * @param ops the operations of the API
+     * @param kotlin whether the string literals are Kotlin ones, where {@code $} is escaped
+     * @param responses whether the converters write the responses, otherwise only the body types are collected
+     */
+    static void addTo(Map<String, Object> objs, List<CodegenOperation> ops, boolean kotlin, boolean responses) {
+        Set<String> bodyTypes = new LinkedHashSet<String>();
+        Set<String> types = new LinkedHashSet<String>();
+        Map<String, String> listConverters = new LinkedHashMap<String, String>();
+        Map<String, String> mapConverters = new LinkedHashMap<String, String>();
+
+        for (CodegenOperation operation : ops) {
+            for (CodegenParameter parameter : operation.bodyParams) {
+                if (!parameter.isPrimitiveType && !parameter.isBinary && !parameter.isFile) {
+                    bodyTypes.add(parameter.dataType);
+                }
+            }
+
+            String baseType = operation.returnBaseType;
+            if (!responses || baseType == null || baseType.contains("<") || operation.isResponseBinary || operation.isResponseFile) {
+                continue;
+            }
+            // the streamed responses aren't written by the converters
+            boolean streaming = operation.vendorExtensions.containsKey("x-armeria-streaming");
+            // the writer of a container is picked by its declared type, the elements may be subclasses
+            String simpleName = baseType.substring(baseType.lastIndexOf('.') + 1);
+            if (operation.isMapContainer && !streaming) {
+                mapConverters.put(baseType, simpleName + "MapConverter");
+                operation.vendorExtensions.put("x-armeria-json-converter", mapConverters.get(baseType));
+            } else if (operation.isListContainer && !streaming) {
+                listConverters.put(baseType, simpleName + "ListConverter");
+                operation.vendorExtensions.put("x-armeria-json-converter", listConverters.get(baseType));
+            } else if (!operation.isMapContainer && !operation.isListContainer) {
+                types.add(baseType);
+            }
+
+            if (!operation.returnTypeIsPrimitive && operation.examples != null) {
+                for (Map<String, String> example : operation.examples) {
+                    String contentType = example.get("contentType");
+                    if (contentType != null && contentType.contains("json")) {
+                        String literal = StringEscapeUtils.escapeJava(example.get("example"));
+                        operation.vendorExtensions.put("x-armeria-json-example", kotlin ? literal.replace("$", "\\$") : literal);
+                        break;
+                    }
+                }
+            }
+        }
+
+        objs.put("jsonBodyTypes", new ArrayList<String>(bodyTypes));
+        objs.put("jsonTypes", new ArrayList<String>(types));
+        objs.put("jsonListConverters", toTemplateList(listConverters));
+        objs.put("jsonMapConverters", toTemplateList(mapConverters));
+    }
+
+    private static List<Map<String, String>> toTemplateList(Map<String, String> converters) {
+        List<Map<String, String>> list = new ArrayList<Map<String, String>>();
+        for (Map.Entry<String, String> entry : converters.entrySet()) {
+            Map<String, String> converter = new HashMap<String, String>();
+            converter.put("type", entry.getKey());
+            converter.put("converter", entry.getValue());
+            list.add(converter);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,37 @@
+package io.swagger.codegen.languages;
+
+import io.swagger.codegen.CliOption;
+
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Checks the values of the options of the Armeria generators against the values they declare.
+ */
+final class ArmeriaOptions {
+
+    private ArmeriaOptions() {
+    }
+
+    /**
+     * Check that a value is one of the declared values of an option.
+     *
+     * @param cliOptions the options of the generator
+     * @param option the name of the option
+     * @param value the value, null when the option isn't set
+     * @return the value
+     * @throws IllegalArgumentException if the option declares its values and the value isn't one of them
+     */
+    static String checkEnum(List<CliOption> cliOptions, String option, String value) {
+        if (value == null) {
+            return null;
+        }
+        for (CliOption cliOption : cliOptions) {
+            if (option.equals(cliOption.getOpt()) && cliOption.getEnum() != null && !cliOption.getEnum().containsKey(value)) {
+                throw new IllegalArgumentException("The " + option + " option must be one of "
+                        + new TreeSet<String>(cliOption.getEnum().keySet()) + ", not '" + value + "'");
+            }
+        }
+        return value;
+    }
+}
@@ -0,0 +1,441 @@
+package io.swagger.codegen.languages;
+
+import io.swagger.codegen.CodegenModel;
+import io.swagger.codegen.CodegenOperation;
+import io.swagger.codegen.CodegenParameter;
+import io.swagger.codegen.CodegenProperty;
+import io.swagger.codegen.DefaultCodegen;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Derives the protobuf messages of the models of an Armeria API, and the code converting the models to and from
+ * the classes protoc generates for them, so the operations can exchange {@code application/x-protobuf} bodies
+ * next to their JSON ones.
+ *
+ * The number of a field is the one of the {@code x-proto-field} vendor extension of its property, else the one
+ * persisted in the numbering file of a previous generation, else the first free one. The numbers persisted for
+ * properties which no longer exist are reserved. The numbers must be ones protobuf allows, and those of the
+ * {@code x-proto-field} extensions of a model distinct.
+ */
+final class ArmeriaProtobuf {
+
+    static final String MEDIA_TYPE = "application/x-protobuf";
+
+    static final String X_PROTO_FIELD = "x-proto-field";
+    static final String X_FIELDS = "x-armeria-proto-fields";
+    static final String X_RESERVED = "x-armeria-proto-reserved";
+    static final String X_NUMBERS = "x-armeria-proto-numbers";
+    static final String X_TO = "x-armeria-proto-to";
+    static final String X_FROM = "x-armeria-proto-from";
+    static final String X_BODY_READER = "x-armeria-proto-body-reader";
+    static final String X_RESPONSE_READER = "x-armeria-proto-response-reader";
+
+    private static final int MAX_FIELD_NUMBER = 536870911;
+    // reserved by protobuf itself
+    private static final int FIRST_RESERVED_NUMBER = 19000;
+    private static final int LAST_RESERVED_NUMBER = 19999;
+
+    private static final String TYPE_REFERENCE = "com.fasterxml.jackson.core.type.TypeReference";
+
+    private static final Map<String, String> JAVA_SCALARS = new HashMap<String, String>();
+    private static final Map<String, String> KOTLIN_SCALARS = new HashMap<String, String>();
+
+    static {
+        JAVA_SCALARS.put("String", "string");
+        JAVA_SCALARS.put("Integer", "int32");
+        JAVA_SCALARS.put("Long", "int64");
+        JAVA_SCALARS.put("Float", "float");
+        JAVA_SCALARS.put("Double", "double");
+        JAVA_SCALARS.put("Boolean", "bool");
+        JAVA_SCALARS.put("byte[]", "bytes");
+        KOTLIN_SCALARS.put("kotlin.String", "string");
+        KOTLIN_SCALARS.put("kotlin.Int", "int32");
+        KOTLIN_SCALARS.put("kotlin.Long", "int64");
+        KOTLIN_SCALARS.put("kotlin.Float", "float");
+        KOTLIN_SCALARS.put("kotlin.Double", "double");
+        KOTLIN_SCALARS.put("kotlin.Boolean", "bool");
+        KOTLIN_SCALARS.put("kotlin.ByteArray", "bytes");
+    }
+
+    private final Properties fieldNumbers = new Properties();
+    private final Set<String> externalTypes;
+    private final String protoPackage;
+    private final boolean kotlin;
+
+    /**
+     * @param fieldNumbersFile the numbering file of a previous generation, or null
+     * @param externalTypes the types which aren't models: the primitives and the imported types of the language
+     * @param modelPackage the package of the models, whose {@code proto} subpackage has the protobuf messages
+     * @param kotlin whether the conversions are Kotlin code
+     */
+    ArmeriaProtobuf(String fieldNumbersFile, Set<String> externalTypes, String modelPackage, boolean kotlin) {
+        this.externalTypes = externalTypes;
+        this.protoPackage = modelPackage + ".proto";
+        this.kotlin = kotlin;
+        if (fieldNumbersFile != null && !fieldNumbersFile.isEmpty()) {
+            InputStream in = null;
+            try {
+                in = new FileInputStream(fieldNumbersFile);
+                fieldNumbers.load(in);
+            } catch (IOException e) {
+                throw new RuntimeException("Unable to read the protobuf field numbers from " + fieldNumbersFile, e);
+            } finally {
+                if (in != null) {
+                    try {
+                        in.close();
+                    } catch (IOException ignored) {
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Put the declarations of the fields of the message of a model in its {@code x-armeria-proto-fields} vendor
+     * extension, its reserved numbers in {@code x-armeria-proto-reserved} and the lines of the numbering file in
+     * {@code x-armeria-proto-numbers}, and the statement writing every property to the builder of the message, and
+     * the expression reading it from the message, in its {@code x-armeria-proto-to} and {@code x-armeria-proto-from}
+     * vendor extensions.
+     *
+     * @param model the model
+     */
+    void addTo(CodegenModel model) {
+        List<String> fields = new ArrayList<String>();
+        List<String> numbering = new ArrayList<String>();
+        if (Boolean.TRUE.equals(model.isEnum)) {
+            fields.add("string value = 1;");
+            model.vendorExtensions.put(X_FIELDS, fields);
+            return;
+        }
+
+        // the Java models read and write the properties of their parents with their accessors
+        List<CodegenProperty> properties = kotlin || model.allVars == null ? model.vars : model.allVars;
+        Integer[] numbers = new Integer[properties.size()];
+        Set<Integer> used = new HashSet<Integer>();
+        for (int i = 0; i < numbers.length; i++) {
+            Object number = properties.get(i).vendorExtensions.get(X_PROTO_FIELD);
+            if (number != null) {
+                String source = "The " + X_PROTO_FIELD + " of the property " + properties.get(i).baseName + " of the model " + model.name;
+                numbers[i] = toFieldNumber(source, number);
+                if (!used.add(numbers[i])) {
+                    throw new IllegalArgumentException(source + " is " + number + ", the number of another property");
+                }
+            }
+        }
+        Set<String> names = new HashSet<String>();
+        for (int i = 0; i < numbers.length; i++) {
+            names.add(properties.get(i).baseName);
+            String key = model.name + "." + properties.get(i).baseName;
+            String number = fieldNumbers.getProperty(key);
+            if (numbers[i] == null && number != null) {
+                // the number is given again if an x-proto-field took it
+                Integer persisted = toFieldNumber("The persisted field number " + key, number);
+                if (used.add(persisted)) {
+                    numbers[i] = persisted;
+                }
+            }
+        }
+        Set<Integer> reserved = new TreeSet<Integer>();
+        for (String key : new TreeSet<String>(fieldNumbers.stringPropertyNames())) {
+            if (key.startsWith(model.name + ".") && !names.contains(key.substring(model.name.length() + 1))) {
+                Integer number = toFieldNumber("The persisted field number " + key, fieldNumbers.getProperty(key));
+                if (used.add(number)) {
+                    reserved.add(number);
+                    numbering.add(key + "=" + number);
+                }
+            }
+        }
+        int next = 1;
+        for (int i = 0; i < numbers.length; i++) {
+            if (numbers[i] == null) {
+                while (used.contains(next) || (next >= FIRST_RESERVED_NUMBER && next <= LAST_RESERVED_NUMBER)) {
+                    next++;
+                }
+                numbers[i] = next;
+                used.add(next);
+            }
+        }
+
+        for (int i = 0; i < numbers.length; i++) {
+            CodegenProperty property = properties.get(i);
+            addTo(model, property, numbers[i], fields);
+            numbering.add(model.name + "." + property.baseName + "=" + numbers[i]);
+        }
+        if (!reserved.isEmpty()) {
+            StringBuilder declaration = new StringBuilder("reserved ");
+            for (Integer number : reserved) {
+                declaration.append(number).append(", ");
+            }
+            model.vendorExtensions.put(X_RESERVED, declaration.substring(0, declaration.length() - 2) + ";");
+        }
+        model.vendorExtensions.put(X_FIELDS, fields);
+        model.vendorExtensions.put(X_NUMBERS, numbering);
+    }
+
+    /**
+     * @param source what the value is, for the message of the exception
+     * @param value the value
+     * @return the field number of the value
+     * @throws IllegalArgumentException if the value isn't an integer which protobuf allows as a field number
+     */
+    private static int toFieldNumber(String source, Object value) {
+        int number;
+        try {
+            number = Integer.parseInt(value.toString().trim());
+        } catch (NumberFormatException e) {
+            number = 0;
+        }
+        if (number < 1 || number > MAX_FIELD_NUMBER || (number >= FIRST_RESERVED_NUMBER && number <= LAST_RESERVED_NUMBER)) {
+            throw new IllegalArgumentException(source + " must be an integer from 1 to " + MAX_FIELD_NUMBER + ", outside of "
+                    + FIRST_RESERVED_NUMBER + " to " + LAST_RESERVED_NUMBER + ", not '" + value + "'");
+        }
+        return number;
+    }
+
+    private void addTo(CodegenModel model, CodegenProperty property, int number, List<String> fields) {
+        String field = DefaultCodegen.underscore(property.name);
+        String accessor = toAccessor(field);
+        // the value of the property, and whether it may be null
+        String value = kotlin ? property.name : "model." + (property.isBoolean ? "is" : "") + property.getter + "()";
+        boolean nullable = !kotlin || !property.required;
+
+        Element element = property.isContainer ? toElement(model, property.items, true) : toElement(model, property, false);
+        if (property.isContainer && property.items != null && property.items.isContainer) {
+            element = null;
+        }
+        String to;
+        String from;
+        if (element == null) {
+            // the JSON encoding of the values protobuf has no type for
+            fields.add("optional bytes " + field + " = " + number + "; // JSON");
+            to = set(value, nullable, "builder.set" + accessor + "(Protobuf.writeJson(%s))");
+            String read = kotlin ? "Protobuf.readJson(message.get" + accessor + "(), object : " + TYPE_REFERENCE + "<" + property.datatype + ">() {})"
+                                 : "Protobuf.readJson(message.get" + accessor + "(), new " + TYPE_REFERENCE + "<" + property.datatypeWithEnum + ">() {})";
+            from = nullable ? present(accessor, read) : read;
+        } else if (property.isListContainer) {
+            fields.add("repeated " + element.type + " " + field + " = " + number + ";");
+            to = kotlin ? value + (nullable ? "?" : "") + ".forEach { builder.add" + accessor + "(" + element.to("it") + ") }"
+                        : "if (" + value + " != null) { " + value + ".forEach(e -> builder.add" + accessor + "(" + element.to("e") + ")); }";
+            if (kotlin) {
+                String list = "message.get" + accessor + "List()" + (element.isIdentity() ? "" : ".map { " + element.from("it") + " }");
+                from = property.datatype.startsWith("kotlin.Array") ? list + ".toTypedArray()"
+                        : property.datatype.startsWith("kotlin.collections.Set") ? list + ".toSet()" : list + (element.isIdentity() ? ".toList()" : "");
+            } else {
+                from = "message.get" + accessor + "List().stream().map(e -> " + element.from("e") + ").collect(java.util.stream.Collectors.toList())";
+            }
+        } else if (property.isMapContainer) {
+            fields.add("map<string, " + element.type + "> " + field + " = " + number + ";");
+            to = kotlin ? value + (nullable ? "?" : "") + ".forEach { (k, v) -> builder.put" + accessor + "(k, " + element.to("v") + ") }"
+                        : "if (" + value + " != null) { " + value + ".forEach((k, v) -> builder.put" + accessor + "(k, " + element.to("v") + ")); }";
+            from = kotlin ? "message.get" + accessor + "Map().mapValues { " + element.from("it.value") + " }"
+                          : "message.get" + accessor + "Map().entrySet().stream().collect(java.util.stream.Collectors.toMap(java.util.Map.Entry::getKey, e -> "
+                            + element.from("e.getValue()") + "))";
+        } else {
+            // the scalars are optional, so a missing value isn't read as the default one
+            fields.add((element.message ? "" : "optional ") + element.type + " " + field + " = " + number + ";");
+            to = set(value, nullable, "builder.set" + accessor + "(" + element.to("%s") + ")");
+            String read = element.from("message.get" + accessor + "()");
+            from = nullable ? present(accessor, read) : read;
+        }
+        property.vendorExtensions.put(X_TO, to);
+        property.vendorExtensions.put(X_FROM, from);
+    }
+
+    private String set(String value, boolean nullable, String statement) {
+        if (kotlin) {
+            return nullable ? value + "?.let { " + statement.replace("%s", "it") + " }" : statement.replace("%s", value);
+        }
+        return "if (" + value + " != null) { " + statement.replace("%s", value) + "; }";
+    }
+
+    private String present(String accessor, String read) {
+        return kotlin ? "if (message.has" + accessor + "()) " + read + " else null"
+                      : "message.has" + accessor + "() ? " + read + " : null";
+    }
+
+    /**
+     * @return how a property, or the items of a container, are converted, or null if protobuf has no type for them
+     */
+    private Element toElement(CodegenModel model, CodegenProperty property, boolean items) {
+        if (property == null || property.isContainer) {
+            return null;
+        }
+        if (property.isEnum && !(kotlin && items)) {
+            // the Kotlin containers of inline enums hold their values
+            String type = kotlin ? model.classname + "." + property.nameInCamelCase : property.datatypeWithEnum;
+            // the values of the enums, like in JSON, so the messages of the Java and Kotlin models are the same
+            return kotlin ? new Element("string", "%s.value.toString()", type + ".values().first { e -> e.value.toString() == %s }", false)
+                          : new Element("string", "%s.toString()", type + ".fromValue(%s)", false);
+        }
+        String scalar = (kotlin ? KOTLIN_SCALARS : JAVA_SCALARS).get(property.datatype);
+        if ("bytes".equals(scalar)) {
+            return new Element(scalar, "com.google.protobuf.ByteString.copyFrom(%s)", "%s.toByteArray()", false);
+        } else if (scalar != null) {
+            return new Element(scalar, "%s", "%s", false);
+        }
+        if (isModel(property.complexType, property.isPrimitiveType)) {
+            // the Java conversions are static, a model may extend another one whose message is unrelated to its own
+            return new Element(property.complexType, kotlin ? "%s.toProto()" : property.complexType + ".toProto(%s)",
+                               property.complexType + ".fromProto(%s)", true);
+        }
+        return null;
+    }
+
+    /**
+     * Set how the body of an operation is read from a protobuf message in the {@code x-armeria-proto-body-reader}
+     * vendor extension of the operation and of its body parameter, and how its response is in
+     * {@code x-armeria-proto-response-reader}, as functions of the bytes of the message. The reader of the body is
+     * also added to the {@code protobufBodyTypes} of the API.
+     *
+     * @param operation the operation
+     * @param bodyTypes the types of the bodies of the API and their readers
+     * @param negotiate whether the operation consumes protobuf bodies next to its JSON ones
+     * @param respond whether the operation produces protobuf responses next to its JSON ones
+     */
+    void addTo(CodegenOperation operation, Map<String, String> bodyTypes, boolean negotiate, boolean respond) {
+        CodegenParameter body = operation.bodyParam;
+        if (body != null && !body.isBinary && !body.isFile) {
+            String reader = null;
+            if (!body.isContainer && isModel(body.baseType, body.isPrimitiveType)) {
+                reader = toReader(body.baseType, false, null);
+            } else if (body.isListContainer && body.items != null && !body.items.isContainer
+                    && isModel(body.items.complexType, body.items.isPrimitiveType)) {
+                reader = toReader(body.items.complexType, true, body.dataType);
+            }
+            if (reader != null) {
+                operation.vendorExtensions.put(X_BODY_READER, reader);
+                body.vendorExtensions.put(X_BODY_READER, reader);
+                bodyTypes.put(body.dataType, reader);
+                if (negotiate) {
+                    addMediaType(operation.consumes);
+                }
+            }
+        }
+
+        String baseType = operation.returnBaseType;
+        if (baseType != null && !operation.returnTypeIsPrimitive && !baseType.contains("<") && !operation.isMapContainer
+                && !operation.isResponseBinary && !operation.isResponseFile
+                && !operation.vendorExtensions.containsKey("x-armeria-streaming") && isModel(baseType, false)) {
+            operation.vendorExtensions.put(X_RESPONSE_READER, toReader(baseType, operation.isListContainer, operation.returnType));
+            if (negotiate && respond) {
+                addMediaType(operation.produces);
+            }
+        }
+    }
+
+    /**
+     * @param bodyTypes the types of the bodies of an API and their readers
+     * @return the {@code protobufBodyTypes} of the template context of the API, with their {@code type} and {@code reader}
+     */
+    static List<Map<String, String>> toTemplateList(Map<String, String> bodyTypes) {
+        List<Map<String, String>> list = new ArrayList<Map<String, String>>();
+        for (Map.Entry<String, String> bodyType : bodyTypes.entrySet()) {
+            Map<String, String> item = new HashMap<String, String>();
+            item.put("type", bodyType.getKey());
+            item.put("reader", bodyType.getValue());
+            list.add(item);
+        }
+        return list;
+    }
+
+    private boolean isModel(String type, boolean isPrimitiveType) {
+        return type != null && !isPrimitiveType && !type.contains("<") && !type.contains(".")
+                && !externalTypes.contains(type) && !(kotlin ? KOTLIN_SCALARS : JAVA_SCALARS).containsKey(type);
+    }
+
+    /**
+     * @return a Java or Kotlin function reading a model, or a list of them, from the bytes of their message
+     */
+    private String toReader(String type, boolean list, String dataType) {
+        String message = protoPackage + "." + type;
+        if (kotlin) {
+            if (!list) {
+                return "{ " + type + ".fromProto(" + message + ".parseFrom(it)) }";
+            }
+            return "{ " + message + ".List.parseFrom(it).getItemsList().map { " + type + ".fromProto(it) }"
+                    + (dataType != null && dataType.startsWith("kotlin.Array") ? ".toTypedArray()" : "") + " }";
+        }
+        if (!list) {
+            return "bytes -> " + type + ".fromProto(" + message + ".parseFrom(bytes))";
+        }
+        return "bytes -> " + message + ".List.parseFrom(bytes).getItemsList().stream().map(" + type
+                + "::fromProto).collect(java.util.stream.Collectors.toList())";
+    }
+
+    private static void addMediaType(List<Map<String, String>> mediaTypes) {
+        if (mediaTypes == null || mediaTypes.isEmpty()) {
+            return;
+        }
+        boolean json = false;
+        for (Map<String, String> mediaType : mediaTypes) {
+            json |= mediaType.get("mediaType") != null && mediaType.get("mediaType").contains("json");
+            if (MEDIA_TYPE.equals(mediaType.get("mediaType"))) {
+                return;
+            }
+        }
+        if (json) {
+            mediaTypes.get(mediaTypes.size() - 1).put("hasMore", "true");
+            Map<String, String> protobuf = new LinkedHashMap<String, String>();
+            protobuf.put("mediaType", MEDIA_TYPE);
+            mediaTypes.add(protobuf);
+        }
+    }
+
+    /**
+     * Get the name of the accessors protoc generates for a field, e.g. {@code PhotoUrls} for {@code photo_urls}.
+     */
+    static String toAccessor(String field) {
+        StringBuilder accessor = new StringBuilder();
+        boolean capitalizeNext = true;
+        for (char c : field.toCharArray()) {
+            if (c == '_') {
+                capitalizeNext = true;
+            } else if (Character.isDigit(c)) {
+                accessor.append(c);
+                capitalizeNext = true;
+            } else {
+                accessor.append(capitalizeNext ? Character.toUpperCase(c) : c);
+                capitalizeNext = false;
+            }
+        }
+        return accessor.toString();
+    }
+
+    private static final class Element {
+        final String type;
+        final String to;
+        final String from;
+        final boolean message;
+
+        Element(String type, String to, String from, boolean message) {
+            this.type = type;
+            this.to = to;
+            this.from = from;
+            this.message = message;
+        }
+
+        String to(String value) {
+            return to.replace("%s", value);
+        }
+
+        String from(String value) {
+            return from.replace("%s", value);
+        }
+
+        boolean isIdentity() {
+            return "%s".equals(from);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package io.swagger.codegen.languages;
+
+import io.swagger.codegen.CodegenOperation;
+import io.swagger.models.Operation;
+import io.swagger.models.Path;
+import io.swagger.models.Response;
+import io.swagger.models.Swagger;
+import io.swagger.models.properties.ArrayProperty;
+
+/**
+ * Decides which array responses of an Armeria API are streamed element by element instead of being
+ * materialized and serialized as a whole.
+ */
+final class ArmeriaStreaming {
+
+    static final String X_STREAMING = "x-streaming";
+
+    private ArmeriaStreaming() {
+    }
+
+    /**
+     * Check whether an operation streams its response: it must return an array, and its {@code x-streaming}
+     * vendor extension wins over the default.
+     *
+     * @param operation the operation
+     * @param streamingByDefault whether array responses are streamed when nothing else says so
+     * @return true if the elements of the response are written one at a time
+     */
+    static boolean isStreaming(CodegenOperation operation, boolean streamingByDefault) {
+        if (!operation.isListContainer || operation.returnBaseType == null) {
+            return false;
+        }
+        Boolean streaming = ArmeriaBlocking.toBoolean(operation.vendorExtensions.get(X_STREAMING));
+        return streaming != null ? streaming : streamingByDefault;
+    }
+
+    /**
+     * Check, before the operations are processed, whether the spec may have streaming operations,
+     * so the supporting files they need are generated.
+     *
+     * @param swagger the spec
+     * @param streamingByDefault whether array responses are streamed when nothing else says so
+     * @return false if no operation can stream its response
+     */
+    static boolean hasStreamingOperations(Swagger swagger, boolean streamingByDefault) {
+        if (swagger == null || swagger.getPaths() == null) {
+            return false;
+        }
+        for (Path path : swagger.getPaths().values()) {
+            for (Operation operation : path.getOperations()) {
+                Boolean streaming = ArmeriaBlocking.toBoolean(operation.getVendorExtensions().get(X_STREAMING));
+                if (Boolean.TRUE.equals(streaming) || (streaming == null && streamingByDefault && hasArrayResponse(operation))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasArrayResponse(Operation operation) {
+        if (operation.getResponses() != null) {
+            for (Response response : operation.getResponses().values()) {
+                if (response.getSchema() instanceof ArrayProperty) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
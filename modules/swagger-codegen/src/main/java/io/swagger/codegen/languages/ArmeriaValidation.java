@@ -0,0 +1,250 @@
+package io.swagger.codegen.languages;
+
+import io.swagger.codegen.CodegenModel;
+import io.swagger.codegen.CodegenParameter;
+import io.swagger.codegen.CodegenProperty;
+import io.swagger.codegen.DefaultCodegen;
+import io.swagger.models.parameters.AbstractSerializableParameter;
+import io.swagger.models.parameters.Parameter;
+import io.swagger.models.properties.AbstractNumericProperty;
+import io.swagger.models.properties.BaseIntegerProperty;
+import io.swagger.models.properties.Property;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Turns the constraints of the model properties and of the parameters of an Armeria API into calls to the
+ * generated {@code Validation} class, so they are checked by plain code instead of a reflective validator.
+ */
+final class ArmeriaValidation {
+
+    static final String X_CHECKS = "x-armeria-checks";
+    static final String X_CHECK_PREFIX = "x-armeria-check-prefix";
+    static final String X_CHECK_SUFFIX = "x-armeria-check-suffix";
+    static final String X_PATTERN = "x-armeria-pattern";
+    static final String X_PATTERN_CONSTANT = "x-armeria-pattern-constant";
+
+    private ArmeriaValidation() {
+    }
+
+    /**
+     * Put the checks of every property of a model in its {@code x-armeria-checks} vendor extension, as statements
+     * without their terminating semicolon, and the pattern it must match, if any, in its {@code x-armeria-pattern}
+     * vendor extension with the name of the constant compiling it in {@code x-armeria-pattern-constant}.
+     *
+     * @param model the model
+     * @param kotlin whether the checks are Kotlin code
+     */
+    static void addTo(CodegenModel model, boolean kotlin) {
+        for (CodegenProperty property : model.vars) {
+            Constraints constraints = new Constraints();
+            // the nullability of the Kotlin properties is already checked by Jackson
+            constraints.required = property.required && !kotlin;
+            constraints.isString = property.isString;
+            constraints.isInteger = property.isInteger || property.isLong;
+            constraints.isDecimal = property.isNumber || property.isFloat || property.isDouble;
+            constraints.isListContainer = property.isListContainer;
+            constraints.minLength = property.minLength;
+            constraints.maxLength = property.maxLength;
+            constraints.pattern = property.pattern;
+            constraints.minimum = property.minimum;
+            constraints.exclusiveMinimum = property.exclusiveMinimum;
+            constraints.maximum = property.maximum;
+            constraints.exclusiveMaximum = property.exclusiveMaximum;
+            constraints.minItems = property.minItems;
+            constraints.maxItems = property.maxItems;
+            CodegenProperty type = property.isContainer ? property.items : property;
+            constraints.nested = type != null && !type.isPrimitiveType && !type.isEnum && type.complexType != null;
+
+            List<String[]> checks = constraints.toChecks(property.baseName, patternConstant(property.baseName), kotlin);
+            List<String> statements = new ArrayList<String>();
+            for (String[] check : checks) {
+                statements.add("Validation." + check[0] + "(" + (kotlin ? property.name : "this." + property.baseName) + check[1] + ")");
+            }
+            if (!statements.isEmpty()) {
+                property.vendorExtensions.put(X_CHECKS, statements);
+            }
+            if (constraints.hasPattern()) {
+                property.vendorExtensions.put(X_PATTERN, toPatternLiteral(property.pattern, kotlin));
+                property.vendorExtensions.put(X_PATTERN_CONSTANT, patternConstant(property.baseName));
+            }
+        }
+    }
+
+    /**
+     * Put the checks of a parameter, which are nested calls returning the checked value, in its
+     * {@code x-armeria-check-prefix} and {@code x-armeria-check-suffix} vendor extensions, to wrap the expression
+     * of its converted value with. The body parameters are validated with their models.
+     *
+     * @param operationId the ID of the operation of the parameter
+     * @param parameter the parameter
+     * @param kotlin whether the checks are Kotlin code
+     */
+    static void addTo(String operationId, CodegenParameter parameter, boolean kotlin) {
+        if (parameter.isBodyParam || parameter.isFile) {
+            return;
+        }
+        Constraints constraints = new Constraints();
+        CodegenProperty items = parameter.items;
+        constraints.isString = parameter.isString || (items != null && items.isString);
+        constraints.isInteger = parameter.isInteger || parameter.isLong;
+        constraints.isDecimal = parameter.isNumber || parameter.isFloat || parameter.isDouble;
+        constraints.isListContainer = parameter.isListContainer;
+        constraints.minItems = parameter.minItems;
+        constraints.maxItems = parameter.maxItems;
+        if (!parameter.isListContainer) {
+            // the constraints of the items of the parameters aren't checked
+            constraints.minLength = parameter.minLength;
+            constraints.maxLength = parameter.maxLength;
+            constraints.pattern = parameter.pattern;
+            constraints.minimum = parameter.minimum;
+            constraints.exclusiveMinimum = parameter.exclusiveMinimum;
+            constraints.maximum = parameter.maximum;
+            constraints.exclusiveMaximum = parameter.exclusiveMaximum;
+        }
+
+        String constant = patternConstant(operationId + "_" + parameter.baseName);
+        StringBuilder prefix = new StringBuilder();
+        StringBuilder suffix = new StringBuilder();
+        for (String[] check : constraints.toChecks(parameter.baseName, constant, kotlin)) {
+            prefix.insert(0, "Validation." + check[0] + "(");
+            suffix.append(check[1]).append(")");
+        }
+        if (prefix.length() > 0) {
+            parameter.vendorExtensions.put(X_CHECK_PREFIX, prefix.toString());
+            parameter.vendorExtensions.put(X_CHECK_SUFFIX, suffix.toString());
+        }
+        if (constraints.hasPattern()) {
+            parameter.vendorExtensions.put(X_PATTERN, toPatternLiteral(parameter.pattern, kotlin));
+            parameter.vendorExtensions.put(X_PATTERN_CONSTANT, constant);
+        }
+    }
+
+    /**
+     * Round the fractional bounds of an integer property towards the allowed values, e.g. an integer greater
+     * than 1.5 is at least 2, instead of the truncated ones of the codegen.
+     *
+     * @param property the property
+     * @param p its definition in the spec
+     */
+    static void roundIntegerBounds(CodegenProperty property, Property p) {
+        if (!(p instanceof BaseIntegerProperty)) {
+            return;
+        }
+        AbstractNumericProperty np = (AbstractNumericProperty) p;
+        if (isFractional(np.getMinimum())) {
+            property.minimum = np.getMinimum().setScale(0, RoundingMode.CEILING).toPlainString();
+            property.exclusiveMinimum = false;
+        }
+        if (isFractional(np.getMaximum())) {
+            property.maximum = np.getMaximum().setScale(0, RoundingMode.FLOOR).toPlainString();
+            property.exclusiveMaximum = false;
+        }
+    }
+
+    /**
+     * Round the fractional bounds of an integer parameter towards the allowed values.
+     *
+     * @param parameter the parameter
+     * @param param its definition in the spec
+     * @see #roundIntegerBounds(CodegenProperty, Property)
+     */
+    static void roundIntegerBounds(CodegenParameter parameter, Parameter param) {
+        if (!(param instanceof AbstractSerializableParameter) || !"integer".equals(((AbstractSerializableParameter<?>) param).getType())) {
+            return;
+        }
+        AbstractSerializableParameter<?> qp = (AbstractSerializableParameter<?>) param;
+        if (isFractional(qp.getMinimum())) {
+            parameter.minimum = qp.getMinimum().setScale(0, RoundingMode.CEILING).toPlainString();
+            parameter.exclusiveMinimum = false;
+        }
+        if (isFractional(qp.getMaximum())) {
+            parameter.maximum = qp.getMaximum().setScale(0, RoundingMode.FLOOR).toPlainString();
+            parameter.exclusiveMaximum = false;
+        }
+    }
+
+    private static boolean isFractional(BigDecimal bound) {
+        return bound != null && bound.stripTrailingZeros().scale() > 0;
+    }
+
+    private static String patternConstant(String name) {
+        return DefaultCodegen.underscore(name.replaceAll("[^A-Za-z0-9]", "_")).toUpperCase(Locale.ROOT) + "_PATTERN";
+    }
+
+    /**
+     * Get the content of the string literal of a pattern from its escaped form, which has the delimiters
+     * of a regular expression literal unless the codegen overrides {@code toRegularExpression}.
+     */
+    private static String toPatternLiteral(String pattern, boolean kotlin) {
+        String literal = pattern;
+        if (literal.length() > 1 && literal.startsWith("/") && literal.endsWith("/")) {
+            literal = literal.substring(1, literal.length() - 1).replace("\\/", "/");
+        }
+        return kotlin ? literal.replace("$", "\\$") : literal;
+    }
+
+    private static final class Constraints {
+        boolean required;
+        boolean isString;
+        boolean isInteger;
+        boolean isDecimal;
+        boolean isListContainer;
+        boolean nested;
+        Integer minLength;
+        Integer maxLength;
+        String pattern;
+        String minimum;
+        boolean exclusiveMinimum;
+        String maximum;
+        boolean exclusiveMaximum;
+        Integer minItems;
+        Integer maxItems;
+
+        boolean hasPattern() {
+            return isString && pattern != null && !pattern.isEmpty() && !isListContainer;
+        }
+
+        /**
+         * @return the name of every check and the arguments following the checked value, from the cheapest one
+         */
+        List<String[]> toChecks(String name, String patternConstant, boolean kotlin) {
+            String label = ", \"" + name.replace("\\", "\\\\").replace("\"", "\\\"").replace("$", kotlin ? "\\$" : "$") + "\"";
+            List<String[]> checks = new ArrayList<String[]>();
+            if (required) {
+                checks.add(new String[]{"checkRequired", label});
+            }
+            if (isString && !isListContainer && (minLength != null || maxLength != null)) {
+                checks.add(new String[]{"checkLength", ", " + (minLength != null ? minLength : 0) + ", "
+                        + (maxLength != null ? maxLength.toString() : kotlin ? "Int.MAX_VALUE" : "Integer.MAX_VALUE") + label});
+            }
+            if (hasPattern()) {
+                checks.add(new String[]{"checkPattern", ", " + patternConstant + label});
+            }
+            if ((isInteger || isDecimal) && minimum != null) {
+                checks.add(new String[]{"checkMinimum", ", " + toLiteral(minimum) + ", " + exclusiveMinimum + label});
+            }
+            if ((isInteger || isDecimal) && maximum != null) {
+                checks.add(new String[]{"checkMaximum", ", " + toLiteral(maximum) + ", " + exclusiveMaximum + label});
+            }
+            if (isListContainer && (minItems != null || maxItems != null)) {
+                checks.add(new String[]{"checkSize", ", " + (minItems != null ? minItems : 0) + ", "
+                        + (maxItems != null ? maxItems.toString() : kotlin ? "Int.MAX_VALUE" : "Integer.MAX_VALUE") + label});
+            }
+            if (nested) {
+                checks.add(new String[]{"checkValid", label});
+            }
+            return checks;
+        }
+
+        private String toLiteral(String bound) {
+            BigDecimal value = new BigDecimal(bound);
+            // the overloads of the checks compare the integers as longs and the others as doubles
+            return isInteger ? value.longValue() + "L" : Double.toString(value.doubleValue());
+        }
+    }
+}
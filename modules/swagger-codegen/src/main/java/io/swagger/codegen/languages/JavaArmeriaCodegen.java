@@ -1,23 +1,48 @@
 package io.swagger.codegen.languages;
 
 import io.swagger.codegen.*;
+import io.swagger.codegen.languages.features.ArmeriaFeatures;
+import io.swagger.codegen.languages.features.BeanValidationFeatures;
+import io.swagger.models.Swagger;
+import io.swagger.models.parameters.Parameter;
+import io.swagger.models.properties.Property;
 import org.apache.commons.lang3.BooleanUtils;
+import org.apache.commons.lang3.StringUtils;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
-public class JavaArmeriaCodegen extends AbstractJavaCodegen {
+public class JavaArmeriaCodegen extends AbstractJavaCodegen implements ArmeriaFeatures, BeanValidationFeatures {
 
     public static final String TITLE = "title";
     public static final String CONFIG_PACKAGE = "configPackage";
     public static final String BASE_PACKAGE = "basePackage";
+    public static final String ASYNC = "async";
 
     protected String title = "swagger-petstore";
     protected String configPackage = "io.swagger.configuration";
     protected String basePackage = "io.swagger";
+    protected boolean async = false;
+    protected boolean generateRoutes = false;
+    protected boolean generateConverters = false;
+    protected String jacksonModule = null;
+    protected boolean generateValidators = false;
+    protected boolean useBeanValidation = false;
+    protected boolean generateProtobuf = false;
+    protected String protoFieldNumbers = null;
+    protected ArmeriaProtobuf protobuf;
+    protected boolean generateMetrics = false;
+    protected boolean blocking = false;
+    protected Set<String> blockingTags = new HashSet<String>();
+    protected boolean streaming = false;
+    protected String streamingFormat = "ndjson";
 
     public JavaArmeriaCodegen() {
         super();
@@ -45,6 +70,29 @@ public class JavaArmeriaCodegen extends AbstractJavaCodegen {
         cliOptions.add(new CliOption(TITLE, "server title name or client service name"));
         cliOptions.add(new CliOption(CONFIG_PACKAGE, "configuration package for generated code"));
         cliOptions.add(new CliOption(BASE_PACKAGE, "base package for generated code"));
+        cliOptions.add(CliOption.newBoolean(ASYNC, "declare the operations as returning a CompletableFuture of their result, written by the generated converters"));
+        cliOptions.add(CliOption.newBoolean(GENERATE_ROUTES, "also generate a <Tag>Routes class which binds every operation to a route, without annotated service reflection"));
+        cliOptions.add(CliOption.newBoolean(GENERATE_CONVERTERS, "also generate a <Tag>Converters class with cached Jackson readers for the request bodies, and, with " + ASYNC + ", cached writers for the results and a JMH benchmark of them (the synchronous operations return their own HttpResponse)"));
+        CliOption jacksonModuleOption = new CliOption(JACKSON_MODULE, "Jackson module registered by the generated converters");
+        Map<String, String> jacksonModuleOptions = new HashMap<String, String>();
+        jacksonModuleOptions.put("afterburner", "register the Afterburner module");
+        jacksonModuleOptions.put("blackbird", "register the Blackbird module");
+        jacksonModuleOption.setEnum(jacksonModuleOptions);
+        cliOptions.add(jacksonModuleOption);
+        cliOptions.add(CliOption.newBoolean(GENERATE_VALIDATORS, "check the constraints of the models and parameters with generated code, called by the generated converters and routes"));
+        cliOptions.add(CliOption.newBoolean(USE_BEANVALIDATION, "annotate the models with the BeanValidation API, e.g. to compare them with the generated validators"));
+        cliOptions.add(CliOption.newBoolean(GENERATE_PROTOBUF, "also generate a protobuf schema of the models and their conversions, so the operations exchange application/x-protobuf bodies next to JSON ones"));
+        cliOptions.add(new CliOption(PROTO_FIELD_NUMBERS, "the proto-field-numbers.properties file of a previous generation, so the fields keep their numbers"));
+        cliOptions.add(CliOption.newBoolean(GENERATE_METRICS, "also generate a <Tag>Metrics class recording the latency, in-flight requests and sizes of every operation, installed by ApiMetrics"));
+        cliOptions.add(CliOption.newBoolean(BLOCKING, "run the operations on the blocking task executor instead of the event loop, unless their x-blocking vendor extension is false"));
+        cliOptions.add(CliOption.newBoolean(STREAMING, "stream the elements of the array responses as they are produced, unless their x-streaming vendor extension is false"));
+        CliOption streamingFormatOption = new CliOption(STREAMING_FORMAT, "format of the streamed array responses").defaultValue(streamingFormat);
+        Map<String, String> streamingFormatOptions = new HashMap<String, String>();
+        streamingFormatOptions.put("ndjson", "newline-delimited JSON (application/x-ndjson)");
+        streamingFormatOptions.put("json-seq", "JSON text sequences (application/json-seq)");
+        streamingFormatOption.setEnum(streamingFormatOptions);
+        cliOptions.add(streamingFormatOption);
+        cliOptions.add(new CliOption(BLOCKING_TAGS, "comma-separated tags whose operations run on the blocking task executor instead of the event loop"));
 
     }
 
@@ -53,10 +101,47 @@ public class JavaArmeriaCodegen extends AbstractJavaCodegen {
         Map<String, Object> operations = (Map<String, Object>) objs.get("operations");
         if (operations != null) {
             List<CodegenOperation> ops = (List<CodegenOperation>) operations.get("operation");
+            Map<String, String> protobufBodyTypes = new LinkedHashMap<String, String>();
             for (final CodegenOperation operation : ops) {
 
                 // Capitalizes the first letter to form the annotations of Armeria
                 operation.httpMethod = operation.httpMethod.substring(0, 1) + operation.httpMethod.substring(1).toLowerCase();
+
+                if (ArmeriaStreaming.isStreaming(operation, streaming)) {
+                    operation.vendorExtensions.put("x-armeria-streaming", Boolean.TRUE);
+                }
+                if (async && !operation.vendorExtensions.containsKey("x-armeria-streaming")) {
+                    operation.vendorExtensions.put("x-armeria-async", Boolean.TRUE);
+                }
+                if (ArmeriaBlocking.isBlocking(operation, blockingTags, blocking)) {
+                    operation.vendorExtensions.put("x-armeria-blocking", Boolean.TRUE);
+                }
+                // the responses of the synchronous operations are built by the services themselves
+                if (generateProtobuf) {
+                    protobuf.addTo(operation, protobufBodyTypes, true, operation.vendorExtensions.containsKey("x-armeria-async"));
+                }
+
+                operation.vendorExtensions.put("x-armeria-method", operation.httpMethod.toUpperCase(Locale.ROOT));
+                if (generateRoutes) {
+                    // the body and form parameters can only be read once the request is aggregated
+                    if (operation.getHasBodyParam() || operation.getHasFormParams()) {
+                        operation.vendorExtensions.put("x-armeria-aggregate", Boolean.TRUE);
+                    }
+                    for (CodegenParameter parameter : operation.allParams) {
+                        String dataType = parameter.isListContainer && parameter.items != null ? parameter.items.datatype : parameter.dataType;
+                        parameter.vendorExtensions.put("x-armeria-converter", toRouteConverter(dataType));
+                        if (generateValidators) {
+                            ArmeriaValidation.addTo(operation.operationId, parameter, false);
+                        }
+                    }
+                }
+            }
+            if (generateConverters) {
+                // the synchronous operations build their own HttpResponse, the converters only write the asynchronous results
+                ArmeriaJsonTypes.addTo(objs, ops, false, async);
+            }
+            if (generateProtobuf) {
+                objs.put("protobufBodyTypes", ArmeriaProtobuf.toTemplateList(protobufBodyTypes));
             }
         }
 
@@ -84,6 +169,98 @@ public class JavaArmeriaCodegen extends AbstractJavaCodegen {
             this.setBasePackage((String) additionalProperties.get(BASE_PACKAGE));
         }
 
+        if (additionalProperties.containsKey(ASYNC)) {
+            this.setAsync(convertPropertyToBooleanAndWriteBack(ASYNC));
+        }
+
+        if (additionalProperties.containsKey(GENERATE_ROUTES)) {
+            this.setGenerateRoutes(convertPropertyToBooleanAndWriteBack(GENERATE_ROUTES));
+        }
+        if (generateRoutes) {
+            apiTemplateFiles.put("routes.mustache", "Routes.java");
+        }
+
+        if (additionalProperties.containsKey(BLOCKING)) {
+            this.setBlocking(convertPropertyToBooleanAndWriteBack(BLOCKING));
+        }
+        if (additionalProperties.containsKey(BLOCKING_TAGS)) {
+            this.setBlockingTags((String) additionalProperties.get(BLOCKING_TAGS));
+        }
+
+        if (additionalProperties.containsKey(STREAMING)) {
+            this.setStreaming(convertPropertyToBooleanAndWriteBack(STREAMING));
+        }
+        if (additionalProperties.containsKey(STREAMING_FORMAT)) {
+            this.setStreamingFormat((String) additionalProperties.get(STREAMING_FORMAT));
+        }
+        if ("json-seq".equals(streamingFormat)) {
+            additionalProperties.put("streamingJsonSeq", true);
+        }
+
+        if (additionalProperties.containsKey(GENERATE_CONVERTERS)) {
+            this.setGenerateConverters(convertPropertyToBooleanAndWriteBack(GENERATE_CONVERTERS));
+        }
+        if (additionalProperties.containsKey(GENERATE_VALIDATORS)) {
+            this.setGenerateValidators(convertPropertyToBooleanAndWriteBack(GENERATE_VALIDATORS));
+        }
+        if (additionalProperties.containsKey(USE_BEANVALIDATION)) {
+            this.setUseBeanValidation(convertPropertyToBooleanAndWriteBack(USE_BEANVALIDATION));
+        }
+        if (additionalProperties.containsKey(GENERATE_PROTOBUF)) {
+            this.setGenerateProtobuf(convertPropertyToBooleanAndWriteBack(GENERATE_PROTOBUF));
+        }
+        if (additionalProperties.containsKey(PROTO_FIELD_NUMBERS)) {
+            this.setProtoFieldNumbers((String) additionalProperties.get(PROTO_FIELD_NUMBERS));
+        }
+        // the results of the asynchronous operations are written by the generated converters,
+        // and the bodies are validated, or read from protobuf, when the generated converters read them
+        if ((async || generateValidators || generateProtobuf) && !generateConverters) {
+            this.setGenerateConverters(true);
+            additionalProperties.put(GENERATE_CONVERTERS, true);
+        }
+        if (additionalProperties.containsKey(JACKSON_MODULE)) {
+            this.setJacksonModule((String) additionalProperties.get(JACKSON_MODULE));
+        }
+        if (generateConverters) {
+            apiTemplateFiles.put("converters.mustache", "Converters.java");
+            if (async) {
+                apiTemplateFiles.put("convertersBenchmark.mustache", "ConvertersBenchmark.java");
+            }
+            if (generateValidators) {
+                apiTemplateFiles.put("validationBenchmark.mustache", "ValidationBenchmark.java");
+            }
+            if ("afterburner".equals(jacksonModule)) {
+                additionalProperties.put("useAfterburner", true);
+            } else if ("blackbird".equals(jacksonModule)) {
+                additionalProperties.put("useBlackbird", true);
+            }
+        }
+
+        if (generateValidators) {
+            String modelFolder = (sourceFolder + '/' + modelPackage).replace(".", "/");
+            supportingFiles.add(new SupportingFile("validation.mustache", modelFolder, "Validation.java"));
+            supportingFiles.add(new SupportingFile("validationException.mustache", modelFolder, "ValidationException.java"));
+        }
+
+        if (generateProtobuf) {
+            Set<String> externalTypes = new HashSet<String>(languageSpecificPrimitives);
+            externalTypes.addAll(importMapping.keySet());
+            protobuf = new ArmeriaProtobuf(protoFieldNumbers, externalTypes, modelPackage, false);
+            supportingFiles.add(new SupportingFile("protobuf.mustache", (sourceFolder + '/' + modelPackage).replace(".", "/"), "Protobuf.java"));
+            supportingFiles.add(new SupportingFile("models.proto.mustache", "src/main/proto", "models.proto"));
+            supportingFiles.add(new SupportingFile("protoFieldNumbers.mustache", "", "proto-field-numbers.properties"));
+        }
+
+        if (additionalProperties.containsKey(GENERATE_METRICS)) {
+            this.setGenerateMetrics(convertPropertyToBooleanAndWriteBack(GENERATE_METRICS));
+        }
+        if (generateMetrics) {
+            apiTemplateFiles.put("metrics.mustache", "Metrics.java");
+            String apiFolder = (sourceFolder + '/' + apiPackage).replace(".", "/");
+            supportingFiles.add(new SupportingFile("operationMetrics.mustache", apiFolder, "OperationMetrics.java"));
+            supportingFiles.add(new SupportingFile("apiMetrics.mustache", apiFolder, "ApiMetrics.java"));
+        }
+
         supportingFiles.add(new SupportingFile("README.mustache", "", "README.md"));
 
         supportingFiles.add(new SupportingFile("build.gradle.mustache", "", "build.gradle"));
@@ -98,6 +275,16 @@ public class JavaArmeriaCodegen extends AbstractJavaCodegen {
          */
     }
 
+    @Override
+    public void preprocessSwagger(Swagger swagger) {
+        super.preprocessSwagger(swagger);
+
+        if (ArmeriaStreaming.hasStreamingOperations(swagger, streaming)) {
+            additionalProperties.put("streamingResponses", true);
+            supportingFiles.add(new SupportingFile("streamingResponseConverter.mustache", (sourceFolder + '/' + apiPackage).replace(".", "/"), "StreamingResponseConverter.java"));
+        }
+    }
+
     @Override
     public void postProcessModelProperty(CodegenModel model, CodegenProperty property) {
         super.postProcessModelProperty(model, property);
@@ -112,6 +299,31 @@ public class JavaArmeriaCodegen extends AbstractJavaCodegen {
         }
     }
 
+    @Override
+    public Map<String, Object> postProcessModels(Map<String, Object> objs) {
+        objs = super.postProcessModels(objs);
+
+        for (Object _mo : (List<Object>) objs.get("models")) {
+            CodegenModel model = (CodegenModel) ((Map<String, Object>) _mo).get("model");
+            List<String> interfaces = new ArrayList<String>();
+            if (generateValidators) {
+                ArmeriaValidation.addTo(model, false);
+                interfaces.add("Validation.Validatable");
+            }
+            if (generateProtobuf) {
+                protobuf.addTo(model);
+                interfaces.add("Protobuf.Convertible");
+            }
+            if (Boolean.TRUE.equals(serializableModel)) {
+                interfaces.add("Serializable");
+            }
+            if (!interfaces.isEmpty()) {
+                model.vendorExtensions.put("x-armeria-implements", StringUtils.join(interfaces, ", "));
+            }
+        }
+        return objs;
+    }
+
     @Override
     public Map<String, Object> postProcessModelsEnum(Map<String, Object> objs) {
         objs = super.postProcessModelsEnum(objs);
@@ -134,12 +346,65 @@ public class JavaArmeriaCodegen extends AbstractJavaCodegen {
         return objs;
     }
 
+    /**
+     * Get the function which converts the string value of a parameter to its type in a route.
+     *
+     * @param dataType the type of the parameter, or of its items
+     * @return a Java expression of a Function&lt;String, dataType&gt;
+     */
+    protected String toRouteConverter(String dataType) {
+        if ("String".equals(dataType)) {
+            return "Function.identity()";
+        } else if ("Integer".equals(dataType) || "Long".equals(dataType) || "Float".equals(dataType)
+                || "Double".equals(dataType) || "Boolean".equals(dataType)) {
+            return dataType + "::valueOf";
+        } else if ("BigDecimal".equals(dataType)) {
+            return "java.math.BigDecimal::new";
+        } else if ("UUID".equals(dataType)) {
+            return "java.util.UUID::fromString";
+        }
+        // dates, enums and anything else Jackson knows how to read from a string
+        return "value -> mapper.convertValue(value, new TypeReference<" + dataType + ">() {})";
+    }
+
+    @Override
+    public CodegenProperty fromProperty(String name, Property p) {
+        CodegenProperty property = super.fromProperty(name, p);
+        if (property != null) {
+            ArmeriaValidation.roundIntegerBounds(property, p);
+        }
+        return property;
+    }
+
+    @Override
+    public CodegenParameter fromParameter(Parameter param, Set<String> imports) {
+        CodegenParameter parameter = super.fromParameter(param, imports);
+        ArmeriaValidation.roundIntegerBounds(parameter, param);
+        return parameter;
+    }
+
     @Override
     public String toEnumName(CodegenProperty property) {
         Locale.setDefault(Locale.US);
         return super.toEnumName(property);
     }
 
+    @Override
+    public String apiFilename(String templateName, String tag) {
+        String result = super.apiFilename(templateName, tag);
+
+        // the benchmarks are in the source set of the JMH plugin
+        if (templateName.endsWith("Benchmark.mustache")) {
+            result = result.replace(apiFileFolder(), benchmarkFileFolder());
+        }
+        return result;
+    }
+
+    private String benchmarkFileFolder() {
+        return outputFolder + File.separator + "src" + File.separator + "jmh" + File.separator + "java"
+                + File.separator + apiPackage().replace('.', File.separatorChar);
+    }
+
     @Override
     public CodegenType getTag() {
         return CodegenType.SERVER;
@@ -167,4 +432,73 @@ public class JavaArmeriaCodegen extends AbstractJavaCodegen {
         this.basePackage = basePackage;
     }
 
+    public void setAsync(boolean async) {
+        this.async = async;
+    }
+
+    @Override
+    public void setGenerateRoutes(boolean generateRoutes) {
+        this.generateRoutes = generateRoutes;
+    }
+
+    @Override
+    public void setGenerateConverters(boolean generateConverters) {
+        this.generateConverters = generateConverters;
+    }
+
+    @Override
+    public void setJacksonModule(String jacksonModule) {
+        this.jacksonModule = ArmeriaOptions.checkEnum(cliOptions, JACKSON_MODULE, jacksonModule);
+    }
+
+    @Override
+    public void setStreaming(boolean streaming) {
+        this.streaming = streaming;
+    }
+
+    @Override
+    public void setStreamingFormat(String streamingFormat) {
+        this.streamingFormat = ArmeriaOptions.checkEnum(cliOptions, STREAMING_FORMAT, streamingFormat);
+    }
+
+    @Override
+    public void setGenerateValidators(boolean generateValidators) {
+        this.generateValidators = generateValidators;
+    }
+
+    @Override
+    public void setUseBeanValidation(boolean useBeanValidation) {
+        this.useBeanValidation = useBeanValidation;
+    }
+
+    @Override
+    public void setGenerateMetrics(boolean generateMetrics) {
+        this.generateMetrics = generateMetrics;
+    }
+
+    @Override
+    public void setGenerateProtobuf(boolean generateProtobuf) {
+        this.generateProtobuf = generateProtobuf;
+    }
+
+    @Override
+    public void setProtoFieldNumbers(String protoFieldNumbers) {
+        this.protoFieldNumbers = protoFieldNumbers;
+    }
+
+    @Override
+    public void setBlocking(boolean blocking) {
+        this.blocking = blocking;
+    }
+
+    @Override
+    public void setBlockingTags(String blockingTags) {
+        this.blockingTags = new HashSet<String>();
+        for (String tag : blockingTags.split(",")) {
+            if (!tag.trim().isEmpty()) {
+                this.blockingTags.add(tag.trim());
+            }
+        }
+    }
+
 }
@@ -0,0 +1,224 @@
+package io.swagger.codegen.languages;
+
+import io.swagger.codegen.*;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Generates Kotlin clients with suspend functions over Armeria's WebClient, sharing the models and the
+ * server interfaces of {@link KotlinArmeriaCodegen}: the interfaces are generated in the test sources,
+ * where the generated integration tests run the clients against them.
+ */
+public class KotlinArmeriaClientCodegen extends KotlinArmeriaCodegen {
+
+    public static final String X_RETRY_ATTEMPTS = "x-retry-attempts";
+    public static final String X_CIRCUIT_BREAKER = "x-circuit-breaker";
+    public static final String X_MAX_CONCURRENCY = "x-max-concurrency";
+
+    protected String testFolder = "src/test/kotlin";
+
+    public KotlinArmeriaClientCodegen() {
+        super();
+
+        outputFolder = "generated-code" + File.separator + "kotlin-armeria-client";
+        artifactId = "swagger-kotlin-armeria-client";
+        apiTemplateFiles.clear();
+        apiTemplateFiles.put("client/api.mustache", "Client.kt");
+        // the server interface and the test of the client against it
+        apiTestTemplateFiles.put("api.mustache", ".kt");
+        apiTestTemplateFiles.put("client/api_test.mustache", "ClientTest.kt");
+
+        // the options of the server which don't apply to the client
+        cliOptions.removeIf(option -> GENERATE_ROUTES.equals(option.getOpt()) || GENERATE_CONVERTERS.equals(option.getOpt())
+                || GENERATE_VALIDATORS.equals(option.getOpt()) || GENERATE_METRICS.equals(option.getOpt()) || GENERATE_BENCHMARKS.equals(option.getOpt()) || JACKSON_MODULE.equals(option.getOpt()) || BLOCKING.equals(option.getOpt()) || BLOCKING_TAGS.equals(option.getOpt()));
+    }
+
+    @Override
+    public void processOpts() {
+        additionalProperties.remove(GENERATE_ROUTES);
+        additionalProperties.remove(GENERATE_CONVERTERS);
+        additionalProperties.remove(GENERATE_VALIDATORS);
+        additionalProperties.remove(GENERATE_METRICS);
+        additionalProperties.remove(GENERATE_BENCHMARKS);
+        super.processOpts();
+        // the server of the tests reads and writes JSON with the default converters of Armeria
+        if (generateConverters) {
+            this.setGenerateConverters(false);
+            additionalProperties.remove(GENERATE_CONVERTERS);
+        }
+
+        apiTemplateFiles.clear();
+        apiTemplateFiles.put("client/api.mustache", "Client.kt");
+
+        String apiFolder = sourceFolder + File.separator + apiPackage.replace('.', File.separatorChar);
+        supportingFiles.clear();
+        supportingFiles.add(new SupportingFile("client/README.mustache", "", "README.md"));
+        supportingFiles.add(new SupportingFile("client/build.gradle.mustache", "", "build.gradle"));
+        supportingFiles.add(new SupportingFile("settings.gradle.mustache", "", "settings.gradle"));
+        supportingFiles.add(new SupportingFile("client/clientSupport.mustache", apiFolder, "ClientSupport.kt"));
+        if (generateProtobuf) {
+            supportingFiles.add(new SupportingFile("protobuf.mustache",
+                    sourceFolder + File.separator + modelPackage.replace('.', File.separatorChar), "Protobuf.kt"));
+            supportingFiles.add(new SupportingFile("models.proto.mustache", "src/main/proto", "models.proto"));
+            supportingFiles.add(new SupportingFile("protoFieldNumbers.mustache", "", "proto-field-numbers.properties"));
+        }
+    }
+
+    @Override
+    public Map<String, Object> postProcessOperations(Map<String, Object> objs) {
+        objs = super.postProcessOperations(objs);
+
+        Map<String, Object> operations = (Map<String, Object>) objs.get("operations");
+        if (operations != null) {
+            List<CodegenOperation> ops = (List<CodegenOperation>) operations.get("operation");
+            // the examples of the responses, which the server of the tests returns
+            ArmeriaJsonTypes.addTo(objs, ops, true, true);
+            for (final CodegenOperation operation : ops) {
+                operation.vendorExtensions.put("x-armeria-method", operation.httpMethod.toUpperCase(Locale.ROOT));
+                operation.vendorExtensions.put("x-armeria-client-path", toClientPath(operation));
+                operation.vendorExtensions.put("x-armeria-decorators", toDecorators(operation));
+
+                boolean testable = operation.vendorExtensions.containsKey("x-armeria-json-example");
+                for (CodegenParameter parameter : operation.allParams) {
+                    String testValue = toTestValue(parameter.dataType);
+                    if (testValue != null) {
+                        parameter.vendorExtensions.put("x-armeria-test-value", testValue);
+                    } else if (parameter.required) {
+                        testable = false;
+                    }
+                }
+                if (testable) {
+                    operation.vendorExtensions.put("x-armeria-client-test", Boolean.TRUE);
+                }
+            }
+        }
+
+        return objs;
+    }
+
+    @Override
+    protected boolean negotiateProtobuf() {
+        // the client sends protobuf bodies, while the server of the tests reads and writes JSON
+        return false;
+    }
+
+    /**
+     * Get the path of an operation as the content of a Kotlin string template, with its path parameters.
+     *
+     * @param operation the operation
+     * @return the path, e.g. /pet/${pathParam(petId)}
+     */
+    protected String toClientPath(CodegenOperation operation) {
+        String path = operation.path.replace("$", "\\$");
+        for (CodegenParameter parameter : operation.pathParams) {
+            path = path.replace("{" + parameter.baseName + "}", "${pathParam(" + parameter.paramName + ")}");
+        }
+        return path;
+    }
+
+    /**
+     * Get the client decorators of an operation declared by its vendor extensions, from the innermost to the outermost.
+     *
+     * @param operation the operation
+     * @return Kotlin expressions of the decorators
+     */
+    protected List<String> toDecorators(CodegenOperation operation) {
+        List<String> decorators = new ArrayList<String>();
+
+        Object maxConcurrency = operation.vendorExtensions.get(X_MAX_CONCURRENCY);
+        if (maxConcurrency != null) {
+            decorators.add("ConcurrencyLimitingClient.newDecorator(" + toInt(operation, X_MAX_CONCURRENCY, maxConcurrency, 0) + ")");
+        }
+
+        Object circuitBreaker = operation.vendorExtensions.get(X_CIRCUIT_BREAKER);
+        if (circuitBreaker != null && !Boolean.FALSE.equals(ArmeriaBlocking.toBoolean(circuitBreaker))) {
+            String name = Boolean.TRUE.equals(ArmeriaBlocking.toBoolean(circuitBreaker)) ? operation.operationId : circuitBreaker.toString();
+            decorators.add("CircuitBreakerClient.newDecorator(CircuitBreaker.of(\"" + escapeText(name)
+                    + "\"), CircuitBreakerRule.onServerErrorStatus())");
+        }
+
+        Object retryAttempts = operation.vendorExtensions.get(X_RETRY_ATTEMPTS);
+        if (retryAttempts != null) {
+            decorators.add("RetryingClient.newDecorator(RetryRule.failsafe(), " + toInt(operation, X_RETRY_ATTEMPTS, retryAttempts, 1) + ")");
+        }
+        return decorators;
+    }
+
+    private static int toInt(CodegenOperation operation, String extension, Object value, int min) {
+        int number;
+        try {
+            number = Integer.parseInt(value.toString().trim());
+        } catch (NumberFormatException e) {
+            number = min - 1;
+        }
+        if (number < min) {
+            throw new IllegalArgumentException("The " + extension + " of the operation " + operation.operationId
+                    + " must be an integer of at least " + min + ", not '" + value + "'");
+        }
+        return number;
+    }
+
+    /**
+     * Get a value of a parameter to call the client with in its test.
+     *
+     * @param dataType the type of the parameter
+     * @return a Kotlin expression of the value, or null if none is known
+     */
+    protected String toTestValue(String dataType) {
+        if ("kotlin.String".equals(dataType)) {
+            return "\"value\"";
+        } else if ("kotlin.Int".equals(dataType)) {
+            return "1";
+        } else if ("kotlin.Long".equals(dataType)) {
+            return "1L";
+        } else if ("kotlin.Float".equals(dataType)) {
+            return "1.0f";
+        } else if ("kotlin.Double".equals(dataType)) {
+            return "1.0";
+        } else if ("kotlin.Boolean".equals(dataType)) {
+            return "true";
+        } else if ("java.math.BigDecimal".equals(dataType)) {
+            return "java.math.BigDecimal.ONE";
+        } else if (dataType != null && dataType.startsWith("kotlin.Array<") && dataType.endsWith(">")) {
+            String item = toTestValue(dataType.substring("kotlin.Array<".length(), dataType.length() - 1));
+            return item != null ? "arrayOf(" + item + ")" : null;
+        }
+        return null;
+    }
+
+    @Override
+    protected String streamingConverterFolder() {
+        // the server of the tests streams the responses
+        return testFolder + File.separator + apiPackage.replace('.', File.separatorChar);
+    }
+
+    @Override
+    public String apiTestFileFolder() {
+        return outputFolder + File.separator + testFolder + File.separator + apiPackage().replace('.', File.separatorChar);
+    }
+
+    @Override
+    public String apiTestFilename(String templateName, String tag) {
+        // the server interface keeps the name it has in the server, next to the <Tag>ClientTest
+        return apiTestFileFolder() + File.separator + toApiFilename(tag) + apiTestTemplateFiles().get(templateName);
+    }
+
+    @Override
+    public CodegenType getTag() {
+        return CodegenType.CLIENT;
+    }
+
+    @Override
+    public String getName() {
+        return "kotlin-armeria-client";
+    }
+
+    @Override
+    public String getHelp() {
+        return "Generates a kotlin client with suspend functions over an Armeria WebClient.";
+    }
+}
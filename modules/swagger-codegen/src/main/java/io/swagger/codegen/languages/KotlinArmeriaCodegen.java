@@ -1,23 +1,50 @@
 package io.swagger.codegen.languages;
 
 import io.swagger.codegen.*;
+import io.swagger.codegen.languages.features.ArmeriaFeatures;
+import io.swagger.models.Model;
+import io.swagger.models.Operation;
+import io.swagger.models.Swagger;
+import io.swagger.models.parameters.BodyParameter;
+import io.swagger.models.parameters.Parameter;
+import io.swagger.models.properties.Property;
 import org.apache.commons.lang3.BooleanUtils;
+import org.apache.commons.lang3.StringUtils;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
-public class KotlinArmeriaCodegen extends AbstractKotlinCodegen {
+public class KotlinArmeriaCodegen extends AbstractKotlinCodegen implements ArmeriaFeatures {
 
     public static final String TITLE = "title";
     public static final String CONFIG_PACKAGE = "configPackage";
     public static final String BASE_PACKAGE = "basePackage";
+    public static final String GENERATE_BENCHMARKS = "generateBenchmarks";
 
     protected String title = "swagger-petstore";
     protected String configPackage = "io.swagger.configuration";
     protected String basePackage = "io.swagger";
+    protected boolean generateRoutes = false;
+    protected boolean generateConverters = false;
+    protected String jacksonModule = null;
+    protected boolean generateValidators = false;
+    protected boolean generateProtobuf = false;
+    protected String protoFieldNumbers = null;
+    protected ArmeriaProtobuf protobuf;
+    protected boolean generateMetrics = false;
+    protected boolean generateBenchmarks = false;
+    protected boolean blocking = false;
+    protected Set<String> blockingTags = new HashSet<String>();
+    protected boolean streaming = false;
+    protected String streamingFormat = "ndjson";
 
     public KotlinArmeriaCodegen() {
         super();
@@ -44,6 +71,28 @@ public class KotlinArmeriaCodegen extends AbstractKotlinCodegen {
         cliOptions.add(new CliOption(TITLE, "server title name or client service name"));
         cliOptions.add(new CliOption(CONFIG_PACKAGE, "configuration package for generated code"));
         cliOptions.add(new CliOption(BASE_PACKAGE, "base package for generated code"));
+        cliOptions.add(CliOption.newBoolean(GENERATE_ROUTES, "also generate a <Tag>Routes class which binds every operation to a route, without annotated service reflection"));
+        cliOptions.add(CliOption.newBoolean(GENERATE_CONVERTERS, "also generate a <Tag>Converters class with cached Jackson readers and writers for the models, and a JMH benchmark of it"));
+        CliOption jacksonModuleOption = new CliOption(JACKSON_MODULE, "Jackson module registered by the generated converters");
+        Map<String, String> jacksonModuleOptions = new HashMap<String, String>();
+        jacksonModuleOptions.put("afterburner", "register the Afterburner module");
+        jacksonModuleOptions.put("blackbird", "register the Blackbird module");
+        jacksonModuleOption.setEnum(jacksonModuleOptions);
+        cliOptions.add(jacksonModuleOption);
+        cliOptions.add(CliOption.newBoolean(GENERATE_VALIDATORS, "check the constraints of the models and parameters with generated code, called by the generated converters and routes"));
+        cliOptions.add(CliOption.newBoolean(GENERATE_PROTOBUF, "also generate a protobuf schema of the models and their conversions, so the operations exchange application/x-protobuf bodies next to JSON ones"));
+        cliOptions.add(new CliOption(PROTO_FIELD_NUMBERS, "the proto-field-numbers.properties file of a previous generation, so the fields keep their numbers"));
+        cliOptions.add(CliOption.newBoolean(GENERATE_METRICS, "also generate a <Tag>Metrics class recording the latency, in-flight requests and sizes of every operation, installed by ApiMetrics"));
+        cliOptions.add(CliOption.newBoolean(GENERATE_BENCHMARKS, "also generate, in the jmh source set, stubs returning the example responses, an in-process server and a <Tag>ServerBenchmark calling every operation with a WebClient over loopback"));
+        cliOptions.add(CliOption.newBoolean(BLOCKING, "run the operations on the blocking task executor instead of the event loop, unless their x-blocking vendor extension is false"));
+        cliOptions.add(CliOption.newBoolean(STREAMING, "stream the elements of the array responses as they are produced, unless their x-streaming vendor extension is false"));
+        CliOption streamingFormatOption = new CliOption(STREAMING_FORMAT, "format of the streamed array responses").defaultValue(streamingFormat);
+        Map<String, String> streamingFormatOptions = new HashMap<String, String>();
+        streamingFormatOptions.put("ndjson", "newline-delimited JSON (application/x-ndjson)");
+        streamingFormatOptions.put("json-seq", "JSON text sequences (application/json-seq)");
+        streamingFormatOption.setEnum(streamingFormatOptions);
+        cliOptions.add(streamingFormatOption);
+        cliOptions.add(new CliOption(BLOCKING_TAGS, "comma-separated tags whose operations run on the blocking task executor instead of the event loop"));
     }
 
     @Override
@@ -51,10 +100,48 @@ public class KotlinArmeriaCodegen extends AbstractKotlinCodegen {
         Map<String, Object> operations = (Map<String, Object>) objs.get("operations");
         if (operations != null) {
             List<CodegenOperation> ops = (List<CodegenOperation>) operations.get("operation");
+            Map<String, String> protobufBodyTypes = new LinkedHashMap<String, String>();
             for (final CodegenOperation operation : ops) {
 
                 // Capitalizes the first letter to form the annotations of Armeria
                 operation.httpMethod = operation.httpMethod.substring(0, 1) + operation.httpMethod.substring(1).toLowerCase();
+
+                if (ArmeriaStreaming.isStreaming(operation, streaming)) {
+                    operation.vendorExtensions.put("x-armeria-streaming", Boolean.TRUE);
+                }
+                if (ArmeriaBlocking.isBlocking(operation, blockingTags, blocking)) {
+                    operation.vendorExtensions.put("x-armeria-blocking", Boolean.TRUE);
+                }
+                if (generateProtobuf) {
+                    protobuf.addTo(operation, protobufBodyTypes, negotiateProtobuf(), true);
+                }
+
+                operation.vendorExtensions.put("x-armeria-method", operation.httpMethod.toUpperCase(Locale.ROOT));
+                if (generateRoutes) {
+                    // the body and form parameters can only be read once the request is aggregated
+                    if (operation.getHasBodyParam() || operation.getHasFormParams()) {
+                        operation.vendorExtensions.put("x-armeria-aggregate", Boolean.TRUE);
+                    }
+                    for (CodegenParameter parameter : operation.allParams) {
+                        String dataType = parameter.isListContainer && parameter.items != null ? parameter.items.datatype : parameter.dataType;
+                        parameter.vendorExtensions.put("x-armeria-converter", toRouteConverter(dataType));
+                        if (generateValidators) {
+                            ArmeriaValidation.addTo(operation.operationId, parameter, true);
+                        }
+                    }
+                }
+            }
+            // the stubs of the benchmarks return the examples of the responses
+            if (generateConverters || generateBenchmarks) {
+                ArmeriaJsonTypes.addTo(objs, ops, true, true);
+            }
+            if (generateBenchmarks) {
+                for (CodegenOperation operation : ops) {
+                    ArmeriaBenchmarks.addTo(operation);
+                }
+            }
+            if (generateProtobuf) {
+                objs.put("protobufBodyTypes", ArmeriaProtobuf.toTemplateList(protobufBodyTypes));
             }
         }
 
@@ -82,11 +169,225 @@ public class KotlinArmeriaCodegen extends AbstractKotlinCodegen {
             this.setBasePackage((String) additionalProperties.get(BASE_PACKAGE));
         }
 
+        if (additionalProperties.containsKey(GENERATE_ROUTES)) {
+            this.setGenerateRoutes(convertPropertyToBooleanAndWriteBack(GENERATE_ROUTES));
+        }
+        if (generateRoutes) {
+            apiTemplateFiles.put("routes.mustache", "Routes.kt");
+        }
+
+        if (additionalProperties.containsKey(BLOCKING)) {
+            this.setBlocking(convertPropertyToBooleanAndWriteBack(BLOCKING));
+        }
+        if (additionalProperties.containsKey(BLOCKING_TAGS)) {
+            this.setBlockingTags((String) additionalProperties.get(BLOCKING_TAGS));
+        }
+
+        if (additionalProperties.containsKey(STREAMING)) {
+            this.setStreaming(convertPropertyToBooleanAndWriteBack(STREAMING));
+        }
+        if (additionalProperties.containsKey(STREAMING_FORMAT)) {
+            this.setStreamingFormat((String) additionalProperties.get(STREAMING_FORMAT));
+        }
+        if ("json-seq".equals(streamingFormat)) {
+            additionalProperties.put("streamingJsonSeq", true);
+        }
+
+        if (additionalProperties.containsKey(GENERATE_CONVERTERS)) {
+            this.setGenerateConverters(convertPropertyToBooleanAndWriteBack(GENERATE_CONVERTERS));
+        }
+        if (additionalProperties.containsKey(GENERATE_VALIDATORS)) {
+            this.setGenerateValidators(convertPropertyToBooleanAndWriteBack(GENERATE_VALIDATORS));
+        }
+        if (additionalProperties.containsKey(GENERATE_PROTOBUF)) {
+            this.setGenerateProtobuf(convertPropertyToBooleanAndWriteBack(GENERATE_PROTOBUF));
+        }
+        if (additionalProperties.containsKey(PROTO_FIELD_NUMBERS)) {
+            this.setProtoFieldNumbers((String) additionalProperties.get(PROTO_FIELD_NUMBERS));
+        }
+        // the bodies are validated, or read from protobuf, when the generated converters read them
+        if ((generateValidators || generateProtobuf) && !generateConverters) {
+            this.setGenerateConverters(true);
+            additionalProperties.put(GENERATE_CONVERTERS, true);
+        }
+        if (additionalProperties.containsKey(JACKSON_MODULE)) {
+            this.setJacksonModule((String) additionalProperties.get(JACKSON_MODULE));
+        }
+        if (generateConverters) {
+            apiTemplateFiles.put("converters.mustache", "Converters.kt");
+            apiTemplateFiles.put("convertersBenchmark.mustache", "ConvertersBenchmark.kt");
+            if ("afterburner".equals(jacksonModule)) {
+                additionalProperties.put("useAfterburner", true);
+            } else if ("blackbird".equals(jacksonModule)) {
+                additionalProperties.put("useBlackbird", true);
+            }
+        }
+
+        if (generateValidators) {
+            supportingFiles.add(new SupportingFile("validation.mustache",
+                    sourceFolder + File.separator + modelPackage.replace('.', File.separatorChar), "Validation.kt"));
+        }
+
+        if (generateProtobuf) {
+            Set<String> externalTypes = new HashSet<String>(languageSpecificPrimitives);
+            externalTypes.addAll(importMapping.keySet());
+            protobuf = new ArmeriaProtobuf(protoFieldNumbers, externalTypes, modelPackage, true);
+            supportingFiles.add(new SupportingFile("protobuf.mustache",
+                    sourceFolder + File.separator + modelPackage.replace('.', File.separatorChar), "Protobuf.kt"));
+            supportingFiles.add(new SupportingFile("models.proto.mustache", "src/main/proto", "models.proto"));
+            supportingFiles.add(new SupportingFile("protoFieldNumbers.mustache", "", "proto-field-numbers.properties"));
+        }
+
+        if (additionalProperties.containsKey(GENERATE_METRICS)) {
+            this.setGenerateMetrics(convertPropertyToBooleanAndWriteBack(GENERATE_METRICS));
+        }
+        if (generateMetrics) {
+            apiTemplateFiles.put("metrics.mustache", "Metrics.kt");
+            String apiFolder = sourceFolder + File.separator + apiPackage.replace('.', File.separatorChar);
+            supportingFiles.add(new SupportingFile("operationMetrics.mustache", apiFolder, "OperationMetrics.kt"));
+            supportingFiles.add(new SupportingFile("apiMetrics.mustache", apiFolder, "ApiMetrics.kt"));
+        }
+
+        if (additionalProperties.containsKey(GENERATE_BENCHMARKS)) {
+            this.setGenerateBenchmarks(convertPropertyToBooleanAndWriteBack(GENERATE_BENCHMARKS));
+        }
+        if (generateBenchmarks) {
+            apiTemplateFiles.put("benchmarkStub.mustache", "Stub.kt");
+            apiTemplateFiles.put("serverBenchmark.mustache", "ServerBenchmark.kt");
+            supportingFiles.add(new SupportingFile("benchmarkServer.mustache",
+                    "src" + File.separator + "jmh" + File.separator + "kotlin" + File.separator + apiPackage.replace('.', File.separatorChar),
+                    "BenchmarkServer.kt"));
+        }
+        // the benchmarks of the converters and of the server share the JMH plugin
+        if (generateConverters || generateBenchmarks) {
+            additionalProperties.put("jmhBenchmarks", true);
+        }
+
         supportingFiles.add(new SupportingFile("README.mustache", "", "README.md"));
         supportingFiles.add(new SupportingFile("build.gradle.mustache", "", "build.gradle"));
         supportingFiles.add(new SupportingFile("settings.gradle.mustache", "", "settings.gradle"));
     }
 
+    @Override
+    public void preprocessSwagger(Swagger swagger) {
+        super.preprocessSwagger(swagger);
+
+        if (ArmeriaStreaming.hasStreamingOperations(swagger, streaming)) {
+            additionalProperties.put("streamingResponses", true);
+            supportingFiles.add(new SupportingFile("streamingResponseConverter.mustache", streamingConverterFolder(), "StreamingResponseConverter.kt"));
+        }
+    }
+
+    @Override
+    public CodegenProperty fromProperty(String name, Property p) {
+        CodegenProperty property = super.fromProperty(name, p);
+        if (property != null) {
+            ArmeriaValidation.roundIntegerBounds(property, p);
+        }
+        return property;
+    }
+
+    @Override
+    public CodegenParameter fromParameter(Parameter param, Set<String> imports) {
+        CodegenParameter parameter = super.fromParameter(param, imports);
+        ArmeriaValidation.roundIntegerBounds(parameter, param);
+        return parameter;
+    }
+
+    @Override
+    public Map<String, Object> postProcessModels(Map<String, Object> objs) {
+        objs = super.postProcessModels(objs);
+
+        for (Object _mo : (List<Object>) objs.get("models")) {
+            CodegenModel model = (CodegenModel) ((Map<String, Object>) _mo).get("model");
+            List<String> supertypes = new ArrayList<String>();
+            if (generateValidators) {
+                ArmeriaValidation.addTo(model, true);
+                supertypes.add("Validation.Validatable");
+            }
+            if (generateProtobuf) {
+                protobuf.addTo(model);
+                supertypes.add("Protobuf.Convertible");
+            }
+            if (!supertypes.isEmpty()) {
+                model.vendorExtensions.put("x-armeria-supertypes", StringUtils.join(supertypes, ", "));
+            }
+        }
+        return objs;
+    }
+
+    /**
+     * @return whether the routes of the operations also consume and produce application/x-protobuf
+     */
+    protected boolean negotiateProtobuf() {
+        return true;
+    }
+
+    @Override
+    public CodegenOperation fromOperation(String path, String httpMethod, Operation operation, Map<String, Model> definitions, Swagger swagger) {
+        CodegenOperation op = super.fromOperation(path, httpMethod, operation, definitions, swagger);
+
+        // the benchmarks send the example of the body
+        if (generateBenchmarks && operation.getParameters() != null) {
+            for (Parameter parameter : operation.getParameters()) {
+                Object source = parameter instanceof BodyParameter ? ArmeriaBenchmarks.toExampleSource(((BodyParameter) parameter).getSchema()) : null;
+                if (source != null) {
+                    ArmeriaBenchmarks.addBodyExample(op, getExamples(definitions, null, Collections.singletonList("application/json"), source));
+                }
+            }
+        }
+        return op;
+    }
+
+    /**
+     * @return the folder of the generated StreamingResponseConverter, relative to the output folder
+     */
+    protected String streamingConverterFolder() {
+        return sourceFolder + File.separator + apiPackage.replace('.', File.separatorChar);
+    }
+
+    /**
+     * Get the function which converts the string value of a parameter to its type in a route.
+     *
+     * @param dataType the type of the parameter, or of its items
+     * @return a Kotlin expression of a (String) -&gt; dataType
+     */
+    protected String toRouteConverter(String dataType) {
+        if ("kotlin.String".equals(dataType)) {
+            return "{ it }";
+        } else if ("kotlin.Int".equals(dataType)) {
+            return "String::toInt";
+        } else if ("kotlin.Long".equals(dataType)) {
+            return "String::toLong";
+        } else if ("kotlin.Float".equals(dataType)) {
+            return "String::toFloat";
+        } else if ("kotlin.Double".equals(dataType)) {
+            return "String::toDouble";
+        } else if ("kotlin.Boolean".equals(dataType)) {
+            return "String::toBoolean";
+        } else if ("java.math.BigDecimal".equals(dataType)) {
+            return "{ java.math.BigDecimal(it) }";
+        }
+        // dates, enums and anything else Jackson knows how to read from a string
+        return "{ mapper.convertValue(it, object : TypeReference<" + dataType + ">() {}) }";
+    }
+
+    @Override
+    public String apiFilename(String templateName, String tag) {
+        String result = super.apiFilename(templateName, tag);
+
+        // the benchmarks, and the stubs they call, are in the source set of the JMH plugin
+        if (templateName.endsWith("Benchmark.mustache") || "benchmarkStub.mustache".equals(templateName)) {
+            result = result.replace(apiFileFolder(), benchmarkFileFolder());
+        }
+        return result;
+    }
+
+    private String benchmarkFileFolder() {
+        return outputFolder + File.separator + "src" + File.separator + "jmh" + File.separator + "kotlin"
+                + File.separator + apiPackage().replace('.', File.separatorChar);
+    }
+
     @Override
     public CodegenType getTag() {
         return CodegenType.SERVER;
@@ -125,4 +426,68 @@ public class KotlinArmeriaCodegen extends AbstractKotlinCodegen {
     public void setBasePackage(String basePackage) {
         this.basePackage = basePackage;
     }
+
+    @Override
+    public void setGenerateRoutes(boolean generateRoutes) {
+        this.generateRoutes = generateRoutes;
+    }
+
+    @Override
+    public void setGenerateConverters(boolean generateConverters) {
+        this.generateConverters = generateConverters;
+    }
+
+    @Override
+    public void setJacksonModule(String jacksonModule) {
+        this.jacksonModule = ArmeriaOptions.checkEnum(cliOptions, JACKSON_MODULE, jacksonModule);
+    }
+
+    @Override
+    public void setGenerateValidators(boolean generateValidators) {
+        this.generateValidators = generateValidators;
+    }
+
+    @Override
+    public void setStreaming(boolean streaming) {
+        this.streaming = streaming;
+    }
+
+    @Override
+    public void setStreamingFormat(String streamingFormat) {
+        this.streamingFormat = ArmeriaOptions.checkEnum(cliOptions, STREAMING_FORMAT, streamingFormat);
+    }
+
+    @Override
+    public void setGenerateProtobuf(boolean generateProtobuf) {
+        this.generateProtobuf = generateProtobuf;
+    }
+
+    @Override
+    public void setProtoFieldNumbers(String protoFieldNumbers) {
+        this.protoFieldNumbers = protoFieldNumbers;
+    }
+
+    @Override
+    public void setGenerateMetrics(boolean generateMetrics) {
+        this.generateMetrics = generateMetrics;
+    }
+
+    public void setGenerateBenchmarks(boolean generateBenchmarks) {
+        this.generateBenchmarks = generateBenchmarks;
+    }
+
+    @Override
+    public void setBlocking(boolean blocking) {
+        this.blocking = blocking;
+    }
+
+    @Override
+    public void setBlockingTags(String blockingTags) {
+        this.blockingTags = new HashSet<String>();
+        for (String tag : blockingTags.split(",")) {
+            if (!tag.trim().isEmpty()) {
+                this.blockingTags.add(tag.trim());
+            }
+        }
+    }
 }
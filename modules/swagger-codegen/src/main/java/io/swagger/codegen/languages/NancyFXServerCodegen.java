@@ -333,10 +333,10 @@ public class NancyFXServerCodegen extends AbstractCSharpCodegen {
         final String result;
         if (modelNameMapping.containsValue(name)) {
             final String modelName = modelNameMapping.inverse().get(name);
-            result = importMapping.containsKey(modelName) ?
-                importMapping.get(modelName) : super.toModelImport(name);
-        } else if (importMapping.containsKey(name)) {
-            result = importMapping.get(name);
+            result = resolveImportMapping(modelName) != null ?
+                resolveImportMapping(modelName) : super.toModelImport(name);
+        } else if (resolveImportMapping(name) != null) {
+            result = resolveImportMapping(name);
         } else {
             result = null;
         }
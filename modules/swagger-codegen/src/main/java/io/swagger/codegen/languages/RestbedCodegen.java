@@ -181,8 +181,9 @@ public class RestbedCodegen extends AbstractCppCodegen {
 
   @Override
   public String toModelImport(String name) {
-      if (importMapping.containsKey(name)) {
-          return importMapping.get(name);
+      String mapping = resolveImportMapping(name);
+      if (mapping != null) {
+          return mapping;
       } else {
           return "#include \"" + name + ".h\"";
       }
@@ -202,8 +202,7 @@ public class StaticHtml2Generator extends DefaultCodegen implements CodegenConfi
     private void preparHtmlForGlobalDescription(Swagger swagger) {
         String currentDescription = swagger.getInfo().getDescription();
         if (currentDescription != null && !currentDescription.isEmpty()) {
-            Markdown markInstance = new Markdown();
-            swagger.getInfo().setDescription( markInstance.toHtml(currentDescription) );
+            swagger.getInfo().setDescription( Markdown.getInstance().toHtml(currentDescription) );
         } else {
             LOGGER.error("Swagger object description is empty [" + swagger.getInfo().getTitle() + "]");
         }
@@ -225,9 +224,8 @@ public class StaticHtml2Generator extends DefaultCodegen implements CodegenConfi
                     if (parameter._enum.get(i) != null)
                         enumFormatted += "`" + parameter._enum.get(i) + "`" + spacer;
                 }
-                Markdown markInstance = new Markdown();
                 if (!enumFormatted.isEmpty())
-                    parameter.vendorExtensions.put("x-eumFormatted", markInstance.toHtml(enumFormatted));
+                    parameter.vendorExtensions.put("x-eumFormatted", Markdown.getInstance().toHtml(enumFormatted));
             }
         }
         return parameterList;
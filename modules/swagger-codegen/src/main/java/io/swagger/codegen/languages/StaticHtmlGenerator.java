@@ -13,15 +13,22 @@ import io.swagger.codegen.DefaultCodegen;
 import io.swagger.codegen.SupportingFile;
 import io.swagger.models.Info;
 import io.swagger.models.Model;
+import io.swagger.models.Operation;
+import io.swagger.models.Path;
+import io.swagger.models.Response;
 import io.swagger.models.Swagger;
+import io.swagger.models.Tag;
+import io.swagger.models.parameters.Parameter;
 import io.swagger.models.properties.ArrayProperty;
 import io.swagger.models.properties.MapProperty;
 import io.swagger.models.properties.Property;
-import io.swagger.codegen.utils.Markdown;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import com.samskivert.mustache.Escapers;
 import com.samskivert.mustache.Mustache.Compiler;
@@ -155,7 +162,7 @@ public class StaticHtmlGenerator extends DefaultCodegen implements CodegenConfig
         return compiler.withEscaper(Escapers.NONE);
     }
 
-    private Markdown markdownConverter = new Markdown();
+    private Markdown markdownConverter = Markdown.getInstance();
 
     private static final boolean CONVERT_TO_MARKDOWN_VIA_ESCAPE_TEXT = false;
 
@@ -179,6 +186,10 @@ public class StaticHtmlGenerator extends DefaultCodegen implements CodegenConfig
     }
 
     public void preprocessSwagger(Swagger swagger) {
+        // convert the descriptions up front and in parallel, the conversions below and while
+        // processing the spec then come from the memo
+        markdownConverter.convertAll(collectDescriptions(swagger));
+
         Info info = swagger.getInfo();
         info.setDescription(toHtml(info.getDescription()));
         info.setTitle(toHtml(info.getTitle()));
@@ -189,6 +200,73 @@ public class StaticHtmlGenerator extends DefaultCodegen implements CodegenConfig
         }
     }
 
+    /**
+     * Collect the texts of the spec which are converted from Markdown, i.e. those which are
+     * passed through {@link #escapeText(String)}.
+     */
+    private static Set<String> collectDescriptions(Swagger swagger) {
+        Set<String> texts = new LinkedHashSet<String>();
+        Info info = swagger.getInfo();
+        if (info != null) {
+            texts.add(info.getDescription());
+            texts.add(info.getTitle());
+        }
+        if (swagger.getTags() != null) {
+            for (Tag tag : swagger.getTags()) {
+                texts.add(tag.getDescription());
+            }
+        }
+        if (swagger.getDefinitions() != null) {
+            for (Model model : swagger.getDefinitions().values()) {
+                texts.add(model.getDescription());
+                texts.add(model.getTitle());
+                if (model.getProperties() != null) {
+                    for (Property property : model.getProperties().values()) {
+                        texts.add(property.getDescription());
+                        texts.add(property.getTitle());
+                    }
+                }
+            }
+        }
+        if (swagger.getParameters() != null) {
+            addParameterDescriptions(texts, swagger.getParameters().values());
+        }
+        if (swagger.getResponses() != null) {
+            addResponseDescriptions(texts, swagger.getResponses().values());
+        }
+        if (swagger.getPaths() != null) {
+            for (Path path : swagger.getPaths().values()) {
+                if (path.getParameters() != null) {
+                    addParameterDescriptions(texts, path.getParameters());
+                }
+                for (Operation operation : path.getOperations()) {
+                    texts.add(operation.getSummary());
+                    texts.add(operation.getDescription());
+                    if (operation.getParameters() != null) {
+                        addParameterDescriptions(texts, operation.getParameters());
+                    }
+                    if (operation.getResponses() != null) {
+                        addResponseDescriptions(texts, operation.getResponses().values());
+                    }
+                }
+            }
+        }
+        texts.remove(null);
+        return texts;
+    }
+
+    private static void addParameterDescriptions(Set<String> texts, Collection<Parameter> parameters) {
+        for (Parameter parameter : parameters) {
+            texts.add(parameter.getDescription());
+        }
+    }
+
+    private static void addResponseDescriptions(Set<String> texts, Collection<Response> responses) {
+        for (Response response : responses) {
+            texts.add(response.getDescription());
+        }
+    }
+
     // override to post-process any parameters
     public void postProcessParameter(CodegenParameter parameter) {
         parameter.description = toHtml(parameter.description);
@@ -0,0 +1,60 @@
+package io.swagger.codegen.languages.features;
+
+public interface ArmeriaFeatures {
+
+    // Generate a <Tag>Routes class binding the operations without annotated service reflection
+    public static final String GENERATE_ROUTES = "generateRoutes";
+
+    // Generate a <Tag>Converters class with cached Jackson readers and writers, and its benchmark
+    public static final String GENERATE_CONVERTERS = "generateConverters";
+
+    // Jackson module registered by the generated converters: afterburner or blackbird
+    public static final String JACKSON_MODULE = "jacksonModule";
+
+    // Generate plain code checking the constraints of the models and parameters, called by the generated converters
+    public static final String GENERATE_VALIDATORS = "generateValidators";
+
+    // Generate a protobuf schema of the models and their conversions, to exchange application/x-protobuf bodies next to JSON
+    public static final String GENERATE_PROTOBUF = "generateProtobuf";
+
+    // Numbering file of the protobuf fields written by a previous generation, to keep their numbers stable
+    public static final String PROTO_FIELD_NUMBERS = "protoFieldNumbers";
+
+    // Generate a <Tag>Metrics class decorating every operation with its meters, installed by ApiMetrics
+    public static final String GENERATE_METRICS = "generateMetrics";
+
+    // Run every operation on the blocking task executor unless its x-blocking vendor extension says otherwise
+    public static final String BLOCKING = "blocking";
+
+    // Comma-separated tags whose operations run on the blocking task executor
+    public static final String BLOCKING_TAGS = "blockingTags";
+
+    // Stream every array response unless its x-streaming vendor extension is false
+    public static final String STREAMING = "streaming";
+
+    // Format of the streamed array responses: ndjson or json-seq
+    public static final String STREAMING_FORMAT = "streamingFormat";
+
+    public void setGenerateRoutes(boolean generateRoutes);
+
+    public void setGenerateConverters(boolean generateConverters);
+
+    public void setJacksonModule(String jacksonModule);
+
+    public void setGenerateValidators(boolean generateValidators);
+
+    public void setGenerateProtobuf(boolean generateProtobuf);
+
+    public void setProtoFieldNumbers(String protoFieldNumbers);
+
+    public void setGenerateMetrics(boolean generateMetrics);
+
+    public void setBlocking(boolean blocking);
+
+    public void setBlockingTags(String blockingTags);
+
+    public void setStreaming(boolean streaming);
+
+    public void setStreamingFormat(String streamingFormat);
+
+}
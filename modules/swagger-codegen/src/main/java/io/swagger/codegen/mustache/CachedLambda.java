@@ -0,0 +1,102 @@
+package io.swagger.codegen.mustache;
+
+import com.samskivert.mustache.Mustache;
+import com.samskivert.mustache.Template;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Renders a fragment once per context object, and writes the remembered output when the same
+ * object is rendered again, e.g. a shared error model which is included for every operation.
+ *
+ * Rendered fragments are keyed by the source of the section and the identity of the context
+ * object, so the fragment must depend on nothing but that object. Different sections can share
+ * one instance.
+ *
+ * Register:
+ * <pre>
+ * additionalProperties.put("cached", new CachedLambda());
+ * </pre>
+ *
+ * Use:
+ * <pre>
+ * {{#errorModel}}{{#cached}}{{>errorModel}}{{/cached}}{{/errorModel}}
+ * </pre>
+ */
+public class CachedLambda implements Mustache.Lambda {
+    public static final int DEFAULT_CACHE_SIZE = 1024;
+
+    // least recently used fragments, guarded by itself
+    private final Map<Key, String> cache;
+
+    public CachedLambda() {
+        this(DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * @param cacheSize maximum number of rendered fragments to remember
+     */
+    public CachedLambda(final int cacheSize) {
+        if (cacheSize < 0) {
+            throw new IllegalArgumentException("cacheSize must not be negative");
+        }
+        this.cache = new LinkedHashMap<Key, String>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, String> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    @Override
+    public void execute(Template.Fragment fragment, Writer writer) throws IOException {
+        Key key = new Key(fragment.decompile(), fragment.context());
+        String text;
+        synchronized (cache) {
+            text = cache.get(key);
+        }
+        if (text == null) {
+            text = fragment.execute();
+            synchronized (cache) {
+                cache.put(key, text);
+            }
+        }
+        writer.write(text);
+    }
+
+    /**
+     * Forget all rendered fragments.
+     */
+    public void clear() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    private static class Key {
+        private final String source;
+        private final Object context;
+
+        Key(String source, Object context) {
+            this.source = source;
+            this.context = context;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return key.context == context && key.source.equals(source);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(context) + source.hashCode();
+        }
+    }
+}
@@ -1,15 +1,7 @@
 package io.swagger.codegen.mustache;
 
-import com.google.common.base.CaseFormat;
-import com.samskivert.mustache.Mustache;
-import com.samskivert.mustache.Template;
 import io.swagger.codegen.CodegenConfig;
 import io.swagger.codegen.DefaultCodegen;
-import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.text.WordUtils;
-
-import java.io.IOException;
-import java.io.Writer;
 
 /**
  * Converts text in a fragment to camelCase.
@@ -24,7 +16,7 @@ import java.io.Writer;
  * {{#camelcase}}{{name}}{{/camelcase}}
  * </pre>
  */
-public class CamelCaseLambda implements Mustache.Lambda {
+public class CamelCaseLambda extends MemoizingLambda {
     private CodegenConfig generator = null;
     private Boolean escapeParam = false;
 
@@ -34,17 +26,19 @@ public class CamelCaseLambda implements Mustache.Lambda {
 
     public CamelCaseLambda generator(final CodegenConfig generator) {
         this.generator = generator;
+        clear();
         return this;
     }
 
     public CamelCaseLambda escapeAsParamName(final Boolean escape) {
         this.escapeParam = escape;
+        clear();
         return this;
     }
 
     @Override
-    public void execute(Template.Fragment fragment, Writer writer) throws IOException {
-        String text = DefaultCodegen.camelize(fragment.execute(), true);
+    protected String formatFragment(String fragment) {
+        String text = DefaultCodegen.camelize(fragment, true);
         if (generator != null) {
             text = generator.sanitizeName(text);
             if (generator.reservedWords().contains(text)) {
@@ -58,6 +52,6 @@ public class CamelCaseLambda implements Mustache.Lambda {
                 text = generator.toParamName(text);
             }
         }
-        writer.write(text);
+        return text;
     }
 }
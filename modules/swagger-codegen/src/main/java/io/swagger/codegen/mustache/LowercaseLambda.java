@@ -1,12 +1,7 @@
 package io.swagger.codegen.mustache;
 
-import com.samskivert.mustache.Mustache;
-import com.samskivert.mustache.Template;
 import io.swagger.codegen.CodegenConfig;
 
-import java.io.IOException;
-import java.io.Writer;
-
 /**
  * Converts text in a fragment to lowercase.
  *
@@ -20,7 +15,7 @@ import java.io.Writer;
  * {{#lowercase}}{{httpMethod}}{{/lowercase}}
  * </pre>
  */
-public class LowercaseLambda implements Mustache.Lambda {
+public class LowercaseLambda extends MemoizingLambda {
     private CodegenConfig generator = null;
 
     public LowercaseLambda() {
@@ -29,16 +24,16 @@ public class LowercaseLambda implements Mustache.Lambda {
 
     public LowercaseLambda generator(final CodegenConfig generator) {
         this.generator = generator;
+        clear();
         return this;
     }
 
     @Override
-    public void execute(Template.Fragment fragment, Writer writer) throws IOException {
-        String text = fragment.execute().toLowerCase();
+    protected String formatFragment(String fragment) {
+        String text = fragment.toLowerCase();
         if (generator != null && generator.reservedWords().contains(text)) {
             text = generator.escapeReservedWord(text);
         }
-        writer.write(text);
-
+        return text;
     }
 }
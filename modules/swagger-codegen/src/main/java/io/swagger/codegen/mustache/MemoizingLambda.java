@@ -0,0 +1,85 @@
+package io.swagger.codegen.mustache;
+
+import com.samskivert.mustache.Mustache;
+import com.samskivert.mustache.Template;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Base class for lambdas which transform the text of a fragment, and always transform the same
+ * text the same way.
+ *
+ * The transformations are remembered in a bounded memo keyed by the fragment text, so names that
+ * are repeated for every operation and property are only transformed once. Lambdas are created
+ * by the generator while processing its options, so the memo lives as long as one run. The memo
+ * is safe to use from parallel renders; subclasses must not change state which affects
+ * {@link #formatFragment(String)} once rendering started, other than through {@link #clear()}.
+ */
+public abstract class MemoizingLambda implements Mustache.Lambda {
+    public static final int DEFAULT_CACHE_SIZE = 4096;
+
+    // least recently used transformations, guarded by itself
+    private final Map<String, String> cache;
+
+    protected MemoizingLambda() {
+        this(DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * @param cacheSize maximum number of transformations to remember, 0 to disable the memo
+     */
+    protected MemoizingLambda(final int cacheSize) {
+        if (cacheSize < 0) {
+            throw new IllegalArgumentException("cacheSize must not be negative");
+        }
+        this.cache = new LinkedHashMap<String, String>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    @Override
+    public void execute(Template.Fragment fragment, Writer writer) throws IOException {
+        writer.write(format(fragment.execute()));
+    }
+
+    /**
+     * Transform text, or return the remembered transformation of the same text.
+     *
+     * @param text the executed fragment
+     * @return the transformed text
+     */
+    public String format(String text) {
+        String formatted;
+        synchronized (cache) {
+            formatted = cache.get(text);
+        }
+        if (formatted == null) {
+            formatted = formatFragment(text);
+            synchronized (cache) {
+                cache.put(text, formatted);
+            }
+        }
+        return formatted;
+    }
+
+    /**
+     * Forget all remembered transformations, e.g. after changing the configuration of the lambda.
+     */
+    public void clear() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * @param text the executed fragment
+     * @return the transformed text
+     */
+    protected abstract String formatFragment(String text);
+}
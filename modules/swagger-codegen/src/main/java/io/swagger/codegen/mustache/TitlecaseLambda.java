@@ -1,11 +1,5 @@
 package io.swagger.codegen.mustache;
 
-import com.samskivert.mustache.Mustache;
-import com.samskivert.mustache.Template;
-
-import java.io.IOException;
-import java.io.Writer;
-
 /**
  * Converts text in a fragment to title case.
  *
@@ -19,8 +13,8 @@ import java.io.Writer;
  * {{#titlecase}}{{classname}}{{/titlecase}}
  * </pre>
  */
-public class TitlecaseLambda implements Mustache.Lambda  {
-    private String delimiter;
+public class TitlecaseLambda extends MemoizingLambda {
+    private final String delimiter;
 
     /**
      * Constructs a new instance of {@link TitlecaseLambda}, which will convert all text
@@ -47,22 +41,22 @@ public class TitlecaseLambda implements Mustache.Lambda  {
     }
 
     @Override
-    public void execute(Template.Fragment fragment, Writer writer) throws IOException {
-        String text = fragment.execute();
+    protected String formatFragment(String text) {
         if (delimiter == null) {
-            writer.write(titleCase(text));
-            return;
+            return titleCase(text);
         }
 
         // Split accepts regex. \Q and \E wrap the delimiter to create a literal regex,
         // so things like "." and "|" aren't treated as their regex equivalents.
         String[] parts = text.split("\\Q" + delimiter + "\\E");
+        StringBuilder sb = new StringBuilder();
         for (int i = 0; i < parts.length; i++) {
             String part = parts[i];
-            writer.write(titleCase(part));
+            sb.append(titleCase(part));
             if (i != parts.length - 1) {
-                writer.write(delimiter);
+                sb.append(delimiter);
             }
         }
+        return sb.toString();
     }
 }
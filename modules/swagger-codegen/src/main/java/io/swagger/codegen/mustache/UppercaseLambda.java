@@ -1,11 +1,5 @@
 package io.swagger.codegen.mustache;
 
-import com.samskivert.mustache.Mustache;
-import com.samskivert.mustache.Template;
-
-import java.io.IOException;
-import java.io.Writer;
-
 /**
  * Converts text in a fragment to uppercase.
  *
@@ -19,10 +13,9 @@ import java.io.Writer;
  * {{#uppercase}}{{summary}}{{/uppercase}}
  * </pre>
  */
-public class UppercaseLambda implements Mustache.Lambda {
+public class UppercaseLambda extends MemoizingLambda {
     @Override
-    public void execute(Template.Fragment fragment, Writer writer) throws IOException {
-        String text = fragment.execute();
-        writer.write(text.toUpperCase());
+    protected String formatFragment(String text) {
+        return text.toUpperCase();
     }
 }
@@ -4,18 +4,58 @@ import org.commonmark.node.Node;
 import org.commonmark.parser.Parser;
 import org.commonmark.renderer.html.HtmlRenderer;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 
 /**
  * Utility class to convert Markdown (CommonMark) to HTML.
  * <a href='https://github.com/atlassian/commonmark-java/issues/83'>This class is threadsafe.</a>
+ *
+ * Conversions are memoized, since documentation generators convert the same descriptions over
+ * and over. Use {@link #getInstance()} to share the parser, renderer and memo across callers.
  */
 public class Markdown {
 
+    public static final int DEFAULT_CACHE_SIZE = 10000;
+
+    private static final Markdown INSTANCE = new Markdown();
+
     // see https://github.com/atlassian/commonmark-java
     private final Parser parser = Parser.builder().build();
     private final HtmlRenderer renderer = HtmlRenderer.builder().build();
 
-    /** 
+    // least recently used conversions, guarded by itself
+    private final Map<String, String> cache;
+
+    public Markdown() {
+        this(DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * @param cacheSize maximum number of conversions to remember, 0 to disable the memo
+     */
+    public Markdown(final int cacheSize) {
+        if (cacheSize < 0) {
+            throw new IllegalArgumentException("cacheSize must not be negative");
+        }
+        this.cache = new LinkedHashMap<String, String>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * @return the shared converter
+     */
+    public static Markdown getInstance() {
+        return INSTANCE;
+    }
+
+    /**
      * Convert input markdown text to HTML.
      * Simple text is not wrapped in <p>...</p>.
      * @param markdown text with Markdown styles. If <code>null</code>, <code>""</code> is returned.
@@ -24,12 +64,30 @@ public class Markdown {
     public String toHtml(String markdown) {
         if (markdown == null)
             return "";
+        String html;
+        synchronized (cache) {
+            html = cache.get(markdown);
+        }
+        if (html != null)
+            return html;
         Node document = parser.parse(markdown);
-        String html = renderer.render(document);
+        html = renderer.render(document);
         html = unwrapped(html);
+        synchronized (cache) {
+            cache.put(markdown, html);
+        }
         return html;
     }
-    
+
+    /**
+     * Convert texts in parallel, so that later calls to {@link #toHtml(String)} for them are
+     * served from the memo. Only as many texts as the memo holds are worth passing.
+     * @param markdown texts with Markdown styles; <code>null</code> elements are ignored
+     */
+    public void convertAll(Collection<String> markdown) {
+        markdown.parallelStream().forEach(this::toHtml);
+    }
+
     // The CommonMark library wraps the HTML with
     //  <p> ... html ... </p>\n
     // This method removes that markup wrapper if there are no other <p> elements,
@@ -0,0 +1,167 @@
+package io.swagger.codegen.utils;
+
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Copies static supporting files (jars, fonts, scripts, ...) into the output folder.
+ *
+ * Targets which already have the same size and checksum as their source are left alone. The
+ * checksums of embedded resources are computed once per JVM and resource URL, so class loaders
+ * serving different content under the same name don't share them, and files on disk are copied with
+ * {@link Files#copy}, which lets the file system transfer them without going through the heap.
+ */
+public class StaticFileCopier {
+    private static final Logger LOGGER = LoggerFactory.getLogger(StaticFileCopier.class);
+
+    // checksums of classpath resources by resolved URL, they don't change while the JVM runs
+    private static final ConcurrentMap<String, Checksum> RESOURCE_CHECKSUMS = new ConcurrentHashMap<String, Checksum>();
+
+    private final ClassLoader classLoader;
+    private final AtomicLong filesCopied = new AtomicLong();
+    private final AtomicLong bytesCopied = new AtomicLong();
+    private final AtomicLong filesSkipped = new AtomicLong();
+    private final AtomicLong bytesSkipped = new AtomicLong();
+
+    public StaticFileCopier(ClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * Copy a file from disk or, if there is no such file, from the classpath.
+     *
+     * @param source path of the file on disk, or of the classpath resource
+     * @param resource the classpath resource name, using '/' as separator
+     * @param target the file to copy to
+     * @return true if the target was written, false if it was already up to date
+     * @throws IOException if the source can't be found or the target can't be written
+     */
+    public boolean copy(String source, String resource, File target) throws IOException {
+        File file = new File(source);
+        if (file.isFile()) {
+            if (target.isFile() && target.length() == file.length()
+                    && checksum(new FileInputStream(file)).equals(checksum(new FileInputStream(target)))) {
+                return skipped(target);
+            }
+            LOGGER.info("writing file " + target);
+            Files.copy(file.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            return copied(target);
+        }
+
+        URL url = classLoader.getResource(resource);
+        if (url == null) {
+            throw new FileNotFoundException("can't open " + source + " for input");
+        }
+        String key = url.toExternalForm();
+        Checksum expected = RESOURCE_CHECKSUMS.get(key);
+        if (expected == null) {
+            expected = checksum(url.openStream());
+            RESOURCE_CHECKSUMS.putIfAbsent(key, expected);
+        }
+        if (target.isFile() && target.length() == expected.size && expected.equals(checksum(new FileInputStream(target)))) {
+            return skipped(target);
+        }
+
+        InputStream in = url.openStream();
+        LOGGER.info("writing file " + target);
+        try {
+            Files.copy(in, target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            IOUtils.closeQuietly(in);
+        }
+        return copied(target);
+    }
+
+    public long getFilesCopied() {
+        return filesCopied.get();
+    }
+
+    public long getBytesCopied() {
+        return bytesCopied.get();
+    }
+
+    public long getFilesSkipped() {
+        return filesSkipped.get();
+    }
+
+    public long getBytesSkipped() {
+        return bytesSkipped.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("copied %d static files (%d bytes), skipped %d unchanged (%d bytes)",
+                getFilesCopied(), getBytesCopied(), getFilesSkipped(), getBytesSkipped());
+    }
+
+    private boolean copied(File target) {
+        filesCopied.incrementAndGet();
+        bytesCopied.addAndGet(target.length());
+        return true;
+    }
+
+    private boolean skipped(File target) {
+        LOGGER.debug("Skipped unchanged file " + target);
+        filesSkipped.incrementAndGet();
+        bytesSkipped.addAndGet(target.length());
+        return false;
+    }
+
+    private static Checksum checksum(InputStream in) throws IOException {
+        try {
+            DigestInputStream digest = new DigestInputStream(in, MessageDigest.getInstance("MD5"));
+            byte[] buffer = new byte[8192];
+            long size = 0;
+            int read;
+            while ((read = digest.read(buffer)) != -1) {
+                size += read;
+            }
+            return new Checksum(size, new BigInteger(1, digest.getMessageDigest().digest()).toString(16));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            IOUtils.closeQuietly(in);
+        }
+    }
+
+    private static class Checksum {
+        private final long size;
+        private final String digest;
+
+        Checksum(long size, String digest) {
+            this.size = size;
+            this.digest = digest;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Checksum)) {
+                return false;
+            }
+            Checksum other = (Checksum) o;
+            return size == other.size && digest.equals(other.digest);
+        }
+
+        @Override
+        public int hashCode() {
+            return digest.hashCode();
+        }
+    }
+}
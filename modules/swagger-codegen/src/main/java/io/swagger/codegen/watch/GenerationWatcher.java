@@ -0,0 +1,543 @@
+package io.swagger.codegen.watch;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.samskivert.mustache.Template;
+import io.swagger.codegen.ClientOptInput;
+import io.swagger.codegen.CodegenConfig;
+import io.swagger.codegen.CodegenConstants;
+import io.swagger.codegen.CodegenOperation;
+import io.swagger.codegen.DefaultCodegen;
+import io.swagger.codegen.DefaultGenerator;
+import io.swagger.codegen.SupportingFile;
+import io.swagger.codegen.config.CodegenConfigurator;
+import io.swagger.models.ComposedModel;
+import io.swagger.models.HttpMethod;
+import io.swagger.models.Model;
+import io.swagger.models.Operation;
+import io.swagger.models.Path;
+import io.swagger.models.Swagger;
+import io.swagger.util.Json;
+import io.swagger.util.Yaml;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generates again whenever the input spec, a file it refers to or a custom template changes.
+ *
+ * Bursts of changes are collected until nothing changed for the debounce interval. A cycle then
+ * only renders the models and apis the change affects: definitions which changed, the models and
+ * operations referring to them, and the related models of changed composed models. Template
+ * changes render whatever uses the template, or everything when a partial changed. The parsed
+ * spec is reused, as a copy, when only templates changed, and compiled templates are kept between cycles.
+ */
+public class GenerationWatcher implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(GenerationWatcher.class);
+
+    public static final long DEFAULT_DEBOUNCE_MILLIS = 300;
+
+    private static final ObjectMapper MAPPER = Json.mapper();
+
+    private final CodegenConfigurator configurator;
+    private final long debounceMillis;
+    private final Map<String, Template> compiledTemplates = new ConcurrentHashMap<String, Template>();
+
+    private WatchService watchService;
+    private final Map<WatchKey, java.nio.file.Path> watchedDirectories = new HashMap<WatchKey, java.nio.file.Path>();
+    private final Set<java.nio.file.Path> specFiles = new HashSet<java.nio.file.Path>();
+    private java.nio.file.Path templateDir;
+
+    // the spec as it was read, which the generations don't modify
+    private Swagger swagger;
+    private CodegenConfig config;
+    private SpecDigest digest;
+
+    public GenerationWatcher(CodegenConfigurator configurator) {
+        this(configurator, DEFAULT_DEBOUNCE_MILLIS);
+    }
+
+    /**
+     * @param configurator the options to generate with
+     * @param debounceMillis how long nothing must change before generating again
+     */
+    public GenerationWatcher(CodegenConfigurator configurator, long debounceMillis) {
+        this.configurator = configurator;
+        this.debounceMillis = debounceMillis;
+        if (StringUtils.isNotEmpty(configurator.getTemplateDir())) {
+            this.templateDir = Paths.get(configurator.getTemplateDir()).toAbsolutePath().normalize();
+        }
+    }
+
+    /**
+     * Generate everything, then again after each change, until the thread is interrupted.
+     *
+     * @throws IOException if the files can't be watched
+     */
+    public void run() throws IOException {
+        watchService = FileSystems.getDefault().newWatchService();
+        generate(null);
+        if (templateDir != null && Files.isDirectory(templateDir)) {
+            registerTree(templateDir);
+        }
+        LOGGER.info("Watching " + specFiles.size() + " spec files" + (templateDir != null ? " and " + templateDir : "") + " for changes");
+
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                Set<java.nio.file.Path> changed = new LinkedHashSet<java.nio.file.Path>();
+                boolean overflow = collect(key, changed);
+                // wait for the burst to end, editors often write a file several times
+                while ((key = watchService.poll(debounceMillis, TimeUnit.MILLISECONDS)) != null) {
+                    overflow |= collect(key, changed);
+                }
+                if (overflow) {
+                    generate(null);
+                } else if (!changed.isEmpty()) {
+                    generate(changed);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    /**
+     * Run one cycle.
+     *
+     * @param changed the files which changed, or null to generate everything
+     * @return the rendered files, or null if nothing was generated
+     */
+    public List<File> generate(Collection<java.nio.file.Path> changed) {
+        long started = System.nanoTime();
+        boolean specChanged = changed == null || swagger == null;
+        boolean templatesChanged = changed == null;
+        Set<String> changedTemplates = new HashSet<String>();
+        if (changed != null) {
+            for (java.nio.file.Path path : changed) {
+                if (specFiles.contains(path)) {
+                    specChanged = true;
+                } else if (templateDir != null && path.startsWith(templateDir)) {
+                    templatesChanged = true;
+                    changedTemplates.add(getTemplateName(templateDir.relativize(path)));
+                }
+            }
+        }
+        if (!specChanged && !templatesChanged) {
+            return null;
+        }
+        if (templatesChanged) {
+            // a partial is compiled into every template using it
+            compiledTemplates.clear();
+        }
+
+        Swagger current = swagger;
+        if (specChanged) {
+            current = configurator.readSwagger();
+            if (current == null) {
+                LOGGER.error("Could not read " + configurator.getInputSpec() + ", waiting for the next change");
+                return null;
+            }
+            refreshSpecFiles();
+        }
+        long parsed = System.nanoTime();
+
+        Scope scope;
+        SpecDigest currentDigest = digest;
+        try {
+            // the generator modifies the spec it is given, the next cycle may need it as it was read
+            ClientOptInput input = configurator.toClientOptInput(MAPPER.convertValue(current, Swagger.class));
+            if (specChanged) {
+                currentDigest = new SpecDigest(current, input.getConfig());
+            }
+            scope = getScope(changed == null || digest == null, specChanged ? currentDigest : null, changedTemplates);
+            if (scope == null) {
+                LOGGER.info("No changes to generate after " + millis(started, parsed) + " ms of parsing");
+                swagger = current;
+                digest = currentDigest;
+                return null;
+            }
+
+            DefaultGenerator generator = new DefaultGenerator();
+            generator.setCompiledTemplates(compiledTemplates);
+            scope.configure(generator);
+            List<File> files = generator.opts(input).generate();
+            config = input.getConfig();
+            swagger = current;
+            digest = currentDigest;
+
+            long done = System.nanoTime();
+            LOGGER.info(String.format("Generated %d files (%s) in %d ms: %d ms reading the spec, %d ms generating",
+                    files.size(), scope, millis(started, done), millis(started, parsed), millis(parsed, done)));
+            return files;
+        } catch (RuntimeException e) {
+            LOGGER.error("Generation failed, waiting for the next change", e);
+            return null;
+        }
+    }
+
+    private Scope getScope(boolean everything, SpecDigest changedSpec, Set<String> changedTemplates) {
+        if (everything || config == null) {
+            return new Scope(null, null, true);
+        }
+        Set<String> models = new HashSet<String>();
+        Set<String> apis = new HashSet<String>();
+        boolean allModels = false;
+        boolean allApis = false;
+        boolean supportingFiles = false;
+
+        if (changedSpec != null) {
+            if (!changedSpec.global.equals(digest.global) || !changedSpec.definitions.keySet().equals(digest.definitions.keySet())) {
+                return new Scope(null, null, true);
+            }
+            Set<String> changedModels = new HashSet<String>();
+            for (Map.Entry<String, String> definition : changedSpec.definitions.entrySet()) {
+                if (!definition.getValue().equals(digest.definitions.get(definition.getKey()))) {
+                    changedModels.add(definition.getKey());
+                }
+            }
+            models.addAll(changedModels);
+            for (String name : changedModels) {
+                // parents and interfaces of a composed model list it as a child
+                if (changedSpec.parents.containsKey(name)) {
+                    models.addAll(changedSpec.parents.get(name));
+                }
+            }
+            for (Map.Entry<String, Set<String>> references : changedSpec.references.entrySet()) {
+                if (!Collections.disjoint(references.getValue(), changedModels)) {
+                    models.add(references.getKey());
+                }
+            }
+
+            Set<String> tags = new HashSet<String>(changedSpec.operations.keySet());
+            tags.addAll(digest.operations.keySet());
+            for (String tag : tags) {
+                String operations = changedSpec.operations.get(tag);
+                if (operations == null || !operations.equals(digest.operations.get(tag))) {
+                    apis.add(tag);
+                    continue;
+                }
+                for (String model : changedModels) {
+                    if (operations.contains("\"#/definitions/" + model + "\"")) {
+                        apis.add(tag);
+                        break;
+                    }
+                }
+            }
+            if (!changedSpec.groupsByTag) {
+                allApis = !apis.isEmpty();
+            }
+            supportingFiles = !models.isEmpty() || !apis.isEmpty();
+        }
+
+        for (String template : changedTemplates) {
+            if (config.modelTemplateFiles().containsKey(template) || config.modelDocTemplateFiles().containsKey(template)
+                    || config.modelTestTemplateFiles().containsKey(template)) {
+                allModels = true;
+            } else if (config.apiTemplateFiles().containsKey(template) || config.apiDocTemplateFiles().containsKey(template)
+                    || config.apiTestTemplateFiles().containsKey(template)) {
+                allApis = true;
+            } else if (isSupportingFileTemplate(template)) {
+                supportingFiles = true;
+            } else {
+                // a partial, or a file of the generator we know nothing about
+                return new Scope(null, null, true);
+            }
+        }
+
+        if (!allModels && !allApis && !supportingFiles && models.isEmpty() && apis.isEmpty()) {
+            return null;
+        }
+        return new Scope(allModels ? null : models, allApis ? null : apis, supportingFiles);
+    }
+
+    private boolean isSupportingFileTemplate(String template) {
+        for (SupportingFile supportingFile : config.supportingFiles()) {
+            if (template.equals(supportingFile.templateFile.replace(File.separatorChar, '/'))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String getTemplateName(java.nio.file.Path relative) {
+        String name = relative.toString().replace(File.separatorChar, '/');
+        if (name.startsWith("libraries/")) {
+            int library = name.indexOf('/', "libraries/".length());
+            if (library > 0) {
+                name = name.substring(library + 1);
+            }
+        }
+        return name;
+    }
+
+    private boolean collect(WatchKey key, Set<java.nio.file.Path> changed) throws IOException {
+        java.nio.file.Path directory = watchedDirectories.get(key);
+        boolean overflow = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                overflow = true;
+                continue;
+            }
+            if (directory == null) {
+                continue;
+            }
+            java.nio.file.Path path = directory.resolve((java.nio.file.Path) event.context()).normalize();
+            if (templateDir != null && path.startsWith(templateDir)) {
+                if (Files.isDirectory(path)) {
+                    registerTree(path);
+                } else {
+                    changed.add(path);
+                }
+            } else if (specFiles.contains(path)) {
+                changed.add(path);
+            }
+        }
+        if (!key.reset()) {
+            watchedDirectories.remove(key);
+        }
+        return overflow;
+    }
+
+    /**
+     * Find the spec and the local files it refers to with relative $refs, and watch their folders.
+     */
+    private void refreshSpecFiles() {
+        specFiles.clear();
+        File spec = new File(configurator.getInputSpec());
+        if (!spec.isFile()) {
+            // a remote spec can't be watched
+            return;
+        }
+        List<java.nio.file.Path> pending = new ArrayList<java.nio.file.Path>();
+        pending.add(spec.toPath().toAbsolutePath().normalize());
+        while (!pending.isEmpty()) {
+            java.nio.file.Path file = pending.remove(pending.size() - 1);
+            if (!specFiles.add(file) || !Files.isRegularFile(file)) {
+                continue;
+            }
+            try {
+                register(file.getParent());
+                String contents = new String(Files.readAllBytes(file), "UTF-8");
+                JsonNode node = contents.trim().startsWith("{") ? Json.mapper().readTree(contents) : Yaml.mapper().readTree(contents);
+                for (String ref : collectRefs(node, new ArrayList<String>())) {
+                    if (ref.startsWith("#") || ref.contains("://")) {
+                        continue;
+                    }
+                    int fragment = ref.indexOf('#');
+                    String relative = fragment >= 0 ? ref.substring(0, fragment) : ref;
+                    if (!relative.isEmpty()) {
+                        pending.add(file.getParent().resolve(relative).normalize());
+                    }
+                }
+            } catch (IOException e) {
+                LOGGER.warn("Could not read " + file + " to find the files it refers to: " + e.getMessage());
+            }
+        }
+    }
+
+    private static List<String> collectRefs(JsonNode node, List<String> refs) {
+        if (node == null) {
+            return refs;
+        }
+        if (node.isObject()) {
+            Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                if ("$ref".equals(field.getKey()) && field.getValue().isTextual()) {
+                    refs.add(field.getValue().asText());
+                } else {
+                    collectRefs(field.getValue(), refs);
+                }
+            }
+        } else if (node.isArray()) {
+            for (JsonNode element : node) {
+                collectRefs(element, refs);
+            }
+        }
+        return refs;
+    }
+
+    private void registerTree(java.nio.file.Path root) throws IOException {
+        Files.walkFileTree(root, new SimpleFileVisitor<java.nio.file.Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(java.nio.file.Path dir, BasicFileAttributes attrs) throws IOException {
+                register(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private void register(java.nio.file.Path directory) throws IOException {
+        if (watchService == null || watchedDirectories.containsValue(directory)) {
+            return;
+        }
+        WatchKey key = directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        watchedDirectories.put(key, directory);
+    }
+
+    private static long millis(long from, long to) {
+        return TimeUnit.NANOSECONDS.toMillis(to - from);
+    }
+
+    /**
+     * What a cycle renders: some or all models and apis, and the supporting files or not.
+     */
+    private static class Scope {
+        private final Set<String> models;
+        private final Set<String> apis;
+        private final boolean supportingFiles;
+
+        Scope(Set<String> models, Set<String> apis, boolean supportingFiles) {
+            this.models = models;
+            this.apis = apis;
+            this.supportingFiles = supportingFiles;
+        }
+
+        void configure(DefaultGenerator generator) {
+            generator.setFilesToRender(models, apis);
+            if (System.getProperty(CodegenConstants.APIS) == null && System.getProperty(CodegenConstants.MODELS) == null
+                    && System.getProperty(CodegenConstants.SUPPORTING_FILES) == null) {
+                // models are always processed, operations and supporting files need them
+                boolean processApis = apis == null || !apis.isEmpty() || supportingFiles;
+                generator.setGeneratorPropertyDefault(CodegenConstants.MODELS, "true");
+                generator.setGeneratorPropertyDefault(CodegenConstants.APIS, String.valueOf(processApis));
+                generator.setGeneratorPropertyDefault(CodegenConstants.SUPPORTING_FILES, String.valueOf(supportingFiles));
+            }
+        }
+
+        @Override
+        public String toString() {
+            if (models == null && apis == null && supportingFiles) {
+                return "everything";
+            }
+            return (models == null ? "all" : String.valueOf(models.size())) + " models, "
+                    + (apis == null ? "all" : String.valueOf(apis.size())) + " apis"
+                    + (supportingFiles ? ", supporting files" : "");
+        }
+    }
+
+    /**
+     * What's compared between two versions of the spec to find the affected models and apis.
+     */
+    private static class SpecDigest {
+        // everything but the definitions and paths
+        private final String global;
+        private final Map<String, String> definitions = new TreeMap<String, String>();
+        // definitions referred to by each definition
+        private final Map<String, Set<String>> references = new HashMap<String, Set<String>>();
+        // definitions referred to by composed models
+        private final Map<String, Set<String>> parents = new HashMap<String, Set<String>>();
+        // the operations of each api, as the generator groups them by default
+        private final Map<String, String> operations = new TreeMap<String, String>();
+        private final boolean groupsByTag;
+
+        SpecDigest(Swagger swagger, CodegenConfig config) {
+            try {
+                Map<String, Model> swaggerDefinitions = swagger.getDefinitions() != null ? swagger.getDefinitions() : new HashMap<String, Model>();
+                Map<String, Path> paths = swagger.getPaths() != null ? swagger.getPaths() : new HashMap<String, Path>();
+                swagger.setDefinitions(null);
+                swagger.setPaths(null);
+                try {
+                    global = MAPPER.writeValueAsString(swagger);
+                } finally {
+                    swagger.setDefinitions(swaggerDefinitions);
+                    swagger.setPaths(paths);
+                }
+
+                for (Map.Entry<String, Model> definition : swaggerDefinitions.entrySet()) {
+                    String json = MAPPER.writeValueAsString(definition.getValue());
+                    definitions.put(definition.getKey(), json);
+                    Set<String> referenced = new HashSet<String>();
+                    for (String name : swaggerDefinitions.keySet()) {
+                        if (json.contains("\"#/definitions/" + name + "\"")) {
+                            referenced.add(name);
+                        }
+                    }
+                    if (definition.getValue() instanceof ComposedModel) {
+                        ComposedModel composed = (ComposedModel) definition.getValue();
+                        if (composed.getParent() != null && composed.getParent().getReference() != null) {
+                            referenced.add(simpleRef(composed.getParent().getReference()));
+                        }
+                        parents.put(definition.getKey(), referenced);
+                    }
+                    references.put(definition.getKey(), referenced);
+                }
+
+                Map<String, StringBuilder> tags = new TreeMap<String, StringBuilder>();
+                for (Map.Entry<String, Path> path : paths.entrySet()) {
+                    for (Map.Entry<HttpMethod, Operation> operation : path.getValue().getOperationMap().entrySet()) {
+                        String json = path.getKey() + " " + operation.getKey() + " "
+                                + MAPPER.writeValueAsString(path.getValue().getParameters()) + " "
+                                + MAPPER.writeValueAsString(operation.getValue()) + "\n";
+                        List<String> tagNames = operation.getValue().getTags();
+                        if (tagNames == null || tagNames.isEmpty()) {
+                            tagNames = Collections.singletonList("default");
+                        }
+                        for (String tag : tagNames) {
+                            String api = config.sanitizeTag(tag);
+                            if (!tags.containsKey(api)) {
+                                tags.put(api, new StringBuilder());
+                            }
+                            tags.get(api).append(json);
+                        }
+                    }
+                }
+                for (Map.Entry<String, StringBuilder> tag : tags.entrySet()) {
+                    operations.put(tag.getKey(), tag.getValue().toString());
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("Could not compare the spec with the previous one", e);
+            }
+            groupsByTag = isDefaultGrouping(config);
+        }
+
+        private static String simpleRef(String ref) {
+            return ref.startsWith("#/definitions/") ? ref.substring("#/definitions/".length()) : ref;
+        }
+
+        private static boolean isDefaultGrouping(CodegenConfig config) {
+            try {
+                return config.getClass().getMethod("addOperationToGroup", String.class, String.class, Operation.class,
+                        CodegenOperation.class, Map.class).getDeclaringClass() == DefaultCodegen.class;
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+    }
+}
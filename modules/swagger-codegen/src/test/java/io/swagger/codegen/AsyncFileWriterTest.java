@@ -0,0 +1,124 @@
+package io.swagger.codegen;
+
+import org.apache.commons.io.FileUtils;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Map;
+
+import static io.swagger.codegen.testutils.GenerationFixture.PETSTORE;
+import static io.swagger.codegen.testutils.GenerationFixture.contents;
+import static io.swagger.codegen.testutils.GenerationFixture.find;
+import static io.swagger.codegen.testutils.GenerationFixture.input;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+public class AsyncFileWriterTest {
+
+    private File root;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("async-writer").toFile();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(root);
+    }
+
+    @Test(description = "queued files are on disk after a flush, in the order they were written")
+    public void testFlushWritesEverything() throws Exception {
+        AsyncFileWriter writer = new AsyncFileWriter(3, 4);
+        try {
+            for (int i = 0; i < 100; i++) {
+                writer.write(new File(root, "dir" + (i % 7) + File.separator + "file" + i + ".txt").getPath(), "content " + i);
+            }
+            for (int i = 0; i < 10; i++) {
+                writer.write(new File(root, "same.txt").getPath(), "version " + i);
+            }
+            writer.flush();
+
+            for (int i = 0; i < 100; i++) {
+                File file = new File(root, "dir" + (i % 7) + File.separator + "file" + i + ".txt");
+                assertEquals(FileUtils.readFileToString(file, "UTF-8"), "content " + i);
+            }
+            assertEquals(FileUtils.readFileToString(new File(root, "same.txt"), "UTF-8"), "version 9");
+        } finally {
+            writer.close();
+        }
+    }
+
+    @Test(description = "the failure of the earliest queued write is reported by flush")
+    public void testFlushReportsFirstFailure() throws Exception {
+        File blocker = new File(root, "blocker");
+        FileUtils.writeStringToFile(blocker, "not a folder", "UTF-8");
+
+        AsyncFileWriter writer = new AsyncFileWriter(2, 8);
+        try {
+            for (int i = 0; i < 20; i++) {
+                File file = i == 5 || i == 12
+                        ? new File(blocker, "file" + i + ".txt")
+                        : new File(root, "file" + i + ".txt");
+                writer.write(file.getPath(), "content");
+            }
+            try {
+                writer.flush();
+                fail("flush should report the failed write");
+            } catch (IOException e) {
+                assertTrue(e.getMessage().contains("file5.txt"), e.getMessage());
+            }
+            // the failure is only reported once
+            writer.flush();
+            assertTrue(new File(root, "file19.txt").isFile());
+        } finally {
+            writer.close();
+        }
+    }
+
+    @Test(description = "without I/O threads files are written right away")
+    public void testSynchronousWrites() throws Exception {
+        AsyncFileWriter writer = new AsyncFileWriter(0, 1);
+        File file = writer.write(new File(root, "a" + File.separator + "b.txt").getPath(), "content");
+
+        assertEquals(FileUtils.readFileToString(file, "UTF-8"), "content");
+        try {
+            writer.write(new File(file, "c.txt").getPath(), "content");
+            fail("writing below a file should fail");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    @Test(description = "generating with write-behind produces the same files")
+    public void testAsyncGeneration() throws Exception {
+        Map<String, String> async = contents(generate(new DefaultGenerator(), true));
+        Map<String, String> sync = contents(generate(new DefaultGenerator(), false));
+
+        assertEquals(async, sync);
+        assertTrue(find(async, "PetApi.java").contains("public Pet getPetById(Long petId)"));
+        assertNotNull(find(async, "PetApiTest.java"));
+    }
+
+    @Test(description = "a generator writes synchronously once its run is over")
+    public void testWritesAfterGeneration() throws Exception {
+        DefaultGenerator generator = new DefaultGenerator();
+        File output = generate(generator, true);
+
+        File file = generator.writeToFile(new File(output, "after.txt").getPath(), "content");
+        assertEquals(FileUtils.readFileToString(file, "UTF-8"), "content");
+    }
+
+    private File generate(DefaultGenerator generator, boolean async) {
+        File output = new File(root, async ? "async" : "sync");
+        generator.setGeneratorPropertyDefault(CodegenConstants.ASYNC_WRITES, String.valueOf(async));
+        generator.opts(input("java", PETSTORE, output)).generate();
+        return output;
+    }
+}
@@ -0,0 +1,92 @@
+package io.swagger.codegen;
+
+import io.swagger.models.Model;
+import io.swagger.models.ModelImpl;
+import io.swagger.models.properties.ArrayProperty;
+import io.swagger.models.properties.DateTimeProperty;
+import io.swagger.models.properties.IntegerProperty;
+import io.swagger.models.properties.LongProperty;
+import io.swagger.models.properties.RefProperty;
+import io.swagger.models.properties.StringProperty;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Keeps an eye on the memory retained by the strings of processed models on a synthetic spec.
+ */
+public class CodegenFootprintTest {
+
+    private static final int MODELS = 200;
+
+    // generous bound, without pooling the synthetic spec needs several times as much
+    private static final long MAX_STRING_BYTES_PER_PROPERTY = 64;
+
+    @Test(description = "type and name strings are shared between the properties of a run")
+    public void testStringBytesPerProperty() throws Exception {
+        Map<String, Model> definitions = new LinkedHashMap<String, Model>();
+        for (int i = 0; i < MODELS; i++) {
+            ModelImpl model = new ModelImpl()
+                    .property("id", new LongProperty())
+                    .property("name", new StringProperty())
+                    .property("count", new IntegerProperty())
+                    .property("createdAt", new DateTimeProperty())
+                    .property("tags", new ArrayProperty(new StringProperty()))
+                    .property("next", new RefProperty("Model" + ((i + 1) % MODELS)));
+            definitions.put("Model" + i, model);
+        }
+
+        DefaultCodegen codegen = new DefaultCodegen();
+        List<CodegenProperty> properties = new ArrayList<CodegenProperty>();
+        for (Map.Entry<String, Model> entry : definitions.entrySet()) {
+            CodegenModel cm = codegen.fromModel(entry.getKey(), entry.getValue(), definitions);
+            properties.addAll(cm.vars);
+        }
+
+        Set<String> strings = Collections.newSetFromMap(new IdentityHashMap<String, Boolean>());
+        for (CodegenProperty property : properties) {
+            collectStrings(property, strings);
+        }
+        long bytes = 0;
+        for (String string : strings) {
+            // object header, hash and array reference plus the latin-1 backing array
+            bytes += 24 + 16 + string.length();
+        }
+        long perProperty = bytes / properties.size();
+        assertTrue(perProperty <= MAX_STRING_BYTES_PER_PROPERTY, perProperty + " bytes of strings per property");
+
+        CodegenProperty first = properties.get(0);
+        CodegenProperty other = properties.get(properties.size() - 6);
+        assertSame(other.datatype, first.datatype);
+        assertSame(other.getter, first.getter);
+        assertSame(other.jsonSchema, first.jsonSchema);
+    }
+
+    private static void collectStrings(CodegenProperty property, Set<String> strings) throws IllegalAccessException {
+        for (Field field : CodegenProperty.class.getFields()) {
+            if (Modifier.isStatic(field.getModifiers())) {
+                continue;
+            }
+            if (field.getType() == String.class) {
+                String value = (String) field.get(property);
+                if (value != null) {
+                    strings.add(value);
+                }
+            }
+        }
+        if (property.items != null) {
+            collectStrings(property.items, strings);
+        }
+    }
+}
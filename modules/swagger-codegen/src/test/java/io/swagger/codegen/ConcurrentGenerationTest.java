@@ -0,0 +1,190 @@
+package io.swagger.codegen;
+
+import io.swagger.models.Swagger;
+import io.swagger.parser.SwaggerParser;
+import org.apache.commons.io.FileUtils;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Runs every generator in parallel against the petstore specs and compares the output
+ * with a sequential run, to make sure generators don't share mutable state.
+ */
+public class ConcurrentGenerationTest {
+
+    private static final List<String> SPECS = Arrays.asList(
+            "src/test/resources/2_0/petstore.yaml",
+            "src/test/resources/2_0/petstore-with-fake-endpoints-models-for-testing.yaml");
+
+    private static final Pattern DATE = Pattern.compile("\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}(\\.\\d+)?([+-]\\d{2}:\\d{2}|Z)?");
+    private static final Pattern UUID = Pattern.compile("[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}");
+
+    private File root;
+
+    @BeforeClass
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("concurrent-generation").toFile();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(root);
+    }
+
+    @Test(description = "a new context is bound to the config for every run")
+    public void testContextIsReplacedPerRun() throws Exception {
+        Swagger swagger = new SwaggerParser().read(SPECS.get(0));
+        CodegenConfig config = CodegenConfigLoader.forName("java");
+        CodegenContext before = config.getContext();
+
+        generate(config, swagger, new File(root, "context"));
+
+        CodegenContext after = config.getContext();
+        assertNotNull(after.getConfiguration());
+        assertFalse(before == after);
+        assertEquals(after.getConfiguration().getName(), "java");
+        assertSame(after.getTypeAliases(null), after.getTypeAliases(swagger.getDefinitions()));
+    }
+
+    @Test(description = "the x-codegen-import-mapping mappings of a run are used by the model names and imports of the languages")
+    public void testVendorExtensionImportMappingIsResolvedFromContext() throws Exception {
+        Swagger swagger = new SwaggerParser().read(SPECS.get(0));
+        swagger.getDefinitions().get("Category").setVendorExtension("x-codegen-import-mapping", "com.example.ExternalCategory");
+
+        for (String name : Arrays.asList("kotlin", "csharp")) {
+            CodegenConfig config = CodegenConfigLoader.forName(name);
+            File output = new File(root, "import-mapping" + File.separator + name);
+            generate(config, swagger, output);
+
+            assertEquals(config.toModelName("Category"), "com.example.ExternalCategory");
+            assertFalse(config.importMapping().containsKey("Category"));
+            for (File file : FileUtils.listFiles(output, null, true)) {
+                assertFalse(file.getName().startsWith("Category."), name + " generated " + file);
+            }
+        }
+    }
+
+    @Test(description = "parallel runs of all generators produce the same output as sequential runs")
+    public void testParallelOutputMatchesSequential() throws Exception {
+        final List<String> names = new ArrayList<String>();
+        for (CodegenConfig config : ServiceLoader.load(CodegenConfig.class)) {
+            names.add(config.getName());
+        }
+
+        final List<Job> jobs = new ArrayList<Job>();
+        for (String spec : SPECS) {
+            for (String name : names) {
+                jobs.add(new Job(name, spec));
+            }
+        }
+
+        // sequential reference run
+        for (Job job : jobs) {
+            job.run(new File(root, "sequential"));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors()));
+        try {
+            List<Future<Map<String, String>>> results = new ArrayList<Future<Map<String, String>>>();
+            for (final Job job : jobs) {
+                results.add(executor.submit(new Callable<Map<String, String>>() {
+                    @Override
+                    public Map<String, String> call() throws Exception {
+                        return job.run(new File(root, "parallel"));
+                    }
+                }));
+            }
+            List<String> mismatches = new ArrayList<String>();
+            for (int i = 0; i < jobs.size(); i++) {
+                Job job = jobs.get(i);
+                // a failure of a parallel run fails the test with its cause
+                Map<String, String> parallel = results.get(i).get(5, TimeUnit.MINUTES);
+                if (!parallel.equals(job.read(new File(root, "sequential")))) {
+                    mismatches.add(job + " differs when run in parallel");
+                }
+            }
+            assertTrue(mismatches.isEmpty(), mismatches.toString());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void generate(CodegenConfig config, Swagger swagger, File output) {
+        config.setOutputDir(output.getAbsolutePath());
+        config.additionalProperties().put(CodegenConstants.HIDE_GENERATION_TIMESTAMP, true);
+
+        ClientOptInput input = new ClientOptInput().opts(new ClientOpts()).swagger(swagger);
+        input.setConfig(config);
+
+        DefaultGenerator generator = new DefaultGenerator();
+        generator.setGenerateSwaggerMetadata(false);
+        generator.opts(input).generate();
+    }
+
+    private static class Job {
+        private final String name;
+        private final String spec;
+
+        Job(String name, String spec) {
+            this.name = name;
+            this.spec = spec;
+        }
+
+        File output(File base) {
+            return new File(base, name + File.separator + new File(spec).getName());
+        }
+
+        Map<String, String> run(File base) throws IOException {
+            // every run gets its own config instance and its own parsed spec
+            generate(CodegenConfigLoader.forName(name), new SwaggerParser().read(spec), output(base));
+            return read(base);
+        }
+
+        Map<String, String> read(File base) throws IOException {
+            File dir = output(base);
+            Map<String, String> contents = new TreeMap<String, String>();
+            if (!dir.isDirectory()) {
+                return contents;
+            }
+            Collection<File> files = FileUtils.listFiles(dir, null, true);
+            for (File file : files) {
+                String content = FileUtils.readFileToString(file, "UTF-8");
+                // generated dates and random project GUIDs are the only legitimate differences between two runs
+                content = DATE.matcher(content).replaceAll("<date>");
+                content = UUID.matcher(content).replaceAll("<uuid>");
+                contents.put(dir.toURI().relativize(file.toURI()).getPath(), content);
+            }
+            assertTrue(contents.size() > 0 || files.isEmpty());
+            return contents;
+        }
+
+        @Override
+        public String toString() {
+            return name + " (" + spec + ")";
+        }
+    }
+}
@@ -5,6 +5,8 @@ import io.swagger.models.Model;
 import io.swagger.models.ModelImpl;
 import io.swagger.models.Xml;
 import io.swagger.models.properties.ArrayProperty;
+import io.swagger.models.properties.DoubleProperty;
+import io.swagger.models.properties.LongProperty;
 import io.swagger.models.properties.RefProperty;
 import io.swagger.models.properties.StringProperty;
 
@@ -13,10 +15,16 @@ import com.google.common.collect.Sets;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 @SuppressWarnings("static-method")
 public class ExampleGeneratorTest {
@@ -70,4 +78,126 @@ public class ExampleGeneratorTest {
         Assert.assertEqualsNoOrder(types.toArray(new String[types.size()]),
                 expectedTypes.toArray(new String[expectedTypes.size()]));
     }
+
+    @Test(description = "check JSON examples are rendered from the model properties")
+    public void jsonExampleTest() {
+        final ModelImpl pet = new ModelImpl().name("Pet")
+                .property("name", new StringProperty())
+                .property("id", new LongProperty());
+        final ExampleGenerator eg = new ExampleGenerator(ImmutableMap.<String, Model>of("Pet", pet));
+
+        final List<Map<String, String>> examples = eg.generate(null, Arrays.asList("application/json"), new RefProperty("Pet"));
+
+        Assert.assertEquals(examples.size(), 1);
+        final String example = examples.get(0).get("example");
+        Assert.assertTrue(example.contains("\"name\" : \"name\""), example);
+        Assert.assertTrue(example.contains("\"id\" : "), example);
+    }
+
+    @Test(description = "check rendered examples are reused across calls")
+    public void cachedExampleTest() {
+        final ModelImpl pet = new ModelImpl().name("Pet")
+                .property("name", new StringProperty())
+                .property("weight", new DoubleProperty());
+        final ExampleGenerator eg = new ExampleGenerator(ImmutableMap.<String, Model>of("Pet", pet));
+        final List<String> mediaTypes = Arrays.asList("application/json", "application/xml");
+
+        final List<Map<String, String>> first = eg.generate(null, mediaTypes, new RefProperty("Pet"));
+        final List<Map<String, String>> second = eg.generate(null, mediaTypes, new RefProperty("Pet"));
+        final List<Map<String, String>> byName = eg.generate(null, mediaTypes, "Pet");
+
+        Assert.assertEquals(second, first);
+        Assert.assertEquals(byName, first);
+        Assert.assertSame(second.get(0).get("example"), first.get(0).get("example"));
+
+        // leaf properties start from the same seed on every call
+        Assert.assertEquals(eg.generate(null, mediaTypes, new DoubleProperty()),
+                eg.generate(null, mediaTypes, new DoubleProperty()));
+    }
+
+    @Test(description = "check concurrent calls render the same examples as sequential ones")
+    public void concurrentExampleTest() throws Exception {
+        final Map<String, Model> definitions = numberedModels();
+        final List<String> mediaTypes = Arrays.asList("application/json", "application/xml");
+        final Map<String, List<Map<String, String>>> expected = new HashMap<String, List<Map<String, String>>>();
+        final ExampleGenerator sequential = new ExampleGenerator(definitions);
+        for (String name : definitions.keySet()) {
+            expected.put(name, sequential.generate(null, mediaTypes, name));
+        }
+
+        // the resolved examples are stored on the models, so the concurrent calls get models of their own
+        final Map<String, Model> copies = numberedModels();
+        final ExampleGenerator eg = new ExampleGenerator(copies);
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<List<Map<String, String>>>> results = new ArrayList<Future<List<Map<String, String>>>>();
+            final List<String> names = new ArrayList<String>();
+            for (int round = 0; round < 5; round++) {
+                for (final String name : copies.keySet()) {
+                    names.add(name);
+                    results.add(executor.submit(new Callable<List<Map<String, String>>>() {
+                        @Override
+                        public List<Map<String, String>> call() {
+                            return eg.generate(null, mediaTypes, name);
+                        }
+                    }));
+                }
+            }
+            for (int i = 0; i < results.size(); i++) {
+                Assert.assertEquals(results.get(i).get(), expected.get(names.get(i)), names.get(i));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static Map<String, Model> numberedModels() {
+        final Map<String, Model> models = new HashMap<String, Model>();
+        for (int i = 0; i < 20; i++) {
+            models.put("Model" + i, new ModelImpl().name("Model" + i)
+                    .property("weight", new DoubleProperty())
+                    .property("id", new LongProperty())
+                    .property("tags", new ArrayProperty(new StringProperty())));
+        }
+        return models;
+    }
+
+    @Test(description = "check XML examples are escaped and shared models render consistently")
+    public void xmlExampleTest() {
+        final StringProperty tag = new StringProperty();
+        tag.setExample("<b>fish & chips</b>");
+        final StringProperty id = new StringProperty();
+        id.setExample("a\"b");
+        id.setXml(new Xml().attribute(true));
+        final ModelImpl category = new ModelImpl().name("Category").property("id", id).property("tag", tag);
+        final ModelImpl pet = new ModelImpl().name("Pet")
+                .property("first", new RefProperty("Category"))
+                .property("second", new RefProperty("Category"))
+                .property("missing", new RefProperty("Unknown"));
+        final ExampleGenerator eg = new ExampleGenerator(ImmutableMap.<String, Model>of("Pet", pet, "Category", category));
+
+        final List<Map<String, String>> examples = eg.generate(null, Arrays.asList("application/xml"), new RefProperty("Pet"));
+
+        Assert.assertEquals(examples.size(), 1);
+        final String categoryXml = "  <Category id=\"a&quot;b\">\n" +
+                "    <tag>&lt;b&gt;fish &amp; chips&lt;/b&gt;</tag>\n" +
+                "  </Category>\n";
+        Assert.assertEquals(examples.get(0).get("example"), "<Pet>\n" + categoryXml + categoryXml + "</Pet>");
+    }
+
+    @Test(description = "check XML attributes are escaped once")
+    public void xmlAttributeEscapingTest() {
+        final StringProperty id = new StringProperty();
+        id.setExample("fish & chips");
+        id.setXml(new Xml().attribute(true));
+        final StringProperty name = new StringProperty();
+        name.setExample("a < b");
+        name.setXml(new Xml().attribute(true));
+        final ModelImpl dish = new ModelImpl().name("Dish").property("id", id).property("name", name);
+        final ExampleGenerator eg = new ExampleGenerator(ImmutableMap.<String, Model>of("Dish", dish));
+
+        final List<Map<String, String>> examples = eg.generate(null, Arrays.asList("application/xml"), new RefProperty("Dish"));
+
+        Assert.assertEquals(examples.get(0).get("example"), "<Dish id=\"fish &amp; chips\" name=\"a &lt; b\">\n</Dish>");
+    }
 }
@@ -1021,4 +1021,83 @@ public class InlineModelResolverTest {
                 .type("string"));
         new InlineModelResolver().flatten(swagger);
     }
+
+    @Test
+    public void testIdenticalInlineModelsAreDeduplicated() {
+        Swagger swagger = new Swagger();
+
+        swagger.addDefinition("User", new ModelImpl()
+                .property("home", new ObjectProperty()
+                        .title("Address")
+                        .property("street", new StringProperty())
+                        .property("city", new StringProperty()))
+                .property("work", new ObjectProperty()
+                        .title("Address")
+                        .property("street", new StringProperty())
+                        .property("city", new StringProperty()))
+                .property("billing", new ObjectProperty()
+                        .title("Address")
+                        .property("street", new StringProperty())
+                        .property("zip", new IntegerProperty())));
+
+        new InlineModelResolver().flatten(swagger);
+
+        ModelImpl user = (ModelImpl) swagger.getDefinitions().get("User");
+        String home = ((RefProperty) user.getProperties().get("home")).getSimpleRef();
+        String work = ((RefProperty) user.getProperties().get("work")).getSimpleRef();
+        String billing = ((RefProperty) user.getProperties().get("billing")).getSimpleRef();
+
+        assertEquals(home, work);
+        assertFalse(home.equals(billing));
+        assertTrue(billing.startsWith("Address"));
+        assertEquals(3, swagger.getDefinitions().size());
+    }
+
+    @Test
+    public void testUniqueNameSkipsExistingDefinitions() {
+        Swagger swagger = new Swagger();
+        swagger.addDefinition("Pet", new ModelImpl());
+        swagger.addDefinition("Pet_1", new ModelImpl());
+
+        InlineModelResolver resolver = new InlineModelResolver();
+        resolver.flatten(swagger);
+
+        assertEquals("Pet_2", resolver.uniqueName("Pet"));
+        // the name is not reserved until the definition is added
+        assertEquals("Pet_2", resolver.uniqueName("P-et"));
+        swagger.addDefinition("Pet_2", new ModelImpl());
+        assertEquals("Pet_3", resolver.uniqueName("Pet"));
+        assertEquals("Order", resolver.uniqueName("Order"));
+    }
+
+    @Test
+    public void testFingerprintIsStructural() {
+        Model first = new ModelImpl()
+                .description("an address")
+                .property("street", new StringProperty());
+        Model second = new ModelImpl()
+                .description("an address")
+                .property("street", new StringProperty());
+        Model third = new ModelImpl()
+                .description("an address")
+                .property("street", new IntegerProperty());
+
+        assertEquals(InlineModelResolver.fingerprint(first), InlineModelResolver.fingerprint(second));
+        assertFalse(InlineModelResolver.fingerprint(first).equals(InlineModelResolver.fingerprint(third)));
+    }
+
+    @Test
+    public void testMatchGeneratedComparesTheDefinitionsOfTheAddedModels() {
+        Swagger swagger = new Swagger();
+        InlineModelResolver resolver = new InlineModelResolver();
+        resolver.flatten(swagger);
+        Model address = new ModelImpl().property("street", new StringProperty());
+        assertNull(resolver.matchGenerated(address));
+        swagger.addDefinition("Address", address);
+        resolver.addGenerated("Address", address);
+
+        assertEquals("Address", resolver.matchGenerated(new ModelImpl().property("street", new StringProperty())));
+        assertNull(resolver.matchGenerated(new ModelImpl().property("street", new IntegerProperty())));
+        assertEquals(1, resolver.generatedSignature.size());
+    }
 }
@@ -0,0 +1,154 @@
+package io.swagger.codegen;
+
+import io.swagger.codegen.languages.JavaClientCodegen;
+import io.swagger.models.Model;
+import io.swagger.models.Operation;
+import io.swagger.models.Swagger;
+import org.apache.commons.io.FileUtils;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import static io.swagger.codegen.testutils.GenerationFixture.FAKE_PETSTORE;
+import static io.swagger.codegen.testutils.GenerationFixture.contents;
+import static io.swagger.codegen.testutils.GenerationFixture.find;
+import static io.swagger.codegen.testutils.GenerationFixture.input;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+public class ShardedGenerationTest {
+
+    private File root;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("sharded-generation").toFile();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(root);
+    }
+
+    @Test(description = "merged shards produce the same files as a single run")
+    public void testShardsMatchSingleRun() throws Exception {
+        File single = new File(root, "single");
+        generate(single, null, false);
+
+        File sharded = new File(root, "sharded");
+        int rendered = 0;
+        // the shards which rendered each api
+        Map<String, Integer> apis = new TreeMap<String, Integer>();
+        for (int i = 1; i <= 3; i++) {
+            List<File> files = generate(sharded, i + "/3", false);
+            rendered += files.size();
+            for (File file : files) {
+                if (file.getName().matches("\\w+Api\\.java")) {
+                    assertNull(apis.put(file.getName(), i), file.getName() + " rendered by two shards");
+                }
+            }
+        }
+        assertEquals(apis.keySet(), new TreeSet<String>(Arrays.asList(
+                "AnotherFakeApi.java", "FakeApi.java", "FakeClassnameTags123Api.java", "PetApi.java", "StoreApi.java", "UserApi.java")));
+        assertTrue(new HashSet<Integer>(apis.values()).size() > 1, "the apis are split between the shards");
+        assertTrue(new File(sharded, ".swagger-codegen/shards/shard-2-of-3").isFile());
+        List<File> merged = generate(sharded, null, true);
+
+        assertFalse(new File(sharded, ".swagger-codegen/shards").exists());
+        assertTrue(merged.size() > rendered);
+        Map<String, String> expected = contents(single);
+        Map<String, String> actual = contents(sharded);
+        assertEquals(actual.keySet(), expected.keySet());
+        for (String file : expected.keySet()) {
+            assertEquals(actual.get(file), expected.get(file), file);
+        }
+        // the merge lists the operations of every shard
+        assertTrue(find(actual, "README.md").contains("*PetApi* | [**addPet**]"));
+        assertTrue(find(actual, "README.md").contains("*UserApi* | [**createUser**]"));
+    }
+
+    @Test(description = "a shard doesn't process the operations and models of the other shards")
+    public void testShardsSkipTheOtherShards() throws Exception {
+        int[] single = process(null);
+        int operations = 0;
+        int models = 0;
+        for (int i = 1; i <= 3; i++) {
+            int[] shard = process(i + "/3");
+            operations += shard[0];
+            models += shard[1];
+        }
+        assertEquals(operations, single[0]);
+        assertTrue(models < 3 * single[1], models + " models processed by the shards, " + single[1] + " by a single run");
+    }
+
+    @Test(description = "merging fails while a shard is missing")
+    public void testMissingShard() throws Exception {
+        File output = new File(root, "output");
+        generate(output, "1/3", false);
+        generate(output, "3/3", false);
+        try {
+            generate(output, null, true);
+            fail("merge should fail without shard 2");
+        } catch (RuntimeException e) {
+            assertTrue(e.getMessage().contains("Missing shard 2/3"), e.getMessage());
+        }
+    }
+
+    @Test(description = "the shard option is validated", expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidShard() throws Exception {
+        generate(new File(root, "output"), "4/3", false);
+    }
+
+    /**
+     * @return how many operations and models are processed by the run
+     */
+    private int[] process(String shard) {
+        final int[] counts = new int[2];
+        CodegenConfig config = new JavaClientCodegen() {
+            @Override
+            public CodegenOperation fromOperation(String path, String httpMethod, Operation operation, Map<String, Model> definitions, Swagger swagger) {
+                counts[0]++;
+                return super.fromOperation(path, httpMethod, operation, definitions, swagger);
+            }
+
+            @Override
+            public CodegenModel fromModel(String name, Model model, Map<String, Model> allDefinitions) {
+                counts[1]++;
+                return super.fromModel(name, model, allDefinitions);
+            }
+        };
+        File output = new File(root, "counts");
+        config.setOutputDir(output.getAbsolutePath());
+        ClientOptInput input = input("java", FAKE_PETSTORE, output);
+        input.setConfig(config);
+
+        DefaultGenerator generator = new DefaultGenerator();
+        if (shard != null) {
+            generator.setGeneratorPropertyDefault(CodegenConstants.SHARD, shard);
+        }
+        generator.opts(input).generate();
+        return counts;
+    }
+
+    private List<File> generate(File output, String shard, boolean merge) {
+        DefaultGenerator generator = new DefaultGenerator();
+        if (shard != null) {
+            generator.setGeneratorPropertyDefault(CodegenConstants.SHARD, shard);
+        }
+        generator.setGeneratorPropertyDefault(CodegenConstants.MERGE_SHARDS, String.valueOf(merge));
+        return generator.opts(input("java", FAKE_PETSTORE, output)).generate();
+    }
+}
@@ -0,0 +1,114 @@
+package io.swagger.codegen;
+
+import com.google.common.collect.ImmutableMap;
+import io.swagger.codegen.languages.JavaClientCodegen;
+import io.swagger.models.Model;
+import io.swagger.models.Operation;
+import io.swagger.models.Swagger;
+import org.apache.commons.io.FileUtils;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static io.swagger.codegen.testutils.GenerationFixture.FAKE_PETSTORE;
+import static io.swagger.codegen.testutils.GenerationFixture.contents;
+import static io.swagger.codegen.testutils.GenerationFixture.find;
+import static io.swagger.codegen.testutils.GenerationFixture.input;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+
+public class StreamingGenerationTest {
+
+    // the file of the pet api of every language
+    private static final Map<String, String> PET_APIS = ImmutableMap.of(
+            "java", "PetApi.java", "go", "api_pet.go", "ruby", "pet_api.rb", "php", "PetApi.php");
+
+    private File root;
+
+    @BeforeClass
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("streaming-generation").toFile();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(root);
+    }
+
+    @Test(description = "streaming generation renders the same models, apis and listings")
+    public void testStreamingMatchesDefault() throws Exception {
+        for (String language : PET_APIS.keySet()) {
+            Map<String, String> expected = generate(language, false);
+            Map<String, String> actual = generate(language, true);
+
+            assertFalse(expected.isEmpty());
+            assertEquals(actual.keySet(), expected.keySet(), language);
+            for (String file : expected.keySet()) {
+                assertEquals(actual.get(file), expected.get(file), language + ": " + file);
+            }
+
+            assertNotNull(find(actual, PET_APIS.get(language)), language);
+            // the operations of the readme come from the summaries of the operations
+            String readme = actual.get("README.md");
+            assertTrue(readme.contains("PetApi"), language);
+            assertTrue(readme.toLowerCase().replace("_", "").contains("addpet"), language);
+        }
+    }
+
+    @Test(description = "streaming generation processes the operations of a tag when it renders the tag")
+    public void testStreamingProcessesOperationsPerTag() throws Exception {
+        assertTrue(operationsAfterFirstApi(true) > 0);
+        assertEquals(operationsAfterFirstApi(false), 0);
+    }
+
+    /**
+     * @return how many operations are processed after the first api was post processed
+     */
+    private int operationsAfterFirstApi(boolean streaming) {
+        final List<String> events = new ArrayList<String>();
+        CodegenConfig config = new JavaClientCodegen() {
+            @Override
+            public CodegenOperation fromOperation(String path, String httpMethod, Operation operation, Map<String, Model> definitions, Swagger swagger) {
+                events.add("operation");
+                return super.fromOperation(path, httpMethod, operation, definitions, swagger);
+            }
+
+            @Override
+            public Map<String, Object> postProcessOperations(Map<String, Object> objs) {
+                events.add("api");
+                return super.postProcessOperations(objs);
+            }
+        };
+        config.setOutputDir(new File(root, "events" + (streaming ? "-streaming" : "-default")).getAbsolutePath());
+        ClientOptInput input = input("java", FAKE_PETSTORE, root);
+        input.setConfig(config);
+
+        DefaultGenerator generator = new DefaultGenerator();
+        generator.setGeneratorPropertyDefault(CodegenConstants.STREAMING, String.valueOf(streaming));
+        generator.setGenerateSwaggerMetadata(false);
+        generator.opts(input).generate();
+
+        int firstApi = events.indexOf("api");
+        assertTrue(firstApi > 0);
+        return Collections.frequency(events.subList(firstApi, events.size()), "operation");
+    }
+
+    private Map<String, String> generate(String language, boolean streaming) throws IOException {
+        File output = new File(root, language + (streaming ? "-streaming" : "-default"));
+        DefaultGenerator generator = new DefaultGenerator();
+        generator.setGeneratorPropertyDefault(CodegenConstants.STREAMING, String.valueOf(streaming));
+        generator.setGenerateSwaggerMetadata(false);
+        generator.opts(input(language, FAKE_PETSTORE, output)).generate();
+        return contents(output);
+    }
+}
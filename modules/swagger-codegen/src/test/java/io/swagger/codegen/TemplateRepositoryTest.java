@@ -0,0 +1,98 @@
+package io.swagger.codegen;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.testng.Assert.*;
+
+public class TemplateRepositoryTest {
+
+    private File root;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("template-repository").toFile();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(root);
+    }
+
+    @Test(description = "templates on the class path are read with the selected library only")
+    public void testClassPath() throws Exception {
+        ClassLoader classLoader = getClass().getClassLoader();
+        TemplateRepository repository = new TemplateRepository(classLoader, "Java", "feign");
+
+        assertTrue(repository.covers("Java/model.mustache"));
+        assertTrue(repository.exists("Java/model.mustache"));
+        assertEquals(IOUtils.toString(repository.getInputStream("Java/model.mustache"), "UTF-8"),
+                IOUtils.toString(classLoader.getResourceAsStream("Java/model.mustache"), "UTF-8"));
+
+        assertTrue(repository.covers("Java/libraries/feign/api.mustache"));
+        assertTrue(repository.exists("Java/libraries/feign/api.mustache"));
+        assertTrue(repository.covers("Java/libraries/feign/missing.mustache"));
+        assertFalse(repository.exists("Java/libraries/feign/missing.mustache"));
+
+        assertFalse(repository.covers("Java/libraries/okhttp-gson/api.mustache"));
+        assertFalse(repository.exists("Java/libraries/okhttp-gson/api.mustache"));
+        assertFalse(repository.covers("JavaJaxRS/api.mustache"));
+    }
+
+    @Test(description = "templates in a JAR are read in one pass")
+    public void testJar() throws Exception {
+        File jar = new File(root, "templates.jar");
+        ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(jar));
+        try {
+            entry(zip, "Lang/", null);
+            entry(zip, "Lang/model.mustache", "model");
+            entry(zip, "Lang/libraries/one/api.mustache", "one");
+            entry(zip, "Lang/libraries/two/api.mustache", "two");
+            entry(zip, "Other/model.mustache", "other");
+        } finally {
+            zip.close();
+        }
+        URLClassLoader classLoader = new URLClassLoader(new URL[]{jar.toURI().toURL()}, null);
+        try {
+            TemplateRepository repository = TemplateRepository.forDirectory(classLoader, "Lang", "one");
+
+            assertSame(TemplateRepository.forDirectory(classLoader, "Lang", "one"), repository);
+            assertEquals(repository.size(), 2);
+            assertEquals(IOUtils.toString(repository.getInputStream("Lang/model.mustache"), "UTF-8"), "model");
+            assertEquals(IOUtils.toString(repository.getInputStream("Lang/libraries/one/api.mustache"), "UTF-8"), "one");
+            assertNull(repository.getInputStream("Lang/libraries/two/api.mustache"));
+            assertFalse(repository.covers("Other/model.mustache"));
+        } finally {
+            classLoader.close();
+        }
+    }
+
+    @Test(description = "a directory which isn't on the class path covers nothing")
+    public void testMissing() {
+        TemplateRepository repository = new TemplateRepository(getClass().getClassLoader(), "NoSuchTemplates", null);
+
+        assertEquals(repository.size(), 0);
+        assertFalse(repository.covers("NoSuchTemplates/model.mustache"));
+    }
+
+    private static void entry(ZipOutputStream zip, String name, String contents) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        if (contents != null) {
+            zip.write(contents.getBytes(StandardCharsets.UTF_8));
+        }
+        zip.closeEntry();
+    }
+}
@@ -0,0 +1,545 @@
+package io.swagger.codegen.armeria;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.annotations.ApiModel;
+import io.swagger.codegen.ClientOptInput;
+import io.swagger.codegen.CodegenConstants;
+import io.swagger.codegen.DefaultGenerator;
+import io.swagger.codegen.config.CodegenConfigurator;
+import io.swagger.codegen.languages.JavaArmeriaCodegen;
+import io.swagger.codegen.languages.KotlinArmeriaClientCodegen;
+import io.swagger.codegen.languages.KotlinArmeriaCodegen;
+import io.swagger.codegen.languages.features.ArmeriaFeatures;
+import io.swagger.codegen.languages.features.BeanValidationFeatures;
+import io.swagger.models.Operation;
+import io.swagger.models.parameters.PathParameter;
+import io.swagger.models.properties.Property;
+import org.apache.commons.io.FileUtils;
+import org.junit.rules.TemporaryFolder;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.testng.Assert.*;
+
+public class ArmeriaCodegenTest {
+
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        folder.create();
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        folder.delete();
+    }
+
+    @Test
+    public void testJavaRoutes() throws IOException {
+        generate("java-armeria", ArmeriaFeatures.GENERATE_ROUTES, true);
+
+        final String routes = FileUtils.readFileToString(find("PetApiRoutes.java"), UTF_8);
+        assertTrue(routes.contains("public final class PetApiRoutes"));
+        assertTrue(routes.contains(".methods(HttpMethod.GET)"));
+        assertTrue(routes.contains(".build(this::getPetById)"));
+        assertTrue(routes.contains("convert(ctx.pathParam(\"petId\"), null, Long::valueOf)"));
+        assertTrue(routes.contains("readJson(request, new TypeReference<Pet>() {})"));
+        assertTrue(routes.contains("this(api, new ObjectMapper().findAndRegisterModules());"));
+        assertFalse(routes.contains("{{"));
+    }
+
+    @Test(description = "the models round trip through the default mapper of the routes")
+    public void testJavaModelRoundTrip() throws Exception {
+        generate("java-armeria", ArmeriaFeatures.GENERATE_ROUTES, true, CodegenConstants.HIDE_GENERATION_TIMESTAMP, true);
+
+        final File classes = folder.newFolder("classes");
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        final int status = compiler.run(null, null, null, "-d", classes.getAbsolutePath(),
+                "-classpath", classpath(JsonProperty.class, ObjectMapper.class, ApiModel.class),
+                find("Pet.java").getAbsolutePath(), find("Category.java").getAbsolutePath(), find("Tag.java").getAbsolutePath());
+        assertEquals(status, 0);
+
+        final String json = "{\"id\":1,\"category\":{\"id\":2,\"name\":\"dogs\"},\"name\":\"doggie\","
+                + "\"photoUrls\":[\"url\"],\"tags\":[{\"id\":3,\"name\":\"tag\"}],\"status\":\"available\"}";
+        final ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+        final URLClassLoader loader = new URLClassLoader(new URL[]{classes.toURI().toURL()}, getClass().getClassLoader());
+        try {
+            final Object pet = mapper.readValue(json, loader.loadClass("io.swagger.model.Pet"));
+            assertEquals(mapper.readTree(mapper.writeValueAsString(pet)), mapper.readTree(json));
+        } finally {
+            loader.close();
+        }
+    }
+
+    @Test
+    public void testKotlinRoutes() throws IOException {
+        generate("kotlin-armeria", ArmeriaFeatures.GENERATE_ROUTES, true);
+
+        final String routes = FileUtils.readFileToString(find("PetApiRoutes.kt"), UTF_8);
+        assertTrue(routes.contains("class PetApiRoutes(private val api: PetApi"));
+        assertTrue(routes.contains(".build(this::getPetById)"));
+        assertTrue(routes.contains("convert(ctx.pathParam(\"petId\"), null, String::toLong)"));
+        assertTrue(routes.contains("readJson(request, object : TypeReference<Pet>() {})"));
+        assertTrue(routes.contains("private val mapper: ObjectMapper = jacksonObjectMapper().findAndRegisterModules()"));
+        assertFalse(routes.contains("{{"));
+        assertTrue(FileUtils.readFileToString(find("build.gradle"), UTF_8).contains("jackson-module-kotlin"));
+    }
+
+    @Test
+    public void testJavaConverters() throws IOException {
+        generate("java-armeria", ArmeriaFeatures.GENERATE_CONVERTERS, true, ArmeriaFeatures.JACKSON_MODULE, "blackbird",
+                JavaArmeriaCodegen.ASYNC, true);
+
+        final String api = FileUtils.readFileToString(find("PetApi.java"), UTF_8);
+        assertTrue(api.contains("@ResponseConverter(PetApiConverters.class)"));
+
+        final String converters = FileUtils.readFileToString(find("PetApiConverters.java"), UTF_8);
+        assertTrue(converters.contains("addReader(new TypeReference<Pet>() {});"));
+        assertTrue(converters.contains("WRITERS.put(Pet.class, writer(Pet.class));"));
+        assertTrue(converters.contains("public static final class PetListConverter implements ResponseConverterFunction"));
+        assertTrue(converters.contains("private final ObjectWriter writer = listWriter(Pet.class);"));
+        assertTrue(converters.contains("} catch (JsonProcessingException e) {\n            throw new IllegalArgumentException(e);"));
+        assertTrue(api.contains("@ResponseConverter(PetApiConverters.PetListConverter.class)"));
+        assertTrue(converters.contains(".registerModule(new BlackbirdModule())"));
+
+        final File benchmark = find("PetApiConvertersBenchmark.java");
+        assertTrue(benchmark.getPath().contains("src" + File.separator + "jmh" + File.separator + "java"));
+        assertTrue(FileUtils.readFileToString(benchmark, UTF_8).contains("public byte[] getPetByIdGenerated()"));
+        assertTrue(FileUtils.readFileToString(find("build.gradle"), UTF_8).contains("jackson-module-blackbird"));
+    }
+
+    @Test
+    public void testJavaSynchronousConverters() throws IOException {
+        generate("java-armeria", ArmeriaFeatures.GENERATE_CONVERTERS, true);
+
+        // the operations return their own HttpResponse, the converters only read the bodies
+        final String api = FileUtils.readFileToString(find("PetApi.java"), UTF_8);
+        assertTrue(api.contains("@RequestConverter(PetApiConverters.class)"));
+        assertFalse(api.contains("@ResponseConverter("));
+
+        final String converters = FileUtils.readFileToString(find("PetApiConverters.java"), UTF_8);
+        assertTrue(converters.contains("public final class PetApiConverters implements RequestConverterFunction {"));
+        assertTrue(converters.contains("addReader(new TypeReference<Pet>() {});"));
+        assertFalse(converters.contains("WRITERS"));
+        assertFalse(converters.contains("ListConverter"));
+        assertNull(find("PetApiConvertersBenchmark.java"));
+    }
+
+    @Test
+    public void testKotlinConverters() throws IOException {
+        generate("kotlin-armeria", ArmeriaFeatures.GENERATE_CONVERTERS, true);
+
+        final String converters = FileUtils.readFileToString(find("PetApiConverters.kt"), UTF_8);
+        assertTrue(converters.contains("addReader(object : TypeReference<Pet>() {})"));
+        assertTrue(converters.contains("WRITERS[Pet::class.javaObjectType] = writer(Pet::class.javaObjectType)"));
+        assertTrue(converters.contains("class PetListConverter : ResponseConverterFunction"));
+        assertTrue(converters.contains("} catch (e: JsonProcessingException) {\n            throw IllegalArgumentException(e)"));
+        assertTrue(FileUtils.readFileToString(find("PetApi.kt"), UTF_8).contains("@ResponseConverter(PetApiConverters.PetListConverter::class)"));
+        assertFalse(converters.contains("Module()"));
+
+        final File benchmark = find("PetApiConvertersBenchmark.kt");
+        assertTrue(benchmark.getPath().contains("src" + File.separator + "jmh" + File.separator + "kotlin"));
+    }
+
+    @Test
+    public void testJavaBlockingTags() throws IOException {
+        generate("java-armeria", ArmeriaFeatures.BLOCKING_TAGS, "store", ArmeriaFeatures.GENERATE_ROUTES, true);
+
+        assertTrue(FileUtils.readFileToString(find("StoreApi.java"), UTF_8).contains("@Blocking"));
+        assertTrue(FileUtils.readFileToString(find("StoreApiRoutes.java"), UTF_8).contains("ctx.blockingTaskExecutor()"));
+        assertFalse(FileUtils.readFileToString(find("PetApi.java"), UTF_8).contains("@Blocking"));
+        assertFalse(FileUtils.readFileToString(find("PetApiRoutes.java"), UTF_8).contains("ctx.blockingTaskExecutor()"));
+    }
+
+    @Test
+    public void testKotlinBlocking() throws IOException {
+        generate("kotlin-armeria", ArmeriaFeatures.BLOCKING, true, ArmeriaFeatures.GENERATE_ROUTES, true);
+
+        assertTrue(FileUtils.readFileToString(find("PetApi.kt"), UTF_8).contains("@Blocking"));
+        final String routes = FileUtils.readFileToString(find("PetApiRoutes.kt"), UTF_8);
+        assertTrue(routes.contains("CoroutineScope(ctx.blockingTaskExecutor().asCoroutineDispatcher())"));
+        assertFalse(routes.contains("ctx.eventLoop()"));
+    }
+
+    @Test
+    public void testJavaStreaming() throws IOException {
+        generate("java-armeria", ArmeriaFeatures.STREAMING, true, ArmeriaFeatures.STREAMING_FORMAT, "json-seq");
+
+        final String api = FileUtils.readFileToString(find("PetApi.java"), UTF_8);
+        assertTrue(api.contains("default Publisher<Pet> findPetsByStatus("));
+        assertTrue(api.contains("@ResponseConverter(StreamingResponseConverter.class)"));
+        assertTrue(api.contains("default HttpResponse getPetById("));
+        assertTrue(FileUtils.readFileToString(find("StreamingResponseConverter.java"), UTF_8).contains("MediaType.JSON_SEQ"));
+    }
+
+    @Test
+    public void testKotlinStreaming() throws IOException {
+        generate("kotlin-armeria", ArmeriaFeatures.STREAMING, true, ArmeriaFeatures.GENERATE_ROUTES, true);
+
+        final String api = FileUtils.readFileToString(find("PetApi.kt"), UTF_8);
+        assertTrue(api.contains("suspend fun findPetsByStatus("));
+        assertTrue(api.contains(") : Flow<Pet>"));
+        assertTrue(FileUtils.readFileToString(find("PetApiRoutes.kt"), UTF_8).contains("is Flow<*> -> StreamingResponseConverter.toResponse(result)"));
+        assertTrue(FileUtils.readFileToString(find("StreamingResponseConverter.kt"), UTF_8).contains("application/x-ndjson"));
+    }
+
+    @Test
+    public void testJavaAsync() throws IOException {
+        generate("java-armeria", JavaArmeriaCodegen.ASYNC, true, ArmeriaFeatures.GENERATE_ROUTES, true);
+
+        final String api = FileUtils.readFileToString(find("PetApi.java"), UTF_8);
+        assertTrue(api.contains("default CompletableFuture<Pet> getPetById("));
+        assertTrue(api.contains("default CompletableFuture<List<Pet>> findPetsByStatus("));
+        assertTrue(api.contains("default CompletableFuture<Void> deletePet("));
+        assertTrue(api.contains("@ResponseConverter(PetApiConverters.class)"));
+        assertNotNull(find("PetApiConverters.java"));
+        assertTrue(FileUtils.readFileToString(find("PetApiRoutes.java"), UTF_8).contains("return toResponse(api.getPetById("));
+    }
+
+    @Test
+    public void testJavaValidators() throws IOException {
+        generate("java-armeria", ArmeriaFeatures.GENERATE_VALIDATORS, true, ArmeriaFeatures.GENERATE_ROUTES, true,
+                BeanValidationFeatures.USE_BEANVALIDATION, true);
+
+        final String pet = FileUtils.readFileToString(find("Pet.java"), UTF_8);
+        assertTrue(pet.contains("implements Validation.Validatable"));
+        assertTrue(pet.contains("Validation.checkRequired(this.name, \"name\");"));
+        assertTrue(pet.contains("Validation.checkValid(this.category, \"category\");"));
+        assertTrue(pet.contains("Validation.checkValid(this.tags, \"tags\");"));
+        assertTrue(pet.contains("@NotNull"));
+        assertTrue(FileUtils.readFileToString(find("Amount.java"), UTF_8).contains("Validation.checkMinimum(this.value, 0.01, false, \"value\");"));
+
+        assertTrue(FileUtils.readFileToString(find("StoreApiRoutes.java"), UTF_8).contains(
+                "Validation.checkMaximum(Validation.checkMinimum(convert(ctx.pathParam(\"orderId\"), null, Long::valueOf), 1L, false, \"orderId\"), 5L, false, \"orderId\")"));
+        assertTrue(FileUtils.readFileToString(find("PetApiConverters.java"), UTF_8).contains("return Validation.validate(reader.readValue("));
+        assertNotNull(find("Validation.java"));
+        assertNotNull(find("ValidationException.java"));
+        final File benchmark = find("PetApiValidationBenchmark.java");
+        assertTrue(benchmark.getPath().contains("src" + File.separator + "jmh" + File.separator + "java"));
+        assertTrue(FileUtils.readFileToString(benchmark, UTF_8).contains("public Object getPetByIdAnnotations()"));
+    }
+
+    @Test
+    public void testFractionalIntegerBounds() throws IOException {
+        final ClientOptInput input = input("java-armeria", ArmeriaFeatures.GENERATE_VALIDATORS, true, ArmeriaFeatures.GENERATE_ROUTES, true);
+        final PathParameter orderId = (PathParameter) input.getSwagger().getPath("/store/order/{orderId}").getGet().getParameters().get(0);
+        orderId.setMinimum(new BigDecimal("1.5"));
+        orderId.setExclusiveMinimum(true);
+        orderId.setMaximum(new BigDecimal("5.5"));
+        new DefaultGenerator().opts(input).generate();
+
+        assertTrue(FileUtils.readFileToString(find("StoreApiRoutes.java"), UTF_8).contains(
+                "Validation.checkMaximum(Validation.checkMinimum(convert(ctx.pathParam(\"orderId\"), null, Long::valueOf), 2L, false, \"orderId\"), 5L, false, \"orderId\")"));
+    }
+
+    @Test
+    public void testKotlinValidators() throws IOException {
+        generate("kotlin-armeria", ArmeriaFeatures.GENERATE_VALIDATORS, true, ArmeriaFeatures.GENERATE_ROUTES, true);
+
+        final String pet = FileUtils.readFileToString(find("Pet.kt"), UTF_8);
+        assertTrue(pet.contains(") : Validation.Validatable {"));
+        assertTrue(pet.contains("Validation.checkValid(tags, \"tags\")"));
+        assertFalse(pet.contains("checkRequired"));
+        assertTrue(FileUtils.readFileToString(find("StoreApiRoutes.kt"), UTF_8).contains(
+                "Validation.checkMaximum(Validation.checkMinimum(convert(ctx.pathParam(\"orderId\"), null, String::toLong), 1L, false, \"orderId\"), 5L, false, \"orderId\")"));
+        assertTrue(FileUtils.readFileToString(find("PetApiConverters.kt"), UTF_8).contains("Validation.validate(reader.readValue<Any>("));
+        assertNotNull(find("Validation.kt"));
+    }
+
+    @Test
+    public void testJavaMetrics() throws IOException {
+        generate("java-armeria", ArmeriaFeatures.GENERATE_METRICS, true);
+
+        final String metrics = FileUtils.readFileToString(find("PetApiMetrics.java"), UTF_8);
+        assertTrue(metrics.contains("new OperationMetrics(registry, \"PetApi\", \"getPetById\", HttpMethod.GET, pathPrefix + \"/pet/{petId}\")"));
+        // /pet/findByStatus also matches the template of /pet/{petId}, so the metrics aren't route decorators
+        assertTrue(metrics.contains("operations.put(key(HttpMethod.GET, Route.builder().path(pathPrefix + \"/pet/findByStatus\").build()),"));
+        assertTrue(metrics.contains("operations.put(key(HttpMethod.GET, Route.builder().path(pathPrefix + \"/pet/{petId}\").build()),"));
+        assertTrue(metrics.contains("operations.get(key(ctx.method(), ctx.config().route()))"));
+        assertFalse(metrics.contains("routeDecorator()"));
+        assertTrue(FileUtils.readFileToString(find("ApiMetrics.java"), UTF_8).contains("StoreApiMetrics.install(sb, registry, pathPrefix);"));
+        assertNotNull(find("OperationMetrics.java"));
+    }
+
+    @Test
+    public void testKotlinMetrics() throws IOException {
+        generate("kotlin-armeria", ArmeriaFeatures.GENERATE_METRICS, true);
+
+        final String metrics = FileUtils.readFileToString(find("PetApiMetrics.kt"), UTF_8);
+        assertTrue(metrics.contains("OperationMetrics(registry, \"PetApi\", \"getPetById\", HttpMethod.GET, pathPrefix + \"/pet/{petId}\")"));
+        assertTrue(metrics.contains("operations[key(HttpMethod.GET, Route.builder().path(pathPrefix + \"/pet/findByStatus\").build())] ="));
+        assertTrue(metrics.contains("operations[key(ctx.method(), ctx.config().route())]"));
+        assertFalse(metrics.contains("routeDecorator()"));
+        assertTrue(FileUtils.readFileToString(find("ApiMetrics.kt"), UTF_8).contains("PetApiMetrics.install(sb, registry, pathPrefix)"));
+        assertNotNull(find("OperationMetrics.kt"));
+    }
+
+    @Test
+    public void testJavaProtobuf() throws IOException {
+        final File numbers = folder.newFile("numbers.properties");
+        FileUtils.writeStringToFile(numbers, "Pet.name=7\nPet.nickname=9\n", UTF_8);
+        generate("java-armeria", ArmeriaFeatures.GENERATE_PROTOBUF, true, ArmeriaFeatures.PROTO_FIELD_NUMBERS, numbers.getAbsolutePath(),
+                ArmeriaFeatures.GENERATE_ROUTES, true, JavaArmeriaCodegen.ASYNC, true);
+
+        final File proto = find("models.proto");
+        assertTrue(proto.getPath().contains("src" + File.separator + "main" + File.separator + "proto"));
+        final String messages = FileUtils.readFileToString(proto, UTF_8);
+        assertTrue(messages.contains("message Pet {"));
+        assertTrue(messages.contains("reserved 9;"));
+        assertTrue(messages.contains("optional string name = 7;"));
+        assertTrue(messages.contains("optional int64 id = 1;"));
+        assertTrue(messages.contains("repeated string photo_urls = 3;"));
+        assertTrue(messages.contains("repeated Tag tags = 4;"));
+        assertTrue(messages.contains("optional bytes ship_date = 4; // JSON"));
+        final String fieldNumbers = FileUtils.readFileToString(find("proto-field-numbers.properties"), UTF_8);
+        assertTrue(fieldNumbers.contains("Pet.name=7"));
+        assertTrue(fieldNumbers.contains("Pet.nickname=9"));
+
+        final String pet = FileUtils.readFileToString(find("Pet.java"), UTF_8);
+        assertTrue(pet.contains("implements Protobuf.Convertible"));
+        assertTrue(pet.contains(".proto.Pet toProto(Pet model) {"));
+        assertTrue(pet.contains("if (model.getName() != null) { builder.setName(model.getName()); }"));
+        assertTrue(pet.contains("model.setCategory(message.hasCategory() ? Category.fromProto(message.getCategory()) : null);"));
+        assertNotNull(find("Protobuf.java"));
+
+        assertTrue(FileUtils.readFileToString(find("PetApiConverters.java"), UTF_8).contains(
+                "PROTOBUF_READERS.put(new TypeReference<Pet>() {}.getType(), bytes -> Pet.fromProto("));
+        final String routes = FileUtils.readFileToString(find("PetApiRoutes.java"), UTF_8);
+        assertTrue(routes.contains(".consumes(MediaType.parse(\"application/json\"), MediaType.parse(\"application/xml\"), MediaType.parse(\"application/x-protobuf\"))"));
+        assertTrue(routes.contains(".produces(MediaType.parse(\"application/xml\"), MediaType.parse(\"application/json\"), MediaType.parse(\"application/x-protobuf\"))"));
+        assertTrue(routes.contains("return toResponse(ctx, api.getPetById("));
+        assertTrue(FileUtils.readFileToString(find("build.gradle"), UTF_8).contains("id 'com.google.protobuf'"));
+    }
+
+    @Test
+    public void testKotlinProtobuf() throws IOException {
+        generate("kotlin-armeria", ArmeriaFeatures.GENERATE_PROTOBUF, true);
+
+        assertTrue(FileUtils.readFileToString(find("models.proto"), UTF_8).contains("repeated string photo_urls = 4;"));
+        final String pet = FileUtils.readFileToString(find("Pet.kt"), UTF_8);
+        assertTrue(pet.contains(") : Protobuf.Convertible {"));
+        assertTrue(pet.contains("builder.setName(name)"));
+        assertTrue(pet.contains("id?.let { builder.setId(it) }"));
+        assertTrue(pet.contains("photoUrls = message.getPhotoUrlsList().toTypedArray()"));
+        assertNotNull(find("Protobuf.kt"));
+        assertTrue(FileUtils.readFileToString(find("PetApiConverters.kt"), UTF_8).contains(
+                "PROTOBUF_READERS[object : TypeReference<Pet>() {}.type] = { Pet.fromProto("));
+    }
+
+    @Test
+    public void testInvalidProtoFields() {
+        assertProtoFieldFails("seven", null, "The x-proto-field of the property name of the model Pet must be an integer "
+                + "from 1 to 536870911, outside of 19000 to 19999, not 'seven'");
+        assertProtoFieldFails("0", null, "The x-proto-field of the property name of the model Pet must be an integer "
+                + "from 1 to 536870911, outside of 19000 to 19999, not '0'");
+        assertProtoFieldFails("19500", null, "The x-proto-field of the property name of the model Pet must be an integer "
+                + "from 1 to 536870911, outside of 19000 to 19999, not '19500'");
+        assertProtoFieldFails("7", "7", "The x-proto-field of the property name of the model Pet is 7, the number of another property");
+    }
+
+    @Test
+    public void testInvalidOptions() {
+        for (ArmeriaFeatures codegen : Arrays.<ArmeriaFeatures>asList(new JavaArmeriaCodegen(), new KotlinArmeriaCodegen())) {
+            codegen.setStreamingFormat("json-seq");
+            codegen.setJacksonModule("afterburner");
+            try {
+                codegen.setStreamingFormat("jsonl");
+                fail("the streaming format should be rejected");
+            } catch (IllegalArgumentException e) {
+                assertEquals(e.getMessage(), "The streamingFormat option must be one of [json-seq, ndjson], not 'jsonl'");
+            }
+            try {
+                codegen.setJacksonModule("Blackbird");
+                fail("the Jackson module should be rejected");
+            } catch (IllegalArgumentException e) {
+                assertEquals(e.getMessage(), "The jacksonModule option must be one of [afterburner, blackbird], not 'Blackbird'");
+            }
+        }
+    }
+
+    private void assertProtoFieldFails(String name, String id, String message) {
+        final ClientOptInput input = input("kotlin-armeria", ArmeriaFeatures.GENERATE_PROTOBUF, true);
+        final Map<String, Property> properties = input.getSwagger().getDefinitions().get("Pet").getProperties();
+        if (id != null) {
+            properties.get("id").getVendorExtensions().put("x-proto-field", id);
+        }
+        properties.get("name").getVendorExtensions().put("x-proto-field", name);
+        try {
+            new DefaultGenerator().opts(input).generate();
+            fail("the generation should fail");
+        } catch (RuntimeException e) {
+            Throwable cause = e;
+            while (!(cause instanceof IllegalArgumentException) && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            assertEquals(cause.getMessage(), message);
+        }
+    }
+
+    @Test
+    public void testKotlinClientProtobuf() throws IOException {
+        generate("kotlin-armeria-client", ArmeriaFeatures.GENERATE_PROTOBUF, true);
+
+        final String client = FileUtils.readFileToString(find("PetApiClient.kt"), UTF_8);
+        assertTrue(client.contains("HttpData.wrap(Protobuf.write("));
+        assertTrue(client.contains("headers.add(HttpHeaderNames.ACCEPT, \"application/x-protobuf, application/json;q=0.9\")"));
+        assertNull(find("PetApiConverters.kt"));
+        assertFalse(FileUtils.readFileToString(find("PetApi.kt"), UTF_8).contains("x-protobuf"));
+        assertNotNull(find("models.proto"));
+    }
+
+    @Test
+    public void testKotlinClientDecorators() throws IOException {
+        final ClientOptInput input = input("kotlin-armeria-client");
+        final Operation getPetById = input.getSwagger().getPath("/pet/{petId}").getGet();
+        getPetById.setVendorExtension(KotlinArmeriaClientCodegen.X_MAX_CONCURRENCY, 8);
+        getPetById.setVendorExtension(KotlinArmeriaClientCodegen.X_RETRY_ATTEMPTS, "3");
+        new DefaultGenerator().opts(input).generate();
+
+        final String client = FileUtils.readFileToString(find("PetApiClient.kt"), UTF_8);
+        assertTrue(client.contains("ConcurrencyLimitingClient.newDecorator(8)"));
+        assertTrue(client.contains("RetryingClient.newDecorator(RetryRule.failsafe(), 3)"));
+    }
+
+    @Test
+    public void testKotlinClientInvalidDecorators() {
+        final ClientOptInput input = input("kotlin-armeria-client");
+        input.getSwagger().getPath("/pet/{petId}").getGet().setVendorExtension(KotlinArmeriaClientCodegen.X_RETRY_ATTEMPTS, "three");
+        try {
+            new DefaultGenerator().opts(input).generate();
+            fail("the generation should fail");
+        } catch (RuntimeException e) {
+            Throwable cause = e;
+            while (!(cause instanceof IllegalArgumentException) && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            assertEquals(cause.getMessage(), "The x-retry-attempts of the operation getPetById must be an integer of at least 1, not 'three'");
+        }
+    }
+
+    @Test
+    public void testKotlinBenchmarks() throws IOException {
+        generate("kotlin-armeria", KotlinArmeriaCodegen.GENERATE_BENCHMARKS, true, ArmeriaFeatures.GENERATE_ROUTES, true);
+
+        final File benchmark = find("PetApiServerBenchmark.kt");
+        assertTrue(benchmark.getPath().contains("src" + File.separator + "jmh" + File.separator + "kotlin"));
+        final String benchmarks = FileUtils.readFileToString(benchmark, UTF_8);
+        assertTrue(benchmarks.contains("RequestHeaders.builder(HttpMethod.GET, \"/pet/1\")"));
+        assertTrue(benchmarks.contains("RequestHeaders.builder(HttpMethod.GET, \"/pet/findByStatus?status=available\")"));
+        assertTrue(benchmarks.contains("fun getPetById(): AggregatedHttpResponse"));
+        assertTrue(benchmarks.contains("client.execute(addPetHeaders, addPetBody)"));
+        // the form parameters aren't sent
+        assertFalse(benchmarks.contains("fun uploadFile()"));
+
+        final File stub = find("PetApiStub.kt");
+        assertTrue(stub.getPath().contains("src" + File.separator + "jmh" + File.separator + "kotlin"));
+        assertTrue(FileUtils.readFileToString(stub, UTF_8).contains("class PetApiStub : PetApi"));
+        assertTrue(FileUtils.readFileToString(find("BenchmarkServer.kt"), UTF_8).contains("PetApiRoutes(PetApiStub(), MAPPER).bind(sb)"));
+        assertTrue(FileUtils.readFileToString(find("build.gradle"), UTF_8).contains("me.champeau.jmh"));
+    }
+
+    @Test
+    public void testKotlinStreamingBenchmarks() throws IOException {
+        generate("kotlin-armeria", KotlinArmeriaCodegen.GENERATE_BENCHMARKS, true, ArmeriaFeatures.GENERATE_ROUTES, true,
+                ArmeriaFeatures.STREAMING, true, ArmeriaFeatures.GENERATE_CONVERTERS, true);
+
+        final String benchmarks = FileUtils.readFileToString(find("PetApiServerBenchmark.kt"), UTF_8);
+        assertTrue(benchmarks.contains("RequestHeaders.builder(HttpMethod.GET, \"/pet/findByStatus?status=available\")"));
+        assertTrue(benchmarks.contains("fun findPetsByStatus(): AggregatedHttpResponse"));
+
+        final String stub = FileUtils.readFileToString(find("PetApiStub.kt"), UTF_8);
+        assertTrue(stub.contains("private val findPetsByStatusExample: List<Pet> ="));
+        assertTrue(stub.contains("findPetsByStatusExample.asFlow()"));
+        // the streamed responses aren't written by the converters
+        assertFalse(FileUtils.readFileToString(find("PetApiConvertersBenchmark.kt"), UTF_8).contains("findPetsByStatus"));
+    }
+
+    @Test
+    public void testKotlinClient() throws IOException {
+        generate("kotlin-armeria-client", ArmeriaFeatures.STREAMING, true);
+
+        final String client = FileUtils.readFileToString(find("PetApiClient.kt"), UTF_8);
+        assertTrue(client.contains("class PetApiClient(private val baseUri: String"));
+        assertTrue(client.contains("suspend fun getPetById(petId: kotlin.Long): Pet {"));
+        assertTrue(client.contains("RequestHeaders.builder(HttpMethod.GET, \"/pet/${pathParam(petId)}\")"));
+        assertTrue(client.contains("fun findPetsByStatus(status: kotlin.Array<kotlin.String>): Flow<Pet> = flow {"));
+        assertFalse(client.contains("{{"));
+        assertNotNull(find("ClientSupport.kt"));
+        assertNull(find("PetApiRoutes.kt"));
+
+        final File test = find("PetApiClientTest.kt");
+        assertTrue(test.getPath().contains("src" + File.separator + "test" + File.separator + "kotlin"));
+        final String tests = FileUtils.readFileToString(test, UTF_8);
+        assertTrue(tests.contains("client.getPetById(petId = 1L"));
+        // the streamed responses are tested too
+        assertTrue(tests.contains("object : TypeReference<List<Pet>>() {}).asFlow()"));
+        assertTrue(tests.contains("client.findPetsByStatus(status = arrayOf(\"value\")).toList()"));
+        assertTrue(find("PetApi.kt").getPath().contains("src" + File.separator + "test" + File.separator + "kotlin"));
+        assertTrue(find("StreamingResponseConverter.kt").getPath().contains("src" + File.separator + "test" + File.separator + "kotlin"));
+    }
+
+    @Test
+    public void testOptionsAreOptIn() throws IOException {
+        generate("java-armeria");
+
+        assertNotNull(find("PetApi.java"));
+        assertNull(find("PetApiRoutes.java"));
+        assertNull(find("PetApiConverters.java"));
+        assertNull(find("StreamingResponseConverter.java"));
+        assertNull(find("Validation.java"));
+        assertNull(find("ApiMetrics.java"));
+        assertNull(find("models.proto"));
+    }
+
+    private void generate(String lang, Object... additionalProperties) {
+        new DefaultGenerator().opts(input(lang, additionalProperties)).generate();
+    }
+
+    private ClientOptInput input(String lang, Object... additionalProperties) {
+        final CodegenConfigurator configurator = new CodegenConfigurator()
+                .setLang(lang)
+                .setInputSpec("src/test/resources/2_0/petstore.yaml")
+                .setOutputDir(folder.getRoot().getAbsolutePath());
+        for (int i = 0; i < additionalProperties.length; i += 2) {
+            configurator.addAdditionalProperty((String) additionalProperties[i], additionalProperties[i + 1]);
+        }
+        return configurator.toClientOptInput();
+    }
+
+    private static String classpath(Class<?>... types) throws URISyntaxException {
+        final StringBuilder classpath = new StringBuilder();
+        for (Class<?> type : types) {
+            if (classpath.length() > 0) {
+                classpath.append(File.pathSeparator);
+            }
+            classpath.append(new File(type.getProtectionDomain().getCodeSource().getLocation().toURI()).getAbsolutePath());
+        }
+        return classpath.toString();
+    }
+
+    private File find(String name) {
+        final Collection<File> files = FileUtils.listFiles(folder.getRoot(), null, true);
+        for (File file : files) {
+            if (file.getName().equals(name)) {
+                return file;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,168 @@
+package io.swagger.codegen.cache;
+
+import io.swagger.codegen.ClientOptInput;
+import io.swagger.codegen.CodegenConstants;
+import io.swagger.codegen.DefaultGenerator;
+import io.swagger.codegen.testutils.GenerationFixture;
+import org.apache.commons.io.FileUtils;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+
+import static io.swagger.codegen.testutils.GenerationFixture.PETSTORE;
+import static io.swagger.codegen.testutils.GenerationFixture.contents;
+import static io.swagger.codegen.testutils.GenerationFixture.find;
+import static org.testng.Assert.*;
+
+public class GenerationCacheTest {
+
+    private File root;
+    private int runs;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("generation-cache").toFile();
+        runs = 0;
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(root);
+    }
+
+    @Test(description = "a run with the same inputs is restored without generating")
+    public void testHit() throws Exception {
+        GenerationCache cache = new GenerationCache(new File(root, "cache"));
+        File first = new File(root, "first");
+        File second = new File(root, "second");
+
+        List<File> generated = cache.generate(input(first, "io.first"), generator());
+        List<File> restored = cache.generate(input(second, "io.first"), generator());
+
+        assertEquals(runs, 1);
+        assertEquals(restored.size(), generated.size());
+        Map<String, String> restoredContents = contents(second);
+        assertEquals(restoredContents, contents(first));
+        assertNotNull(find(restoredContents, "PetApi.java"));
+        assertNotNull(find(restoredContents, "PetApiTest.java"));
+
+        GenerationCache.Stats stats = cache.stats();
+        assertEquals(stats.getEntries(), 1);
+        assertTrue(stats.getBlobs() > 0 && stats.getBlobs() <= generated.size());
+        assertTrue(stats.getSize() > 0);
+    }
+
+    @Test(description = "running again into the same output folder hits the cache")
+    public void testRerun() throws Exception {
+        GenerationCache cache = new GenerationCache(new File(root, "cache"));
+        File output = new File(root, "first");
+
+        cache.generate(input(output, "io.first"), generator());
+        Map<String, String> generated = contents(output);
+        assertTrue(generated.containsKey(".swagger-codegen-ignore"));
+        cache.generate(input(output, "io.first"), generator());
+
+        assertEquals(runs, 1);
+        assertEquals(contents(output), generated);
+        assertEquals(cache.stats().getEntries(), 1);
+    }
+
+    @Test(description = "rules added to the ignore file of the output folder miss the cache")
+    public void testIgnoreRules() throws Exception {
+        GenerationCache cache = new GenerationCache(new File(root, "cache"));
+        File output = new File(root, "first");
+
+        cache.generate(input(output, "io.first"), generator());
+        FileUtils.writeStringToFile(new File(output, ".swagger-codegen-ignore"), "# docs\ndocs/\n", "UTF-8");
+        FileUtils.deleteDirectory(new File(output, "docs"));
+        cache.generate(input(output, "io.first"), generator());
+
+        assertEquals(runs, 2);
+        assertFalse(new File(output, "docs").exists());
+    }
+
+    @Test(description = "changing a property default of the generator misses the cache")
+    public void testPropertyDefaults() throws Exception {
+        GenerationCache cache = new GenerationCache(new File(root, "cache"));
+        cache.generate(input(new File(root, "first"), "io.first"), generator());
+        DefaultGenerator withoutApiTests = generator();
+        withoutApiTests.setGeneratorPropertyDefault(CodegenConstants.API_TESTS, "false");
+        cache.generate(input(new File(root, "second"), "io.first"), withoutApiTests);
+
+        assertEquals(runs, 2);
+        assertNotNull(find(contents(new File(root, "second")), "PetApi.java"));
+        assertNull(find(contents(new File(root, "second")), "PetApiTest.java"));
+    }
+
+    @Test(description = "changing an option misses the cache")
+    public void testMiss() throws Exception {
+        GenerationCache cache = new GenerationCache(new File(root, "cache"));
+        cache.generate(input(new File(root, "first"), "io.first"), generator());
+        cache.generate(input(new File(root, "second"), "io.second"), generator());
+
+        assertEquals(runs, 2);
+        assertEquals(cache.stats().getEntries(), 2);
+    }
+
+    @Test(description = "the least recently used runs are evicted first")
+    public void testPrune() throws Exception {
+        GenerationCache cache = new GenerationCache(new File(root, "cache"));
+        ClientOptInput first = input(new File(root, "first"), "io.first");
+        String firstKey = cache.key(first);
+        cache.generate(first, generator());
+        ClientOptInput second = input(new File(root, "second"), "io.second");
+        String secondKey = cache.key(second);
+        cache.generate(second, generator());
+        new File(root, "cache/manifests/" + firstKey).setLastModified(System.currentTimeMillis() - 60000);
+
+        GenerationCache.Stats before = cache.stats();
+        assertEquals(cache.prune(before.getSize() - 1), 1);
+
+        GenerationCache.Stats after = cache.stats();
+        assertEquals(after.getEntries(), 1);
+        assertTrue(after.getSize() < before.getSize());
+        assertNull(cache.restore(firstKey, new File(root, "restored")));
+        assertNotNull(cache.restore(secondKey, new File(root, "restored")));
+
+        assertEquals(cache.prune(0), 1);
+        assertEquals(cache.stats().getEntries(), 0);
+        assertEquals(cache.stats().getBlobs(), 0);
+    }
+
+    @Test(description = "runs which depend on existing files aren't cached")
+    public void testSkipOverwrite() throws Exception {
+        GenerationCache cache = new GenerationCache(new File(root, "cache"));
+        ClientOptInput input = input(new File(root, "first"), "io.first");
+        input.getConfig().setSkipOverwrite(true);
+        cache.generate(input, generator());
+
+        assertEquals(runs, 1);
+        assertEquals(cache.stats().getEntries(), 0);
+    }
+
+    private DefaultGenerator generator() {
+        DefaultGenerator generator = new DefaultGenerator() {
+            @Override
+            public List<File> generate() {
+                runs++;
+                return super.generate();
+            }
+        };
+        generator.setGeneratorPropertyDefault(CodegenConstants.MODELS, "true");
+        generator.setGeneratorPropertyDefault(CodegenConstants.APIS, "true");
+        generator.setGeneratorPropertyDefault(CodegenConstants.SUPPORTING_FILES, "true");
+        return generator;
+    }
+
+    private static ClientOptInput input(File output, String modelPackage) {
+        ClientOptInput input = GenerationFixture.input("java", PETSTORE, output);
+        input.getConfig().additionalProperties().put(CodegenConstants.MODEL_PACKAGE, modelPackage);
+        return input;
+    }
+}
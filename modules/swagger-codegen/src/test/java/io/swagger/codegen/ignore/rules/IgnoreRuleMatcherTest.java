@@ -0,0 +1,92 @@
+package io.swagger.codegen.ignore.rules;
+
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.testng.Assert.*;
+
+public class IgnoreRuleMatcherTest {
+    private static final List<String> PATTERNS = Arrays.asList(
+            "build.sh", "*.sh", "**/build.sh", "/build.sh", "docs/**", "docs/**/somefile.*",
+            "docs/**/*.java", "docs/**/Users/", "**/*[0-9]*", "**/*.{java,md}", "**/[!a-m]*.txt",
+            "src/IO.Swagger.Test/Model/AnimalFarmTests.cs", "**/properly escaped.txt",
+            "**/improperly\\ escaped.txt", "docs/", "src/*/Model/", "*", "**/a?c.(1)", "x/**/y/**/z");
+
+    private static final List<String> PATHS = Arrays.asList(
+            "build.sh", "Build.sh", "src/build.sh", "nested/build.sh", "docs/somefile.md", "docs/1/somefile.md",
+            "docs/1/2/3/somefile.java", "docs/1/Users/a", "docs/1/Users1/a", "docs/1/2/3/Some99File.md",
+            "docs/1/2/3/SomeFile.txt", "src/q.txt", "src/z.txt", "src/IO.Swagger.Test/Model/AnimalFarmTests.cs",
+            "src/properly escaped.txt", "src/improperly escaped.txt", "src/IO.Swagger.Test/Model/Pet.cs",
+            "abc.(1)", "a/abc.(1)", "a/abbc.(1)", "x/y/z", "x/1/y/2/z", "x/y/1/z/2", "README.md");
+
+    @Test
+    public void testMatchesLikeRules() throws Exception {
+        for (String pattern : PATTERNS) {
+            Rule rule = Rule.create(pattern);
+            IgnoreRuleMatcher matcher = new IgnoreRuleMatcher(Collections.singletonList(rule), Collections.<Rule>emptyList());
+            for (String path : PATHS) {
+                assertEquals(matcher.allows(path), !Boolean.TRUE.equals(rule.matches(path)),
+                        String.format("Pattern '%s' against '%s'", pattern, path));
+            }
+        }
+    }
+
+    @Test
+    public void testToRegex() throws Exception {
+        assertEquals(IgnoreRuleMatcher.toRegex("docs/**/*.md"), "\\Qdocs/\\E.*\\Q/\\E[^/]*\\Q.md\\E");
+        assertEquals(IgnoreRuleMatcher.toRegex("a?c.(1)"), "\\Qa\\E[^/]\\Qc.(1)\\E");
+        assertEquals(IgnoreRuleMatcher.toRegex("improperly\\ escaped\\!"), "\\Qimproperly escaped!\\E");
+        assertNull(IgnoreRuleMatcher.toRegex("**/*.{java,md}"));
+        assertNull(IgnoreRuleMatcher.toRegex("**/[!a-m]*.txt"));
+        assertNull(IgnoreRuleMatcher.toRegex("trailing\\"));
+    }
+
+    @Test
+    public void testCombinedRules() throws Exception {
+        List<Rule> exclusions = new ArrayList<>();
+        List<Rule> inclusions = new ArrayList<>();
+        for (String definition : Arrays.asList("docs/**", "!docs/UserApi.md", "src/**/Users/", "!src/1/Users/UserApi.md",
+                "*.log", "!keep.log", "lib/", "!lib/a/")) {
+            Rule rule = Rule.create(definition);
+            (rule.getNegated() ? inclusions : exclusions).add(rule);
+        }
+        IgnoreRuleMatcher matcher = new IgnoreRuleMatcher(exclusions, inclusions);
+
+        assertTrue(matcher.allows("README.md"));
+        assertFalse(matcher.allows("docs/PetApi.md"));
+        assertTrue(matcher.allows("docs/UserApi.md"));
+        assertFalse(matcher.allows("src/1/Users/UserApi.md"), "A file in an excluded directory can't be included by a file rule");
+        assertFalse(matcher.allows("debug.log"));
+        assertTrue(matcher.allows("keep.log"));
+        assertFalse(matcher.allows("lib/x.jar"));
+        assertTrue(matcher.allows("lib/a/x.jar"), "A file in an excluded directory can be included by a directory rule");
+
+        // decisions are cached per directory and must not leak between files of the same directory
+        assertFalse(matcher.allows("docs/PetApi.md"));
+        assertTrue(matcher.allows("docs/UserApi.md"));
+    }
+
+    @Test
+    public void testPlatformSeparatorIsNormalized() throws Exception {
+        IgnoreRuleMatcher matcher = new IgnoreRuleMatcher(Arrays.asList(Rule.create("docs/**"), Rule.create("src/*/Model/")),
+                Collections.singletonList(Rule.create("!docs/UserApi.md")));
+
+        // the paths of java.io.File on Windows
+        assertFalse(matcher.allows("docs\\PetApi.md", '\\'));
+        assertTrue(matcher.allows("docs\\UserApi.md", '\\'));
+        assertFalse(matcher.allows("src\\IO.Swagger\\Model\\Pet.cs", '\\'));
+        assertTrue(matcher.allows("src\\IO.Swagger\\Api\\PetApi.cs", '\\'));
+    }
+
+    @Test
+    public void testInvalidRulesAreIgnored() throws Exception {
+        IgnoreRuleMatcher matcher = new IgnoreRuleMatcher(Collections.singletonList(Rule.create(".")), Collections.<Rule>emptyList());
+
+        assertTrue(matcher.allows("."));
+        assertTrue(matcher.allows("file.txt"));
+    }
+}
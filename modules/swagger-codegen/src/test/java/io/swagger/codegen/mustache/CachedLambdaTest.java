@@ -0,0 +1,80 @@
+package io.swagger.codegen.mustache;
+
+import com.samskivert.mustache.Mustache;
+import com.samskivert.mustache.Template;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.*;
+
+public class CachedLambdaTest extends MustacheTestBase {
+
+    @Test(description = "renders a fragment once per context object")
+    public void testExecute() throws Exception {
+        // Arrange
+        final AtomicInteger renders = new AtomicInteger();
+        Mustache.Lambda counter = new Mustache.Lambda() {
+            @Override
+            public void execute(Template.Fragment fragment, java.io.Writer writer) throws java.io.IOException {
+                renders.incrementAndGet();
+                fragment.execute(writer);
+            }
+        };
+        String template = "{{#items}}{{#cached}}{{#counter}}[{{name}}]{{/counter}}{{/cached}}{{/items}}";
+        Map<String, Object> shared = item("shared");
+        Map<String, Object> equal = item("shared");
+        Object ctx = context(
+                "cached", new CachedLambda(),
+                "counter", counter,
+                "items", Arrays.asList(shared, item("other"), shared, equal, shared)
+        );
+
+        // Act
+        String actual = compile(template, ctx);
+
+        // Assert
+        assertEquals(actual, "[shared][other][shared][shared][shared]");
+        assertEquals(renders.get(), 3, "a different but equal object is rendered again");
+    }
+
+    @Test(description = "keeps the output of different sections over the same object apart")
+    public void testSections() throws Exception {
+        // Arrange
+        String template = "{{#items}}{{#cached}}<{{name}}>{{/cached}}{{#cached}}({{name}}){{/cached}}{{/items}}";
+        Map<String, Object> shared = item("shared");
+        Object ctx = context("cached", new CachedLambda(), "items", Arrays.asList(shared, shared));
+
+        // Act
+        String actual = compile(template, ctx);
+
+        // Assert
+        assertEquals(actual, "<shared>(shared)<shared>(shared)");
+    }
+
+    @Test(description = "forgets the least recently used fragments")
+    public void testCacheSize() throws Exception {
+        // Arrange
+        String template = "{{#items}}{{#cached}}{{name}}{{/cached}}{{/items}}";
+        Map<String, Object> first = item("first");
+        CachedLambda cached = new CachedLambda(1);
+        Object ctx = context("cached", cached, "items", Arrays.asList(first, item("second")));
+        compile(template, ctx);
+
+        // Act
+        first.put("name", "changed");
+        String actual = compile(template, context("cached", cached, "items", Arrays.asList(first)));
+
+        // Assert
+        assertEquals(actual, "changed");
+    }
+
+    private static Map<String, Object> item(String name) {
+        Map<String, Object> item = new HashMap<String, Object>();
+        item.put("name", name);
+        return item;
+    }
+}
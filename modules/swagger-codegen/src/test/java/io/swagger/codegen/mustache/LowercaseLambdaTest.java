@@ -46,4 +46,20 @@ public class LowercaseLambdaTest extends MustacheTestBase {
         // Assert
         assertEquals(actual, expected);
     }
+
+    @Test(description = "changing the generator forgets remembered results")
+    public void testMemo() {
+        // Arrange
+        String template = "{{#lowercase}}{{value}}{{/lowercase}}";
+        LowercaseLambda lambda = new LowercaseLambda();
+        Object ctx = context("lowercase", lambda, "value", "CLASS");
+        assertEquals(compile(template, ctx), "class");
+        assertSame(lambda.format("CLASS"), lambda.format("CLASS"));
+
+        // Act
+        lambda.generator(new CSharpClientCodegen());
+
+        // Assert
+        assertEquals(compile(template, ctx), "_class");
+    }
 }
\ No newline at end of file
@@ -0,0 +1,70 @@
+package io.swagger.codegen.testutils;
+
+import io.swagger.codegen.ClientOptInput;
+import io.swagger.codegen.ClientOpts;
+import io.swagger.codegen.CodegenConfig;
+import io.swagger.codegen.CodegenConfigLoader;
+import io.swagger.codegen.CodegenConstants;
+import io.swagger.parser.SwaggerParser;
+import org.apache.commons.io.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Inputs and outputs of complete generation runs, for the tests comparing the files of the
+ * generation modes. The runs generate the models, the apis and the supporting files.
+ */
+public class GenerationFixture {
+
+    public static final String PETSTORE = "src/test/resources/2_0/petstore.yaml";
+    public static final String FAKE_PETSTORE = "src/test/resources/2_0/petstore-with-fake-endpoints-models-for-testing.yaml";
+
+    private GenerationFixture() {
+        throw new RuntimeException("This class should not be instantiated");
+    }
+
+    /**
+     * @param language the name of the generator
+     * @param spec the path of the spec
+     * @param output the output folder
+     * @return the input of a run of a new config, without generation timestamps
+     */
+    public static ClientOptInput input(String language, String spec, File output) {
+        CodegenConfig config = CodegenConfigLoader.forName(language);
+        config.setOutputDir(output.getAbsolutePath());
+        config.additionalProperties().put(CodegenConstants.HIDE_GENERATION_TIMESTAMP, true);
+
+        ClientOptInput input = new ClientOptInput().opts(new ClientOpts()).swagger(new SwaggerParser().read(spec));
+        input.setConfig(config);
+        return input;
+    }
+
+    /**
+     * @param output the output folder of a run
+     * @return the content of every file of the folder, by path relative to it
+     */
+    public static Map<String, String> contents(File output) throws IOException {
+        Map<String, String> contents = new TreeMap<String, String>();
+        for (File file : FileUtils.listFiles(output, null, true)) {
+            contents.put(output.toURI().relativize(file.toURI()).getPath(), FileUtils.readFileToString(file, "UTF-8"));
+        }
+        return contents;
+    }
+
+    /**
+     * @param contents the contents of the files of a run
+     * @param fileName the name of a file
+     * @return the content of the file with the name in any folder, or null if there is none
+     */
+    public static String find(Map<String, String> contents, String fileName) {
+        for (Map.Entry<String, String> entry : contents.entrySet()) {
+            if (entry.getKey().equals(fileName) || entry.getKey().endsWith("/" + fileName)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+}
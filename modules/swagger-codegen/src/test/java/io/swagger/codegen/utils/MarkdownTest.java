@@ -0,0 +1,56 @@
+package io.swagger.codegen.utils;
+
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.testng.Assert.*;
+
+public class MarkdownTest {
+
+    @Test
+    public void testToHtml() {
+        Markdown markdown = new Markdown();
+        assertEquals(markdown.toHtml(null), "");
+        assertEquals(markdown.toHtml("Text with **bold**"), "Text with <strong>bold</strong>");
+        assertEquals(markdown.toHtml("one\n\ntwo"), "<p>one</p>\n<p>two</p>\n");
+    }
+
+    @Test(description = "repeated conversions are served from the memo")
+    public void testMemo() {
+        Markdown markdown = new Markdown();
+        String html = markdown.toHtml("*memo*");
+        assertSame(markdown.toHtml("*memo*"), html);
+        assertSame(Markdown.getInstance(), Markdown.getInstance());
+    }
+
+    @Test(description = "the memo only holds the most recently used conversions")
+    public void testMemoBound() {
+        Markdown markdown = new Markdown(2);
+        String first = markdown.toHtml("*first*");
+        markdown.toHtml("*second*");
+        markdown.toHtml("*third*");
+
+        String again = markdown.toHtml("*first*");
+        assertEquals(again, first);
+        assertNotSame(again, first);
+    }
+
+    @Test(description = "converting in parallel fills the memo")
+    public void testConvertAll() {
+        Markdown markdown = new Markdown();
+        List<String> texts = new ArrayList<String>();
+        for (int i = 0; i < 1000; i++) {
+            texts.add("description `" + i + "`");
+        }
+        texts.addAll(Arrays.asList(null, "description `0`"));
+        markdown.convertAll(texts);
+
+        Markdown uncached = new Markdown(0);
+        for (String text : texts) {
+            assertEquals(markdown.toHtml(text), uncached.toHtml(text));
+        }
+    }
+}
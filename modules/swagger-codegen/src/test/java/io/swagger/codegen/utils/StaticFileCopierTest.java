@@ -0,0 +1,114 @@
+package io.swagger.codegen.utils;
+
+import io.swagger.codegen.ClientOptInput;
+import io.swagger.codegen.DefaultGenerator;
+import io.swagger.codegen.SupportingFile;
+import org.apache.commons.io.FileUtils;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.util.List;
+
+import static io.swagger.codegen.testutils.GenerationFixture.PETSTORE;
+import static io.swagger.codegen.testutils.GenerationFixture.input;
+import static org.testng.Assert.*;
+
+public class StaticFileCopierTest {
+
+    private static final String RESOURCE = "Java/gradle-wrapper.jar";
+
+    private File root;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("static-files").toFile();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(root);
+    }
+
+    @Test(description = "unchanged copies of a classpath resource are skipped")
+    public void copyResource() throws Exception {
+        StaticFileCopier copier = new StaticFileCopier(getClass().getClassLoader());
+        File target = new File(root, "gradle-wrapper.jar");
+
+        assertTrue(copier.copy(RESOURCE, RESOURCE, target));
+        long size = target.length();
+        assertTrue(size > 0);
+        assertFalse(copier.copy(RESOURCE, RESOURCE, target));
+
+        FileUtils.writeStringToFile(target, "changed", "UTF-8");
+        assertTrue(copier.copy(RESOURCE, RESOURCE, target));
+        assertEquals(target.length(), size);
+
+        assertEquals(copier.getFilesCopied(), 2);
+        assertEquals(copier.getBytesCopied(), 2 * size);
+        assertEquals(copier.getFilesSkipped(), 1);
+        assertEquals(copier.getBytesSkipped(), size);
+    }
+
+    @Test(description = "unchanged copies of a file on disk are skipped")
+    public void copyFile() throws Exception {
+        StaticFileCopier copier = new StaticFileCopier(getClass().getClassLoader());
+        File source = new File(root, "source.txt");
+        File target = new File(root, "target.txt");
+        FileUtils.writeStringToFile(source, "static content", "UTF-8");
+
+        assertTrue(copier.copy(source.getPath(), "unused", target));
+        assertFalse(copier.copy(source.getPath(), "unused", target));
+
+        // same size, different content
+        FileUtils.writeStringToFile(source, "STATIC content", "UTF-8");
+        assertTrue(copier.copy(source.getPath(), "unused", target));
+        assertEquals(FileUtils.readFileToString(target, "UTF-8"), "STATIC content");
+
+        assertEquals(copier.getFilesCopied(), 2);
+        assertEquals(copier.getFilesSkipped(), 1);
+        assertEquals(copier.toString(), "copied 2 static files (28 bytes), skipped 1 unchanged (14 bytes)");
+    }
+
+    @Test(description = "a missing source is reported", expectedExceptions = FileNotFoundException.class)
+    public void missingSource() throws Exception {
+        new StaticFileCopier(getClass().getClassLoader()).copy("missing", "missing/file.bin", new File(root, "file.bin"));
+    }
+
+    @Test(description = "class loaders serving different content under the same name don't share checksums")
+    public void copySameNameFromClassLoaders() throws Exception {
+        String resource = "static/file.bin";
+        File first = new File(root, "first");
+        File second = new File(root, "second");
+        FileUtils.writeStringToFile(new File(first, resource), "first content", "UTF-8");
+        FileUtils.writeStringToFile(new File(second, resource), "other content", "UTF-8");
+        File target = new File(root, "file.bin");
+
+        URLClassLoader firstLoader = new URLClassLoader(new URL[]{first.toURI().toURL()}, null);
+        URLClassLoader secondLoader = new URLClassLoader(new URL[]{second.toURI().toURL()}, null);
+        assertTrue(new StaticFileCopier(firstLoader).copy(resource, resource, target));
+        assertTrue(new StaticFileCopier(secondLoader).copy(resource, resource, target));
+        assertEquals(FileUtils.readFileToString(target, "UTF-8"), "other content");
+        assertFalse(new StaticFileCopier(secondLoader).copy(resource, resource, target));
+    }
+
+    @Test(description = "a missing static supporting file isn't reported as generated")
+    public void missingSupportingFile() throws Exception {
+        File output = new File(root, "output");
+        ClientOptInput input = input("java", PETSTORE, output);
+        input.getConfig().supportingFiles().add(new SupportingFile("missing.jar", "", "missing.jar"));
+
+        List<File> files = new DefaultGenerator().opts(input).generate();
+
+        assertFalse(new File(output, "missing.jar").exists());
+        for (File file : files) {
+            assertFalse(file.getName().equals("missing.jar"), file.getPath());
+        }
+    }
+}
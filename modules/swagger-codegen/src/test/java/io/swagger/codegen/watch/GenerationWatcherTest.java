@@ -0,0 +1,153 @@
+package io.swagger.codegen.watch;
+
+import io.swagger.codegen.CodegenConstants;
+import io.swagger.codegen.config.CodegenConfigurator;
+import org.apache.commons.io.FileUtils;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.testng.Assert.*;
+
+public class GenerationWatcherTest {
+
+    private static final String SPEC = "swagger: '2.0'\n"
+            + "info: {title: Watch, version: '1.0'}\n"
+            + "paths: {}\n"
+            + "definitions:\n"
+            + "  Pet:\n"
+            + "    type: object\n"
+            + "    properties:\n"
+            + "      name: {type: string}\n"
+            + "      category: {$ref: '#/definitions/Category'}\n"
+            + "      tag: {$ref: 'common.yaml#/definitions/Tag'}\n"
+            + "  Category:\n"
+            + "    type: object\n"
+            + "    description: CATEGORY\n"
+            + "    properties:\n"
+            + "      id: {type: integer, format: int64}\n"
+            + "  Order:\n"
+            + "    type: object\n"
+            + "    properties:\n"
+            + "      id: {type: integer, format: int64}\n";
+
+    private static final String COMMON = "definitions:\n"
+            + "  Tag:\n"
+            + "    type: object\n"
+            + "    description: TAG\n"
+            + "    properties:\n"
+            + "      label: {type: string}\n";
+
+    private File root;
+    private File spec;
+    private File common;
+    private File templates;
+    private GenerationWatcher watcher;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("generation-watcher").toFile();
+        spec = new File(root, "spec.yaml");
+        common = new File(root, "common.yaml");
+        templates = new File(root, "templates");
+        FileUtils.writeStringToFile(spec, SPEC, "UTF-8");
+        FileUtils.writeStringToFile(common, COMMON, "UTF-8");
+        FileUtils.writeStringToFile(new File(templates, "model.mustache"), "{{#models}}{{#model}}class {{classname}}{{/model}}{{/models}}", "UTF-8");
+
+        CodegenConfigurator configurator = new CodegenConfigurator()
+                .setLang("java")
+                .setInputSpec(spec.getAbsolutePath())
+                .setOutputDir(new File(root, "output").getAbsolutePath())
+                .setTemplateDir(templates.getAbsolutePath())
+                .addAdditionalProperty(CodegenConstants.HIDE_GENERATION_TIMESTAMP, true);
+        watcher = new GenerationWatcher(configurator);
+        assertTrue(names(watcher.generate(null)).containsAll(names("Pet.java", "Category.java", "Tag.java", "Order.java", "pom.xml")));
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown() throws IOException {
+        watcher.close();
+        FileUtils.deleteDirectory(root);
+    }
+
+    @Test(description = "a changed definition renders it and the models referring to it")
+    public void testChangedDefinition() throws Exception {
+        FileUtils.writeStringToFile(spec, SPEC.replace("CATEGORY", "changed"), "UTF-8");
+        Set<String> names = names(watcher.generate(Collections.singleton(spec.toPath())));
+
+        assertTrue(names.containsAll(names("Pet.java", "Category.java", "JSON.java")), names.toString());
+        assertFalse(names.contains("Order.java"));
+        assertFalse(names.contains("Tag.java"));
+    }
+
+    @Test(description = "a change to a file the spec refers to is picked up")
+    public void testChangedReference() throws Exception {
+        FileUtils.writeStringToFile(common, COMMON.replace("TAG", "changed"), "UTF-8");
+        Set<String> names = names(watcher.generate(Collections.singleton(common.toPath())));
+
+        assertTrue(names.containsAll(names("Pet.java", "Tag.java")), names.toString());
+        assertFalse(names.contains("Order.java"));
+    }
+
+    @Test(description = "a change which doesn't change the parsed spec renders nothing")
+    public void testUnchangedSpec() throws Exception {
+        FileUtils.writeStringToFile(spec, SPEC + "\n# comment\n", "UTF-8");
+        assertNull(watcher.generate(Collections.singleton(spec.toPath())));
+    }
+
+    @Test(description = "a changed model template renders all models, but no supporting files")
+    public void testChangedTemplate() throws Exception {
+        File template = new File(templates, "model.mustache");
+        FileUtils.writeStringToFile(template, "{{#models}}{{#model}}record {{classname}}{{/model}}{{/models}}", "UTF-8");
+        List<File> files = watcher.generate(Collections.singleton(template.toPath()));
+        Set<String> names = names(files);
+
+        assertTrue(names.containsAll(names("Pet.java", "Category.java", "Tag.java", "Order.java")), names.toString());
+        assertFalse(names.contains("JSON.java"));
+        for (File file : files) {
+            if (file.getName().equals("Order.java")) {
+                assertEquals(FileUtils.readFileToString(file, "UTF-8"), "record Order");
+            }
+        }
+    }
+
+    @Test(description = "the template changes generate from the spec as it was read, not as a generation left it")
+    public void testRepeatedTemplateChanges() throws Exception {
+        FileUtils.writeStringToFile(spec, SPEC + "  Owner:\n"
+                + "    type: object\n"
+                + "    properties:\n"
+                + "      address: {type: object, properties: {city: {type: string}}}\n", "UTF-8");
+        Set<String> first = names(watcher.generate(Collections.singleton(spec.toPath())));
+        assertTrue(first.containsAll(names("Owner.java", "OwnerAddress.java")), first.toString());
+
+        File template = new File(templates, "model.mustache");
+        for (String keyword : new String[]{"record", "interface"}) {
+            FileUtils.writeStringToFile(template, "{{#models}}{{#model}}" + keyword + " {{classname}}{{/model}}{{/models}}", "UTF-8");
+            Set<String> names = names(watcher.generate(Collections.singleton(template.toPath())));
+            assertTrue(names.containsAll(names("Pet.java", "Order.java", "Owner.java", "OwnerAddress.java")), names.toString());
+        }
+    }
+
+    private static Set<String> names(List<File> files) {
+        assertNotNull(files);
+        Set<String> names = new TreeSet<String>();
+        for (File file : files) {
+            names.add(file.getName());
+        }
+        return names;
+    }
+
+    private static Set<String> names(String... names) {
+        Set<String> set = new TreeSet<String>();
+        Collections.addAll(set, names);
+        return set;
+    }
+}